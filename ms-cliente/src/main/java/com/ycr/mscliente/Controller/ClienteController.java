@@ -3,12 +3,15 @@ package com.ycr.mscliente.Controller;
 
 import com.ycr.mscliente.Entity.Cliente;
 import com.ycr.mscliente.Service.ClienteService;
+import com.ycr.mscliente.importacion.FormatoImportacion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -30,6 +33,18 @@ public class ClienteController {
         }
     }
 
+    // CREATE - Importación masiva: CSV con cabecera o NDJSON (un objeto por línea). El archivo se lee en streaming;
+    // las filas inválidas o con DNI/correo ya registrado se informan por línea y no detienen la importación
+    @PostMapping(value = "/importar", consumes = {FormatoImportacion.MEDIA_TYPE_CSV, FormatoImportacion.MEDIA_TYPE_NDJSON})
+    public ResponseEntity<?> importarClientes(InputStream entrada,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        try {
+            return new ResponseEntity<>(clienteService.importarClientes(entrada, contentType), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     // READ - Obtener todos los clientes
     @GetMapping
     public ResponseEntity<List<Cliente>> obtenerTodosLosClientes() {
@@ -47,6 +62,13 @@ public class ClienteController {
 
 
 
+    // READ - Obtener varios clientes por ID (validación en lote desde ms-reserva)
+    @PostMapping("/por-ids")
+    public ResponseEntity<List<Cliente>> obtenerClientesPorIds(@RequestBody List<Long> ids) {
+        List<Cliente> clientes = clienteService.obtenerClientesPorIds(ids);
+        return new ResponseEntity<>(clientes, HttpStatus.OK);
+    }
+
     // READ - Obtener cliente por DNI
     @GetMapping("/dni/{dni}")
     public ResponseEntity<Cliente> obtenerClientePorDni(@PathVariable String dni) {
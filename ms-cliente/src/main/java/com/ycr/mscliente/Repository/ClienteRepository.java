@@ -2,8 +2,12 @@ package com.ycr.mscliente.Repository;
 
 import com.ycr.mscliente.Entity.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +15,9 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByDni(String dni);
     boolean existsByDni(String dni);
     boolean existsByCorreo(String correo);
+
+    // [dni, correo] de los clientes que ya tienen alguno de los DNI o correos indicados
+    @Query("SELECT c.dni, c.correo FROM Cliente c WHERE c.dni IN :dnis OR c.correo IN :correos")
+    List<Object[]> findDniYCorreoExistentes(@Param("dnis") Collection<String> dnis,
+                                            @Param("correos") Collection<String> correos);
 }
\ No newline at end of file
@@ -4,10 +4,16 @@ package com.ycr.mscliente.Service;
 
 import com.ycr.mscliente.Entity.Cliente;
 import com.ycr.mscliente.Repository.ClienteRepository;
+import com.ycr.mscliente.dtos.ResultadoImportacionDTO;
+import com.ycr.mscliente.importacion.ClienteImportador;
+import com.ycr.mscliente.importacion.FormatoImportacion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +24,8 @@ public class ClienteService {
 
     @Autowired
     private ClienteRepository clienteRepository;
+    @Autowired
+    private ClienteImportador importador;
 
     // Crear cliente
     public Cliente crearCliente(Cliente cliente) {
@@ -31,6 +39,18 @@ public class ClienteService {
         return clienteRepository.save(cliente);
     }
 
+    // Importación masiva desde CSV o NDJSON; cada tramo del archivo va en su propia transacción, así que esta
+    // no abre ninguna
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoImportacionDTO importarClientes(InputStream entrada, String contentType) {
+        FormatoImportacion formato = FormatoImportacion.desde(contentType);
+        try {
+            return importador.importar(entrada, formato);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo de importación: " + e.getMessage());
+        }
+    }
+
     // Obtener todos los clientes
     public List<Cliente> obtenerTodosLosClientes() {
         return clienteRepository.findAll();
@@ -41,6 +61,11 @@ public class ClienteService {
         return clienteRepository.findById(id);
     }
 
+    // Obtener varios clientes por ID en una sola consulta
+    public List<Cliente> obtenerClientesPorIds(List<Long> ids) {
+        return clienteRepository.findAllById(ids);
+    }
+
     // Obtener cliente por DNI
     public Optional<Cliente> obtenerClientePorDni(String dni) {
         return clienteRepository.findByDni(dni);
@@ -0,0 +1,13 @@
+package com.ycr.mscliente.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErrorImportacionDTO {
+    private int linea;
+    private String mensaje;
+}
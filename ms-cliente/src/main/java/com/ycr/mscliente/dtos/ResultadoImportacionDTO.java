@@ -0,0 +1,25 @@
+package com.ycr.mscliente.dtos;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Resumen de una importación. "errores" lista como mucho los primeros N fallos (con su línea en el archivo);
+// "conErrores" los cuenta todos.
+@Data
+@NoArgsConstructor
+public class ResultadoImportacionDTO {
+    private int procesadas;
+    private int creadas;
+    private int conErrores;
+    private List<ErrorImportacionDTO> errores = new ArrayList<>();
+
+    public void registrarError(int linea, String mensaje, int maximoListados) {
+        conErrores++;
+        if (errores.size() < maximoListados) {
+            errores.add(new ErrorImportacionDTO(linea, mensaje));
+        }
+    }
+}
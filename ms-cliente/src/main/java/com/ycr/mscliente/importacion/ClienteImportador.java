@@ -0,0 +1,151 @@
+package com.ycr.mscliente.importacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ycr.mscliente.Entity.Cliente;
+import com.ycr.mscliente.Repository.ClienteRepository;
+import com.ycr.mscliente.dtos.ResultadoImportacionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Importa clientes desde CSV o NDJSON en tramos: cada tramo comprueba DNI y correo ya registrados con una sola
+// consulta, inserta las filas válidas con un batch JDBC (con IDENTITY, Hibernate insertaría de una en una)
+// y confirma su propia transacción, así los tramos siguientes ven lo ya importado
+@Component
+public class ClienteImportador {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteImportador.class);
+    private static final String INSERT = "INSERT INTO clientes "
+            + "(nombre, apellido, dni, correo, telefono, fecha_registro) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int[] TIPOS = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.DATE};
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${clientes.importacion.tramo:500}")
+    private int tamanioTramo;
+    @Value("${clientes.importacion.errores-maximo:1000}")
+    private int erroresMaximo;
+
+    public ResultadoImportacionDTO importar(InputStream entrada, FormatoImportacion formato) throws IOException {
+        LectorFilas<Cliente> lector = new LectorFilas<>(entrada, formato, Cliente.class,
+                ClienteImportador::desdeCsv, objectMapper);
+        ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        List<FilaImportacion<Cliente>> tramo = new ArrayList<>(tamanioTramo);
+        FilaImportacion<Cliente> fila;
+        while ((fila = lector.siguiente()) != null) {
+            resultado.setProcesadas(resultado.getProcesadas() + 1);
+            if (fila.error() != null) {
+                resultado.registrarError(fila.linea(), fila.error(), erroresMaximo);
+            } else if (vacio(fila.valor().getDni()) || vacio(fila.valor().getCorreo())) {
+                resultado.registrarError(fila.linea(), "El DNI y el correo son obligatorios", erroresMaximo);
+            } else {
+                tramo.add(fila);
+                if (tramo.size() == tamanioTramo) {
+                    procesarTramo(tramo, resultado);
+                    tramo.clear();
+                }
+            }
+        }
+        if (!tramo.isEmpty()) {
+            procesarTramo(tramo, resultado);
+        }
+        return resultado;
+    }
+
+    private void procesarTramo(List<FilaImportacion<Cliente>> tramo, ResultadoImportacionDTO resultado) {
+        List<FilaImportacion<Cliente>> nuevas = new ArrayList<>(tramo.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> dnis = new HashSet<>();
+                Set<String> correos = new HashSet<>();
+                for (FilaImportacion<Cliente> fila : tramo) {
+                    fila.valor().setDni(fila.valor().getDni().trim());
+                    fila.valor().setCorreo(fila.valor().getCorreo().trim());
+                    dnis.add(fila.valor().getDni());
+                    correos.add(fila.valor().getCorreo());
+                }
+                Set<String> dnisExistentes = new HashSet<>();
+                Set<String> correosExistentes = new HashSet<>();
+                for (Object[] existente : clienteRepository.findDniYCorreoExistentes(dnis, correos)) {
+                    dnisExistentes.add((String) existente[0]);
+                    correosExistentes.add((String) existente[1]);
+                }
+                Set<String> dnisVistos = new HashSet<>();
+                Set<String> correosVistos = new HashSet<>();
+                LocalDate hoy = LocalDate.now();
+                for (FilaImportacion<Cliente> fila : tramo) {
+                    Cliente cliente = fila.valor();
+                    if (dnisExistentes.contains(cliente.getDni())) {
+                        resultado.registrarError(fila.linea(),
+                                "Ya existe un cliente con el DNI: " + cliente.getDni(), erroresMaximo);
+                    } else if (correosExistentes.contains(cliente.getCorreo())) {
+                        resultado.registrarError(fila.linea(),
+                                "Ya existe un cliente con el correo: " + cliente.getCorreo(), erroresMaximo);
+                    } else if (!dnisVistos.add(cliente.getDni())) {
+                        resultado.registrarError(fila.linea(),
+                                "DNI repetido en el archivo: " + cliente.getDni(), erroresMaximo);
+                    } else if (!correosVistos.add(cliente.getCorreo())) {
+                        resultado.registrarError(fila.linea(),
+                                "Correo repetido en el archivo: " + cliente.getCorreo(), erroresMaximo);
+                    } else {
+                        cliente.setFechaRegistro(hoy);
+                        nuevas.add(fila);
+                    }
+                }
+                if (!nuevas.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT, nuevas.stream().map(f -> valores(f.valor())).toList(), TIPOS);
+                }
+            });
+            resultado.setCreadas(resultado.getCreadas() + nuevas.size());
+        } catch (DataAccessException e) {
+            log.warn("No se pudo guardar un tramo de {} clientes: {}", nuevas.size(), e.getMessage());
+            for (FilaImportacion<Cliente> fila : nuevas) {
+                resultado.registrarError(fila.linea(), "No se pudo guardar: " + e.getMostSpecificCause().getMessage(),
+                        erroresMaximo);
+            }
+        }
+    }
+
+    private static Object[] valores(Cliente cliente) {
+        return new Object[]{cliente.getNombre(), cliente.getApellido(), cliente.getDni(), cliente.getCorreo(),
+                cliente.getTelefono(), Date.valueOf(cliente.getFechaRegistro())};
+    }
+
+    private static boolean vacio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private static Cliente desdeCsv(Map<String, String> campos) {
+        return Cliente.builder()
+                .nombre(campos.get("nombre"))
+                .apellido(campos.get("apellido"))
+                .dni(campos.get("dni"))
+                .correo(campos.get("correo"))
+                .telefono(campos.get("telefono"))
+                .build();
+    }
+}
@@ -0,0 +1,5 @@
+package com.ycr.mscliente.importacion;
+
+// Una fila leída del archivo: el valor convertido o el motivo por el que no se pudo leer
+public record FilaImportacion<T>(int linea, T valor, String error) {
+}
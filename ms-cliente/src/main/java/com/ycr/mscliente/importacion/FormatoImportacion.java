@@ -0,0 +1,23 @@
+package com.ycr.mscliente.importacion;
+
+import org.springframework.http.MediaType;
+
+public enum FormatoImportacion {
+    CSV, NDJSON;
+
+    public static final String MEDIA_TYPE_CSV = "text/csv";
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    public static FormatoImportacion desde(String contentType) {
+        if (contentType != null) {
+            MediaType tipo = MediaType.parseMediaType(contentType);
+            if (tipo.isCompatibleWith(MediaType.parseMediaType(MEDIA_TYPE_CSV))) {
+                return CSV;
+            }
+            if (tipo.isCompatibleWith(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))) {
+                return NDJSON;
+            }
+        }
+        throw new RuntimeException("Formato no soportado; use " + MEDIA_TYPE_CSV + " o " + MEDIA_TYPE_NDJSON);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ycr.mscliente.importacion;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Lee un CSV registro a registro: separador coma, campos entre comillas dobles con "" como comilla escapada
+// y saltos de línea permitidos dentro de las comillas
+class LectorCsv {
+
+    private final Reader reader;
+    private int linea = 1;
+    private int lineaRegistro;
+    private int pendiente = -2;
+
+    LectorCsv(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Línea del archivo donde empezó el último registro devuelto
+    int lineaRegistro() {
+        return lineaRegistro;
+    }
+
+    // Null al llegar al final
+    List<String> siguiente() throws IOException {
+        int c = leer();
+        if (c == -1) {
+            return null;
+        }
+        lineaRegistro = linea;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    throw new IOException("Comillas sin cerrar en el registro de la línea " + lineaRegistro);
+                }
+                if (c == '"') {
+                    int siguiente = leer();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else {
+                    contarLinea(c);
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n') {
+                        pendiente = siguiente;
+                    }
+                }
+                if (c != -1) {
+                    linea++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = leer();
+        }
+    }
+
+    private void contarLinea(int c) {
+        if (c == '\n') {
+            linea++;
+        }
+    }
+
+    private int leer() throws IOException {
+        if (pendiente != -2) {
+            int c = pendiente;
+            pendiente = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,119 @@
+package com.ycr.mscliente.importacion;
+
+import com.ycr.mscliente.Entity.Cliente;
+import com.ycr.mscliente.Repository.ClienteRepository;
+import com.ycr.mscliente.Service.ClienteService;
+import com.ycr.mscliente.dtos.ErrorImportacionDTO;
+import com.ycr.mscliente.dtos.ResultadoImportacionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Tramos de 3 filas para que un archivo pequeño ocupe varios
+@SpringBootTest(properties = "clientes.importacion.tramo=3")
+class ClienteImportadorTests {
+
+    @Autowired
+    private ClienteImportador importador;
+    @Autowired
+    private ClienteService clienteService;
+    @MockitoSpyBean
+    private ClienteRepository clienteRepository;
+
+    @BeforeEach
+    void limpiar() {
+        clienteRepository.deleteAll();
+        clienteRepository.save(Cliente.builder().nombre("Ya").apellido("Registrado").dni("10000000")
+                .correo("ya@correo.com").fechaRegistro(LocalDate.now().minusDays(10)).build());
+        clearInvocations(clienteRepository);
+    }
+
+    private static InputStream contenido(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<Integer, String> errores(ResultadoImportacionDTO resultado) {
+        return resultado.getErrores().stream()
+                .collect(Collectors.toMap(ErrorImportacionDTO::getLinea, ErrorImportacionDTO::getMensaje));
+    }
+
+    @Test
+    void importaPorTramosYReportaCadaFilaRechazada() throws IOException {
+        String csv = "nombre,dni,correo\n"
+                + "Ana,10000000,otra@correo.com\n"                  // 2: DNI ya registrado
+                + "Beto,20000000,ya@correo.com\n"                   // 3: correo ya registrado
+                + "Caro,30000000,caro@correo.com\n"                 // 4: se crea
+                + "Dani,30000000,dani@correo.com\n"                 // 5: DNI creado por el tramo anterior
+                + "Elsa,40000000,elsa@correo.com\n"                 // 6: se crea
+                + "Fer,50000000,elsa@correo.com\n"                  // 7: correo repetido en el mismo tramo
+                + "Gabi,,gabi@correo.com\n"                         // 8: sin DNI, no entra en ningún tramo
+                + "Hugo,60000000," + "h".repeat(300) + "@correo.com\n" // 9: su tramo falla al insertar
+                + "Ivan,70000000,ivan@correo.com\n"                 // 10: se deshace con el tramo
+                + "Juan,70000000,juan@correo.com\n";                // 11: DNI repetido en el mismo tramo
+
+        ResultadoImportacionDTO resultado = importador.importar(contenido(csv), FormatoImportacion.CSV);
+
+        assertEquals(10, resultado.getProcesadas());
+        assertEquals(2, resultado.getCreadas());
+        assertEquals(8, resultado.getConErrores());
+        Map<Integer, String> errores = errores(resultado);
+        assertEquals("Ya existe un cliente con el DNI: 10000000", errores.get(2));
+        assertEquals("Ya existe un cliente con el correo: ya@correo.com", errores.get(3));
+        assertEquals("Ya existe un cliente con el DNI: 30000000", errores.get(5));
+        assertEquals("Correo repetido en el archivo: elsa@correo.com", errores.get(7));
+        assertEquals("El DNI y el correo son obligatorios", errores.get(8));
+        assertTrue(errores.get(9).startsWith("No se pudo guardar"));
+        assertTrue(errores.get(10).startsWith("No se pudo guardar"));
+        assertEquals("DNI repetido en el archivo: 70000000", errores.get(11));
+        assertEquals(Set.of("10000000", "30000000", "40000000"),
+                clienteRepository.findAll().stream().map(Cliente::getDni).collect(Collectors.toSet()));
+
+        // Una sola consulta de DNI y correos existentes por tramo
+        verify(clienteRepository, times(1)).findDniYCorreoExistentes(Set.of("10000000", "20000000", "30000000"),
+                Set.of("otra@correo.com", "ya@correo.com", "caro@correo.com"));
+        verify(clienteRepository, times(1)).findDniYCorreoExistentes(Set.of("30000000", "40000000", "50000000"),
+                Set.of("dani@correo.com", "elsa@correo.com"));
+        verify(clienteRepository, times(3)).findDniYCorreoExistentes(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void losClientesImportadosQuedanConIdYFechaDeRegistro() throws IOException {
+        String ndjson = "{\"nombre\":\"Ana\",\"dni\":\" 20000000 \",\"correo\":\"ana@correo.com\",\"telefono\":\"999\"}\n"
+                + "{\"nombre\":\"Beto\",\"dni\":\"30000000\",\"correo\":\"beto@correo.com\"}\n";
+
+        ResultadoImportacionDTO resultado = clienteService.importarClientes(contenido(ndjson),
+                FormatoImportacion.MEDIA_TYPE_NDJSON);
+
+        assertEquals(2, resultado.getCreadas());
+        List<Cliente> importados = clienteRepository.findAll().stream()
+                .filter(c -> !c.getDni().equals("10000000")).toList();
+        assertEquals(2, importados.size());
+        for (Cliente cliente : importados) {
+            assertNotNull(cliente.getIdCliente());
+            assertEquals(LocalDate.now(), cliente.getFechaRegistro());
+        }
+        Cliente ana = importados.stream().filter(c -> c.getNombre().equals("Ana")).findFirst().orElseThrow();
+        assertEquals("20000000", ana.getDni());
+        assertEquals("999", ana.getTelefono());
+    }
+}
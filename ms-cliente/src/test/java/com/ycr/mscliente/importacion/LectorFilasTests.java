@@ -0,0 +1,83 @@
+package com.ycr.mscliente.importacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ycr.mscliente.Entity.Cliente;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LectorFilasTests {
+
+    private static List<FilaImportacion<Cliente>> leer(String contenido, FormatoImportacion formato) throws IOException {
+        LectorFilas<Cliente> lector = new LectorFilas<>(
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato, Cliente.class,
+                campos -> {
+                    if (campos.get("dni") != null && !campos.get("dni").matches("\\d{8}")) {
+                        throw new RuntimeException("DNI inválido");
+                    }
+                    return Cliente.builder().nombre(campos.get("nombre")).dni(campos.get("dni"))
+                            .correo(campos.get("correo")).telefono(campos.get("telefono")).build();
+                },
+                new ObjectMapper());
+        List<FilaImportacion<Cliente>> filas = new ArrayList<>();
+        FilaImportacion<Cliente> fila;
+        while ((fila = lector.siguiente()) != null) {
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    @Test
+    void csvConComillasSaltosDeLineaYErroresPorFila() throws IOException {
+        String csv = "Nombre,DNI,correo,telefono\r\n"
+                + "\"Pérez, Ana\",12345678,ana@correo.com,\"999 \"\"111\"\"\"\r\n"
+                + "\"Luis\nAlberto\",123,luis@correo.com,\r\n"
+                + "\r\n"
+                + "Eva,87654321\r\n"
+                + "Raúl,11112222,,\r\n";
+
+        List<FilaImportacion<Cliente>> filas = leer(csv, FormatoImportacion.CSV);
+
+        assertEquals(4, filas.size());
+        assertEquals(2, filas.get(0).linea());
+        assertEquals("Pérez, Ana", filas.get(0).valor().getNombre());
+        assertEquals("999 \"111\"", filas.get(0).valor().getTelefono());
+        assertEquals(3, filas.get(1).linea());
+        assertEquals("DNI inválido", filas.get(1).error());
+        assertEquals(6, filas.get(2).linea());
+        assertNotNull(filas.get(2).error());
+        assertEquals("11112222", filas.get(3).valor().getDni());
+        assertNull(filas.get(3).valor().getCorreo());
+        assertNull(filas.get(3).valor().getTelefono());
+    }
+
+    @Test
+    void ndjsonSaltaLineasEnBlancoEInformaJsonInvalido() throws IOException {
+        String ndjson = "{\"dni\":\"12345678\",\"correo\":\"ana@correo.com\"}\n\n{no es json}\n{\"dni\":\"87654321\"}";
+
+        List<FilaImportacion<Cliente>> filas = leer(ndjson, FormatoImportacion.NDJSON);
+
+        assertEquals(3, filas.size());
+        assertEquals("ana@correo.com", filas.get(0).valor().getCorreo());
+        assertEquals(3, filas.get(1).linea());
+        assertNotNull(filas.get(1).error());
+        assertEquals(4, filas.get(2).linea());
+        assertEquals("87654321", filas.get(2).valor().getDni());
+    }
+
+    @Test
+    void elFormatoSaleDelContentType() {
+        assertEquals(FormatoImportacion.CSV, FormatoImportacion.desde("text/csv; charset=UTF-8"));
+        assertEquals(FormatoImportacion.NDJSON, FormatoImportacion.desde(FormatoImportacion.MEDIA_TYPE_NDJSON));
+        assertThrows(RuntimeException.class, () -> FormatoImportacion.desde("application/json"));
+    }
+}
@@ -3,11 +3,21 @@ package com.ycr.mshabitaciones.Controller;
 
 import com.ycr.mshabitaciones.Entity.Habitacion;
 import com.ycr.mshabitaciones.Service.HabitacionService;
+import com.ycr.mshabitaciones.catalogo.CatalogoSnapshot;
+import com.ycr.mshabitaciones.dtos.CambioDisponibilidadDTO;
+import com.ycr.mshabitaciones.dtos.FiltroHabitacionesDTO;
+import com.ycr.mshabitaciones.dtos.PaginaHabitacionesDTO;
+import com.ycr.mshabitaciones.dtos.ResultadoLoteDisponibilidadDTO;
+import com.ycr.mshabitaciones.importacion.FormatoImportacion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +25,8 @@ import java.util.Optional;
 @RequestMapping("/habitaciones")
 public class HabitacionController {
 
+    private static final String CABECERA_VERSION_CATALOGO = "X-Catalogo-Version";
+
     @Autowired
     private HabitacionService habitacionService;
 
@@ -29,11 +41,26 @@ public class HabitacionController {
         }
     }
 
-    // READ - Obtener todas las habitaciones
+    // CREATE - Importación masiva: CSV con cabecera o NDJSON (un objeto por línea). El archivo se lee en streaming;
+    // las filas inválidas o con número ya registrado se informan por línea y no detienen la importación
+    @PostMapping(value = "/importar", consumes = {FormatoImportacion.MEDIA_TYPE_CSV, FormatoImportacion.MEDIA_TYPE_NDJSON})
+    public ResponseEntity<?> importarHabitaciones(InputStream entrada,
+                                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        try {
+            return new ResponseEntity<>(habitacionService.importarHabitaciones(entrada, contentType), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // READ - Obtener todas las habitaciones, desde el snapshot del catálogo con su ETag
     @GetMapping
-    public ResponseEntity<List<Habitacion>> obtenerTodasLasHabitaciones() {
-        List<Habitacion> habitaciones = habitacionService.obtenerTodasLasHabitaciones();
-        return new ResponseEntity<>(habitaciones, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodasLasHabitaciones() {
+        CatalogoSnapshot catalogo = habitacionService.obtenerCatalogo();
+        if (catalogo == null) {
+            return new ResponseEntity<>(habitacionService.obtenerTodasLasHabitaciones(), HttpStatus.OK);
+        }
+        return respuestaCatalogo(catalogo, catalogo.getEtagTodas(), catalogo.getJsonTodas());
     }
 
     @GetMapping("/{id}")
@@ -45,6 +72,24 @@ public class HabitacionController {
     }
 
 
+    // READ - Obtener varias habitaciones por ID: GET /habitaciones?ids=1,2,3
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> obtenerHabitacionesPorIdsConsulta(@RequestParam List<Long> ids) {
+        return obtenerHabitacionesPorIds(ids);
+    }
+
+    // READ - Variante POST para listas largas que no caben en la URL (validación en lote desde ms-reserva)
+    @PostMapping("/por-ids")
+    public ResponseEntity<?> obtenerHabitacionesPorIds(@RequestBody List<Long> ids) {
+        try {
+            List<Habitacion> habitaciones = habitacionService.obtenerHabitacionesPorIds(ids);
+            return new ResponseEntity<>(habitaciones, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+
     @GetMapping("/numero/{numero}")
     public ResponseEntity<Habitacion> obtenerHabitacionPorNumero(@PathVariable String numero) {
         Optional<Habitacion> habitacionOpt = habitacionService.obtenerHabitacionPorNumero(numero);
@@ -56,11 +101,25 @@ public class HabitacionController {
     }
 
 
-    // READ - Obtener habitaciones disponibles
+    // READ - Obtener habitaciones disponibles, desde el snapshot del catálogo con su ETag
     @GetMapping("/disponibles")
-    public ResponseEntity<List<Habitacion>> obtenerHabitacionesDisponibles() {
-        List<Habitacion> habitaciones = habitacionService.obtenerHabitacionesDisponibles();
-        return new ResponseEntity<>(habitaciones, HttpStatus.OK);
+    public ResponseEntity<?> obtenerHabitacionesDisponibles() {
+        CatalogoSnapshot catalogo = habitacionService.obtenerCatalogo();
+        if (catalogo == null) {
+            return new ResponseEntity<>(habitacionService.obtenerHabitacionesDisponibles(), HttpStatus.OK);
+        }
+        return respuestaCatalogo(catalogo, catalogo.getEtagDisponibles(), catalogo.getJsonDisponibles());
+    }
+
+    // Spring responde 304 sin cuerpo cuando el If-None-Match de la petición coincide con el ETag;
+    // si no, escribe los bytes ya serializados del snapshot sin pasar por Jackson
+    private ResponseEntity<byte[]> respuestaCatalogo(CatalogoSnapshot catalogo, String etag, byte[] json) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(CABECERA_VERSION_CATALOGO, String.valueOf(catalogo.getVersion()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
     }
 
     // READ - Obtener habitaciones por tipo
@@ -92,6 +151,35 @@ public class HabitacionController {
     }
 
 
+    // READ - Búsqueda con cualquier combinación de filtros y conteos por faceta:
+    // GET /habitaciones/busqueda?tipo=doble&tipo=suite&disponible=true&capacidadMinima=2&precioMinimo=50&precioMaximo=120
+    @GetMapping("/busqueda")
+    public ResponseEntity<?> buscarHabitacionesConFacetas(FiltroHabitacionesDTO filtro) {
+        try {
+            return new ResponseEntity<>(habitacionService.buscarHabitaciones(filtro), HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // READ - Consulta paginada con proyección ligera, filtrada en MySQL:
+    // GET /habitaciones/consulta?precioMinimo=50&precioMaximo=120&capacidadMinima=2&tipo=doble&ordenPrecio=asc&pagina=0&tamanio=50
+    @GetMapping("/consulta")
+    public ResponseEntity<?> consultarHabitaciones(
+            FiltroHabitacionesDTO filtro,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamanio,
+            @RequestParam(required = false) String ordenPrecio) {
+        try {
+            PaginaHabitacionesDTO resultado = habitacionService.consultarHabitaciones(filtro, pagina, tamanio, ordenPrecio);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     // READ - Obtener habitaciones por capacidad
     @GetMapping("/capacidad/{capacidad}")
     public ResponseEntity<List<Habitacion>> obtenerHabitacionesPorCapacidad(@PathVariable Integer capacidad) {
@@ -123,6 +211,17 @@ public class HabitacionController {
         }
     }
 
+    // UPDATE - Cambiar disponibilidad de varias habitaciones (usado por ms-reserva)
+    @PostMapping("/disponibilidad/lote")
+    public ResponseEntity<?> cambiarDisponibilidadLote(@RequestBody List<CambioDisponibilidadDTO> cambios) {
+        try {
+            ResultadoLoteDisponibilidadDTO resultado = habitacionService.cambiarDisponibilidadLote(cambios);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     // UPDATE - Cambiar estado
     @PatchMapping("/{id}/estado")
     public ResponseEntity<?> cambiarEstado(
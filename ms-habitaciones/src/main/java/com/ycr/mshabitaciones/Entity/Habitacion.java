@@ -11,7 +11,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "habitaciones")
+// Índices para las consultas de HabitacionRepository; los dos de precio cubren las columnas de HabitacionResumenDTO
+// para que GET /habitaciones/consulta filtrado por tipo o por precio se resuelva sin leer la tabla.
+// Hibernate los crea con ddl-auto: update.
+@Table(name = "habitaciones", indexes = {
+        @Index(name = "idx_habitaciones_tipo_precio", columnList = "tipo, precioPorNoche, capacidad, numero"),
+        @Index(name = "idx_habitaciones_precio", columnList = "precioPorNoche, capacidad, tipo, numero"),
+        @Index(name = "idx_habitaciones_estado_precio", columnList = "estado, precioPorNoche"),
+        @Index(name = "idx_habitaciones_capacidad", columnList = "capacidad"),
+        @Index(name = "idx_habitaciones_numero", columnList = "numero")
+})
 public class Habitacion {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
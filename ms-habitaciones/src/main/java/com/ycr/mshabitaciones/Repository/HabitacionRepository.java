@@ -2,13 +2,19 @@ package com.ycr.mshabitaciones.Repository;
 
 import com.ycr.mshabitaciones.Entity.Habitacion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface HabitacionRepository extends JpaRepository<Habitacion, Long> {
+public interface HabitacionRepository extends JpaRepository<Habitacion, Long>, JpaSpecificationExecutor<Habitacion>,
+        HabitacionRepositoryCustom {
     Optional<Habitacion> findByNumero(String numero);
     List<Habitacion> findByDisponible(Boolean disponible);
     List<Habitacion> findByTipo(String tipo);
@@ -16,4 +22,16 @@ public interface HabitacionRepository extends JpaRepository<Habitacion, Long> {
     List<Habitacion> findByTipoAndDisponible(String tipo, Boolean disponible);
     List<Habitacion> findByCapacidadGreaterThanEqual(Integer capacidad);
     boolean existsByNumero(String numero);
-}
\ No newline at end of file
+
+    @Query("SELECT h.idHabitacion FROM Habitacion h WHERE h.idHabitacion IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT h.numero FROM Habitacion h WHERE h.numero IN :numeros")
+    List<String> findNumerosExistentes(@Param("numeros") Collection<String> numeros);
+
+    // Un único UPDATE para todas las habitaciones que pasan al mismo valor; limpia el contexto de persistencia
+    // para que las entidades ya cargadas no devuelvan el valor anterior
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Habitacion h SET h.disponible = :disponible WHERE h.idHabitacion IN :ids")
+    int actualizarDisponibilidad(@Param("ids") Collection<Long> ids, @Param("disponible") Boolean disponible);
+}
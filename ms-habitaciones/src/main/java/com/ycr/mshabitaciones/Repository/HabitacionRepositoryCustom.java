@@ -0,0 +1,14 @@
+package com.ycr.mshabitaciones.Repository;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.dtos.HabitacionResumenDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface HabitacionRepositoryCustom {
+
+    // Selecciona solo las columnas de HabitacionResumenDTO y no ejecuta COUNT(*): pide una fila más que el tamaño
+    // de página para saber si hay siguiente
+    Slice<HabitacionResumenDTO> buscarResumenes(Specification<Habitacion> especificacion, Pageable pageable);
+}
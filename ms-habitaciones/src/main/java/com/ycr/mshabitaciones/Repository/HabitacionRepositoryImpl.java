@@ -0,0 +1,53 @@
+package com.ycr.mshabitaciones.Repository;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.dtos.HabitacionResumenDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HabitacionRepositoryImpl implements HabitacionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<HabitacionResumenDTO> buscarResumenes(Specification<Habitacion> especificacion, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<HabitacionResumenDTO> query = cb.createQuery(HabitacionResumenDTO.class);
+        Root<Habitacion> root = query.from(Habitacion.class);
+        query.select(cb.construct(HabitacionResumenDTO.class,
+                root.get("idHabitacion"), root.get("numero"), root.get("tipo"),
+                root.get("precioPorNoche"), root.get("capacidad")));
+        Predicate where = especificacion.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        // El id desempata el orden pedido para que las páginas no se solapen ni salten filas
+        List<Order> orden = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        orden.add(cb.asc(root.get("idHabitacion")));
+        query.orderBy(orden);
+
+        List<HabitacionResumenDTO> filas = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean haySiguiente = filas.size() > pageable.getPageSize();
+        if (haySiguiente) {
+            filas = filas.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(filas, pageable, haySiguiente);
+    }
+}
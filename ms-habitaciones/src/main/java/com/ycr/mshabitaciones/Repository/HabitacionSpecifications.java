@@ -0,0 +1,51 @@
+package com.ycr.mshabitaciones.Repository;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.dtos.FiltroHabitacionesDTO;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Criterios combinables para consultar habitaciones; cada filtro vacío se omite de la cláusula WHERE
+public final class HabitacionSpecifications {
+
+    private HabitacionSpecifications() {
+    }
+
+    public static Specification<Habitacion> segun(FiltroHabitacionesDTO filtro) {
+        return Specification.allOf(
+                tipoEn(filtro.getTipo()),
+                estadoEn(filtro.getEstado()),
+                disponible(filtro.getDisponible()),
+                capacidadMinima(filtro.getCapacidadMinima()),
+                precioEntre(filtro.getPrecioMinimo(), filtro.getPrecioMaximo()));
+    }
+
+    public static Specification<Habitacion> tipoEn(List<String> tipos) {
+        return (root, query, cb) -> tipos == null || tipos.isEmpty() ? null : root.get("tipo").in(tipos);
+    }
+
+    public static Specification<Habitacion> estadoEn(List<String> estados) {
+        return (root, query, cb) -> estados == null || estados.isEmpty() ? null : root.get("estado").in(estados);
+    }
+
+    public static Specification<Habitacion> disponible(Boolean disponible) {
+        return (root, query, cb) -> disponible == null ? null : cb.equal(root.get("disponible"), disponible);
+    }
+
+    public static Specification<Habitacion> capacidadMinima(Integer capacidad) {
+        return (root, query, cb) -> capacidad == null ? null : cb.greaterThanOrEqualTo(root.get("capacidad"), capacidad);
+    }
+
+    public static Specification<Habitacion> precioEntre(Double minimo, Double maximo) {
+        return (root, query, cb) -> {
+            if (minimo != null && maximo != null) {
+                return cb.between(root.get("precioPorNoche"), minimo, maximo);
+            }
+            if (minimo != null) {
+                return cb.greaterThanOrEqualTo(root.get("precioPorNoche"), minimo);
+            }
+            return maximo == null ? null : cb.lessThanOrEqualTo(root.get("precioPorNoche"), maximo);
+        };
+    }
+}
@@ -3,19 +3,69 @@ package com.ycr.mshabitaciones.Service;
 
 import com.ycr.mshabitaciones.Entity.Habitacion;
 import com.ycr.mshabitaciones.Repository.HabitacionRepository;
+import com.ycr.mshabitaciones.Repository.HabitacionSpecifications;
+import com.ycr.mshabitaciones.catalogo.CatalogoHabitaciones;
+import com.ycr.mshabitaciones.catalogo.CatalogoSnapshot;
+import com.ycr.mshabitaciones.dtos.BusquedaHabitacionesDTO;
+import com.ycr.mshabitaciones.dtos.CambioDisponibilidadDTO;
+import com.ycr.mshabitaciones.dtos.FiltroHabitacionesDTO;
+import com.ycr.mshabitaciones.dtos.HabitacionResumenDTO;
+import com.ycr.mshabitaciones.dtos.PaginaHabitacionesDTO;
+import com.ycr.mshabitaciones.dtos.ResultadoImportacionDTO;
+import com.ycr.mshabitaciones.dtos.ResultadoLoteDisponibilidadDTO;
+import com.ycr.mshabitaciones.events.HabitacionEvento;
+import com.ycr.mshabitaciones.events.HabitacionEvento.Operacion;
+import com.ycr.mshabitaciones.importacion.FormatoImportacion;
+import com.ycr.mshabitaciones.importacion.HabitacionImportador;
+import com.ycr.mshabitaciones.index.HabitacionFacetIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class HabitacionService {
 
+    // Máximo de ids por cláusula IN; por encima MySQL sigue funcionando pero el plan y el paquete crecen sin beneficio
+    private static final int TRAMO_IN = 1000;
+
+    @Value("${habitaciones.disponibilidad.lote-maximo:5000}")
+    private int maximoLote;
+
+    @Value("${habitaciones.consulta.ids-maximo:5000}")
+    private int maximoIds;
+    @Value("${habitaciones.consulta.tamanio-defecto:50}")
+    private int tamanioDefecto;
+    @Value("${habitaciones.consulta.tamanio-maximo:500}")
+    private int tamanioMaximo;
+
     @Autowired
     private HabitacionRepository habitacionRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private HabitacionFacetIndex facetIndex;
+    @Autowired
+    private CatalogoHabitaciones catalogo;
+    @Autowired
+    private HabitacionImportador importador;
 
     // Crear habitación
     public Habitacion crearHabitacion(Habitacion habitacion) {
@@ -29,7 +79,27 @@ public class HabitacionService {
         if (habitacion.getEstado() == null) {
             habitacion.setEstado("ACTIVA");
         }
-        return habitacionRepository.save(habitacion);
+        Habitacion guardada = habitacionRepository.save(habitacion);
+        eventPublisher.publishEvent(new HabitacionEvento(guardada, Operacion.CREADA));
+        return guardada;
+    }
+
+    // Importación masiva desde CSV o NDJSON; cada tramo del archivo va en su propia transacción, así que esta
+    // no abre ninguna (una transacción para todo el archivo retendría bloqueos y el contexto de persistencia)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoImportacionDTO importarHabitaciones(InputStream entrada, String contentType) {
+        FormatoImportacion formato = FormatoImportacion.desde(contentType);
+        try {
+            return importador.importar(entrada, formato);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo de importación: " + e.getMessage());
+        }
+    }
+
+    // Snapshot en memoria del catálogo, o null si aún no se ha cargado; no abre transacción ni toca la base de datos
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CatalogoSnapshot obtenerCatalogo() {
+        return catalogo.snapshot();
     }
 
     // Obtener todas las habitaciones
@@ -42,6 +112,63 @@ public class HabitacionService {
         return habitacionRepository.findById(id);
     }
 
+    // Obtener varias habitaciones por ID: sin repetidos y en tramos de TRAMO_IN ids por consulta.
+    // Los ids que no existen simplemente no aparecen en el resultado.
+    public List<Habitacion> obtenerHabitacionesPorIds(List<Long> ids) {
+        List<Long> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distintos.contains(null)) {
+            throw new RuntimeException("La lista de ids no puede contener valores nulos");
+        }
+        if (distintos.size() > maximoIds) {
+            throw new RuntimeException("No se pueden consultar más de " + maximoIds + " habitaciones a la vez");
+        }
+        List<Habitacion> habitaciones = new ArrayList<>(distintos.size());
+        for (List<Long> tramo : tramos(distintos)) {
+            habitaciones.addAll(habitacionRepository.findAllById(tramo));
+        }
+        return habitaciones;
+    }
+
+    // Búsqueda combinada con facetas, resuelta en memoria por HabitacionFacetIndex
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BusquedaHabitacionesDTO buscarHabitaciones(FiltroHabitacionesDTO filtro) {
+        if (filtro.getPrecioMinimo() != null && filtro.getPrecioMaximo() != null
+                && filtro.getPrecioMinimo() > filtro.getPrecioMaximo()) {
+            throw new RuntimeException("El precio mínimo no puede ser mayor que el precio máximo");
+        }
+        return facetIndex.buscar(filtro);
+    }
+
+    // Consulta paginada con cualquier combinación de filtros, en MySQL y sin COUNT(*).
+    // ordenPrecio admite asc o desc; sin él las habitaciones salen por id.
+    @Transactional(readOnly = true)
+    public PaginaHabitacionesDTO consultarHabitaciones(FiltroHabitacionesDTO filtro, Integer pagina, Integer tamanio,
+                                                       String ordenPrecio) {
+        if (filtro.getPrecioMinimo() != null && filtro.getPrecioMaximo() != null
+                && filtro.getPrecioMinimo() > filtro.getPrecioMaximo()) {
+            throw new RuntimeException("El precio mínimo no puede ser mayor que el precio máximo");
+        }
+        int numeroPagina = pagina == null ? 0 : pagina;
+        if (numeroPagina < 0) {
+            throw new RuntimeException("La página no puede ser negativa");
+        }
+        int tamanoPagina = tamanio == null ? tamanioDefecto : tamanio;
+        if (tamanoPagina <= 0) {
+            throw new RuntimeException("El tamaño de página debe ser mayor que 0");
+        }
+        Sort orden = Sort.unsorted();
+        if (ordenPrecio != null) {
+            try {
+                orden = Sort.by(Sort.Direction.fromString(ordenPrecio), "precioPorNoche");
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("ordenPrecio debe ser asc o desc");
+            }
+        }
+        Slice<HabitacionResumenDTO> slice = habitacionRepository.buscarResumenes(HabitacionSpecifications.segun(filtro),
+                PageRequest.of(numeroPagina, Math.min(tamanoPagina, tamanioMaximo), orden));
+        return new PaginaHabitacionesDTO(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+
     // Obtener habitación por número
     public Optional<Habitacion> obtenerHabitacionPorNumero(String numero) {
         return habitacionRepository.findByNumero(numero);
@@ -91,7 +218,9 @@ public class HabitacionService {
                     habitacion.setDescripcion(habitacionActualizada.getDescripcion());
                     habitacion.setCapacidad(habitacionActualizada.getCapacidad());
                     habitacion.setEstado(habitacionActualizada.getEstado());
-                    return habitacionRepository.save(habitacion);
+                    Habitacion guardada = habitacionRepository.save(habitacion);
+                    eventPublisher.publishEvent(new HabitacionEvento(guardada, Operacion.ACTUALIZADA));
+                    return guardada;
                 })
                 .orElseThrow(() -> new RuntimeException("Habitación no encontrada con id: " + id));
     }
@@ -101,11 +230,62 @@ public class HabitacionService {
         return habitacionRepository.findById(id)
                 .map(habitacion -> {
                     habitacion.setDisponible(disponible);
-                    return habitacionRepository.save(habitacion);
+                    Habitacion guardada = habitacionRepository.save(habitacion);
+                    eventPublisher.publishEvent(new HabitacionEvento(guardada, Operacion.DISPONIBILIDAD));
+                    return guardada;
                 })
                 .orElseThrow(() -> new RuntimeException("Habitación no encontrada con id: " + id));
     }
 
+    // Cambiar disponibilidad de varias habitaciones en una sola transacción.
+    // Si una habitación aparece más de una vez, gana el último valor. Una consulta averigua cuáles existen y luego
+    // va un UPDATE ... WHERE idHabitacion IN (...) por cada valor de destino, en tramos de TRAMO_IN ids.
+    public ResultadoLoteDisponibilidadDTO cambiarDisponibilidadLote(List<CambioDisponibilidadDTO> cambios) {
+        if (cambios.size() > maximoLote) {
+            throw new RuntimeException("El lote no puede tener más de " + maximoLote + " cambios");
+        }
+        Map<Long, Boolean> porHabitacion = new LinkedHashMap<>();
+        for (CambioDisponibilidadDTO cambio : cambios) {
+            if (cambio.getIdHabitacion() == null || cambio.getDisponible() == null) {
+                throw new RuntimeException("Cada cambio necesita idHabitacion y disponible");
+            }
+            porHabitacion.put(cambio.getIdHabitacion(), cambio.getDisponible());
+        }
+        Set<Long> existentes = new HashSet<>();
+        for (List<Long> tramo : tramos(new ArrayList<>(porHabitacion.keySet()))) {
+            existentes.addAll(habitacionRepository.findIdsExistentes(tramo));
+        }
+
+        Map<Boolean, List<Long>> porValor = new LinkedHashMap<>();
+        List<Long> actualizadas = new ArrayList<>();
+        List<Long> noEncontradas = new ArrayList<>();
+        porHabitacion.forEach((id, disponible) -> {
+            if (existentes.contains(id)) {
+                porValor.computeIfAbsent(disponible, v -> new ArrayList<>()).add(id);
+                actualizadas.add(id);
+            } else {
+                noEncontradas.add(id);
+            }
+        });
+        porValor.forEach((disponible, ids) -> {
+            for (List<Long> tramo : tramos(ids)) {
+                habitacionRepository.actualizarDisponibilidad(tramo, disponible);
+            }
+        });
+        for (Long id : actualizadas) {
+            eventPublisher.publishEvent(new HabitacionEvento(id, Operacion.DISPONIBILIDAD, null, porHabitacion.get(id)));
+        }
+        return new ResultadoLoteDisponibilidadDTO(actualizadas, noEncontradas);
+    }
+
+    private static List<List<Long>> tramos(List<Long> ids) {
+        List<List<Long>> tramos = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += TRAMO_IN) {
+            tramos.add(ids.subList(i, Math.min(i + TRAMO_IN, ids.size())));
+        }
+        return tramos;
+    }
+
     // Cambiar estado
     public Habitacion cambiarEstado(Long id, String estado) {
         return habitacionRepository.findById(id)
@@ -115,7 +295,9 @@ public class HabitacionService {
                     if ("MANTENIMIENTO".equals(estado) || "INACTIVA".equals(estado)) {
                         habitacion.setDisponible(false);
                     }
-                    return habitacionRepository.save(habitacion);
+                    Habitacion guardada = habitacionRepository.save(habitacion);
+                    eventPublisher.publishEvent(new HabitacionEvento(guardada, Operacion.ESTADO));
+                    return guardada;
                 })
                 .orElseThrow(() -> new RuntimeException("Habitación no encontrada con id: " + id));
     }
@@ -126,5 +308,6 @@ public class HabitacionService {
             throw new RuntimeException("Habitación no encontrada con id: " + id);
         }
         habitacionRepository.deleteById(id);
+        eventPublisher.publishEvent(new HabitacionEvento(id, Operacion.ELIMINADA));
     }
 }
\ No newline at end of file
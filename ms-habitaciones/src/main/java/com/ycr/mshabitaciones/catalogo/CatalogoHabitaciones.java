@@ -0,0 +1,132 @@
+package com.ycr.mshabitaciones.catalogo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.events.HabitacionEvento;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Catálogo de habitaciones en copy-on-write: las lecturas toman el snapshot actual sin bloqueo y cada escritura
+// construye uno nuevo a partir del anterior y lo publica con un único set. Las escrituras se serializan entre sí.
+// La versión crece en uno con cada snapshot cuyo contenido cambió.
+@Component
+public class CatalogoHabitaciones {
+
+    private final AtomicReference<CatalogoSnapshot> actual = new AtomicReference<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Null hasta la primera carga
+    public CatalogoSnapshot snapshot() {
+        return actual.get();
+    }
+
+    // Versión del snapshot actual; 0 antes de la primera carga
+    public long version() {
+        CatalogoSnapshot snapshot = actual.get();
+        return snapshot == null ? 0 : snapshot.getVersion();
+    }
+
+    // Carga completa desde la base de datos; si el contenido no cambió se conserva la versión
+    public synchronized void reemplazar(Collection<Habitacion> todas) {
+        Map<Long, Habitacion> porId = new TreeMap<>();
+        for (Habitacion habitacion : todas) {
+            porId.put(habitacion.getIdHabitacion(), copiar(habitacion));
+        }
+        publicar(porId);
+    }
+
+    // Igual que el anterior, pero solo si no se publicó otro snapshot desde versionLeida, tomada antes de leer
+    // la base de datos: una escritura aplicada mientras tanto puede no estar en esa lectura. Devuelve false si se
+    // descartó; el siguiente refresco la vuelve a intentar.
+    public synchronized boolean reemplazar(Collection<Habitacion> todas, long versionLeida) {
+        if (version() != versionLeida) {
+            return false;
+        }
+        reemplazar(todas);
+        return true;
+    }
+
+    // Aplica las escrituras confirmadas de una transacción sobre el snapshot actual
+    public synchronized void aplicar(List<HabitacionEvento> eventos) {
+        CatalogoSnapshot anterior = actual.get();
+        if (anterior == null) {
+            return;
+        }
+        Map<Long, Habitacion> porId = new TreeMap<>();
+        for (Habitacion habitacion : anterior.getHabitaciones()) {
+            porId.put(habitacion.getIdHabitacion(), habitacion);
+        }
+        for (HabitacionEvento evento : eventos) {
+            if (evento.getOperacion() == HabitacionEvento.Operacion.ELIMINADA) {
+                porId.remove(evento.getIdHabitacion());
+            } else if (evento.getHabitacion() != null) {
+                porId.put(evento.getIdHabitacion(), copiar(evento.getHabitacion()));
+            } else if (evento.getDisponible() != null && porId.containsKey(evento.getIdHabitacion())) {
+                Habitacion copia = copiar(porId.get(evento.getIdHabitacion()));
+                copia.setDisponible(evento.getDisponible());
+                porId.put(evento.getIdHabitacion(), copia);
+            }
+        }
+        publicar(porId);
+    }
+
+    private void publicar(Map<Long, Habitacion> porId) {
+        List<Habitacion> habitaciones = Collections.unmodifiableList(new ArrayList<>(porId.values()));
+        List<Habitacion> disponibles = habitaciones.stream().filter(h -> Boolean.TRUE.equals(h.getDisponible())).toList();
+        byte[] jsonTodas = serializar(habitaciones);
+        byte[] jsonDisponibles = serializar(disponibles);
+        CatalogoSnapshot anterior = actual.get();
+        String etagTodas = etag(jsonTodas);
+        String etagDisponibles = etag(jsonDisponibles);
+        if (anterior != null && anterior.getEtagTodas().equals(etagTodas)) {
+            return;
+        }
+        long version = anterior == null ? 1 : anterior.getVersion() + 1;
+        actual.set(new CatalogoSnapshot(version, habitaciones, jsonTodas, etagTodas, jsonDisponibles, etagDisponibles));
+    }
+
+    private byte[] serializar(List<Habitacion> habitaciones) {
+        try {
+            return objectMapper.writeValueAsBytes(habitaciones);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo de habitaciones", e);
+        }
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Los snapshots nunca comparten objetos con JPA ni con otros snapshots que se vayan a modificar
+    private static Habitacion copiar(Habitacion habitacion) {
+        return Habitacion.builder()
+                .idHabitacion(habitacion.getIdHabitacion())
+                .numero(habitacion.getNumero())
+                .tipo(habitacion.getTipo())
+                .precioPorNoche(habitacion.getPrecioPorNoche())
+                .disponible(habitacion.getDisponible())
+                .descripcion(habitacion.getDescripcion())
+                .capacidad(habitacion.getCapacidad())
+                .estado(habitacion.getEstado())
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ycr.mshabitaciones.catalogo;
+
+import com.ycr.mshabitaciones.Repository.HabitacionRepository;
+import com.ycr.mshabitaciones.events.HabitacionEvento;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Mantiene CatalogoHabitaciones al día: lo carga al arrancar, lo refresca periódicamente para recoger cambios
+// de otras instancias y aplica las escrituras de HabitacionService después del commit. Los eventos de una misma
+// transacción se acumulan y se aplican juntos, así un lote de disponibilidad produce un solo snapshot.
+@Component
+public class CatalogoSincronizador {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoSincronizador.class);
+
+    @Autowired
+    private HabitacionRepository habitacionRepository;
+    @Autowired
+    private CatalogoHabitaciones catalogo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargarCatalogo() {
+        catalogo.reemplazar(habitacionRepository.findAll());
+        log.info("Catálogo de habitaciones cargado en la versión {} con {} habitaciones",
+                catalogo.snapshot().getVersion(), catalogo.snapshot().getHabitaciones().size());
+    }
+
+    @Scheduled(fixedDelayString = "${habitaciones.catalogo.refresco-ms:60000}",
+            initialDelayString = "${habitaciones.catalogo.refresco-ms:60000}")
+    @Transactional(readOnly = true)
+    public void refrescar() {
+        long version = catalogo.version();
+        if (!catalogo.reemplazar(habitacionRepository.findAll(), version)) {
+            log.debug("Refresco del catálogo descartado: se publicó un snapshot más nuevo durante la lectura");
+        }
+    }
+
+    @EventListener
+    public void alEscribir(HabitacionEvento evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogo.aplicar(List.of(evento));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<HabitacionEvento> pendientes = (List<HabitacionEvento>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            List<HabitacionEvento> deLaTransaccion = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, deLaTransaccion);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CatalogoSincronizador.this);
+                    if (status == STATUS_COMMITTED) {
+                        catalogo.aplicar(deLaTransaccion);
+                    }
+                }
+            });
+            pendientes = deLaTransaccion;
+        }
+        pendientes.add(evento);
+    }
+}
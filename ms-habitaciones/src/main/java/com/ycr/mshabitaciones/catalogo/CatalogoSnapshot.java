@@ -0,0 +1,30 @@
+package com.ycr.mshabitaciones.catalogo;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import lombok.Getter;
+
+import java.util.List;
+
+// Copia inmutable del catálogo en una versión dada, con el JSON de GET /habitaciones y de /habitaciones/disponibles
+// ya serializado. Los ETag son un hash del contenido, así que coinciden entre instancias que tengan el mismo catálogo
+// aunque su número de versión sea distinto.
+@Getter
+public final class CatalogoSnapshot {
+
+    private final long version;
+    private final List<Habitacion> habitaciones;
+    private final byte[] jsonTodas;
+    private final String etagTodas;
+    private final byte[] jsonDisponibles;
+    private final String etagDisponibles;
+
+    CatalogoSnapshot(long version, List<Habitacion> habitaciones, byte[] jsonTodas, String etagTodas,
+                     byte[] jsonDisponibles, String etagDisponibles) {
+        this.version = version;
+        this.habitaciones = habitaciones;
+        this.jsonTodas = jsonTodas;
+        this.etagTodas = etagTodas;
+        this.jsonDisponibles = jsonDisponibles;
+        this.etagDisponibles = etagDisponibles;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ycr.mshabitaciones.dtos;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Resultado de la búsqueda con facetas: "facetas" tiene una entrada por dimensión (tipo, estado, disponible)
+// con el número de habitaciones de cada valor
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BusquedaHabitacionesDTO {
+    private int total;
+    private List<Habitacion> habitaciones;
+    private Map<String, Map<String, Integer>> facetas;
+}
@@ -0,0 +1,23 @@
+package com.ycr.mshabitaciones.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Filtros de GET /habitaciones/busqueda; los que vienen vacíos no filtran.
+// Varios valores de tipo o de estado se combinan con O; el resto de filtros, con Y.
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FiltroHabitacionesDTO {
+    private List<String> tipo;
+    private List<String> estado;
+    private Boolean disponible;
+    private Integer capacidadMinima;
+    private Double precioMinimo;
+    private Double precioMaximo;
+}
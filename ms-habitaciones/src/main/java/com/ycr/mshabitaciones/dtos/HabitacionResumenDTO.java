@@ -0,0 +1,17 @@
+package com.ycr.mshabitaciones.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Proyección de Habitacion para listados: sin descripción ni campos que el motor de reservas no usa al filtrar
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HabitacionResumenDTO {
+    private Long idHabitacion;
+    private String numero;
+    private String tipo;
+    private Double precioPorNoche;
+    private Integer capacidad;
+}
@@ -0,0 +1,18 @@
+package com.ycr.mshabitaciones.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Página de GET /habitaciones/consulta. No lleva total: haySiguiente indica si se puede pedir ?pagina=pagina+1.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaHabitacionesDTO {
+    private List<HabitacionResumenDTO> habitaciones;
+    private int pagina;
+    private int tamanio;
+    private boolean haySiguiente;
+}
@@ -0,0 +1,15 @@
+package com.ycr.mshabitaciones.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoLoteDisponibilidadDTO {
+    private List<Long> actualizadas;
+    private List<Long> noEncontradas;
+}
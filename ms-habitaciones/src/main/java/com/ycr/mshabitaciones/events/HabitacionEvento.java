@@ -0,0 +1,33 @@
+package com.ycr.mshabitaciones.events;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import lombok.Getter;
+
+// Evento publicado por HabitacionService en cada escritura; los listeners lo reciben después del commit.
+// "habitacion" es el estado guardado cuando el servicio lo tiene a mano; los cambios de disponibilidad en lote
+// solo llevan el nuevo valor de "disponible".
+@Getter
+public class HabitacionEvento {
+
+    public enum Operacion { CREADA, ACTUALIZADA, DISPONIBILIDAD, ESTADO, ELIMINADA }
+
+    private final Long idHabitacion;
+    private final Operacion operacion;
+    private final Habitacion habitacion;
+    private final Boolean disponible;
+
+    public HabitacionEvento(Long idHabitacion, Operacion operacion) {
+        this(idHabitacion, operacion, null, null);
+    }
+
+    public HabitacionEvento(Habitacion habitacion, Operacion operacion) {
+        this(habitacion.getIdHabitacion(), operacion, habitacion, habitacion.getDisponible());
+    }
+
+    public HabitacionEvento(Long idHabitacion, Operacion operacion, Habitacion habitacion, Boolean disponible) {
+        this.idHabitacion = idHabitacion;
+        this.operacion = operacion;
+        this.habitacion = habitacion;
+        this.disponible = disponible;
+    }
+}
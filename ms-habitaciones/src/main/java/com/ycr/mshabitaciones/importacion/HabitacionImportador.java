@@ -0,0 +1,189 @@
+package com.ycr.mshabitaciones.importacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.Repository.HabitacionRepository;
+import com.ycr.mshabitaciones.dtos.ResultadoImportacionDTO;
+import com.ycr.mshabitaciones.events.HabitacionEvento;
+import com.ycr.mshabitaciones.events.HabitacionEvento.Operacion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Importa habitaciones desde CSV o NDJSON en tramos: cada tramo comprueba los números ya registrados con una sola
+// consulta IN, inserta las filas válidas con un batch JDBC (con IDENTITY, Hibernate insertaría de una en una)
+// y confirma su propia transacción, así los tramos siguientes ven lo ya importado. Como crearHabitacion, publica
+// un HabitacionEvento por habitación creada para que el índice de búsqueda y el catálogo se actualicen.
+@Component
+public class HabitacionImportador {
+
+    private static final Logger log = LoggerFactory.getLogger(HabitacionImportador.class);
+    private static final String INSERT = "INSERT INTO habitaciones "
+            + "(numero, tipo, precio_por_noche, disponible, descripcion, capacidad, estado) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private HabitacionRepository habitacionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${habitaciones.importacion.tramo:500}")
+    private int tamanioTramo;
+    @Value("${habitaciones.importacion.errores-maximo:1000}")
+    private int erroresMaximo;
+
+    public ResultadoImportacionDTO importar(InputStream entrada, FormatoImportacion formato) throws IOException {
+        LectorFilas<Habitacion> lector = new LectorFilas<>(entrada, formato, Habitacion.class,
+                HabitacionImportador::desdeCsv, objectMapper);
+        ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        List<FilaImportacion<Habitacion>> tramo = new ArrayList<>(tamanioTramo);
+        FilaImportacion<Habitacion> fila;
+        while ((fila = lector.siguiente()) != null) {
+            resultado.setProcesadas(resultado.getProcesadas() + 1);
+            if (fila.error() != null) {
+                resultado.registrarError(fila.linea(), fila.error(), erroresMaximo);
+            } else if (fila.valor().getNumero() == null || fila.valor().getNumero().isBlank()) {
+                resultado.registrarError(fila.linea(), "El número de habitación es obligatorio", erroresMaximo);
+            } else {
+                tramo.add(fila);
+                if (tramo.size() == tamanioTramo) {
+                    procesarTramo(tramo, resultado);
+                    tramo.clear();
+                }
+            }
+        }
+        if (!tramo.isEmpty()) {
+            procesarTramo(tramo, resultado);
+        }
+        return resultado;
+    }
+
+    private void procesarTramo(List<FilaImportacion<Habitacion>> tramo, ResultadoImportacionDTO resultado) {
+        List<FilaImportacion<Habitacion>> nuevas = new ArrayList<>(tramo.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> numeros = tramo.stream().map(f -> f.valor().getNumero().trim()).toList();
+                Set<String> existentes = new HashSet<>(habitacionRepository.findNumerosExistentes(numeros));
+                Set<String> vistos = new HashSet<>();
+                for (FilaImportacion<Habitacion> fila : tramo) {
+                    Habitacion habitacion = fila.valor();
+                    habitacion.setNumero(habitacion.getNumero().trim());
+                    if (existentes.contains(habitacion.getNumero())) {
+                        resultado.registrarError(fila.linea(),
+                                "Ya existe una habitación con el número: " + habitacion.getNumero(), erroresMaximo);
+                    } else if (!vistos.add(habitacion.getNumero())) {
+                        resultado.registrarError(fila.linea(),
+                                "Número repetido en el archivo: " + habitacion.getNumero(), erroresMaximo);
+                    } else {
+                        // Mismos valores por defecto que crearHabitacion
+                        if (habitacion.getDisponible() == null) {
+                            habitacion.setDisponible(true);
+                        }
+                        if (habitacion.getEstado() == null) {
+                            habitacion.setEstado("ACTIVA");
+                        }
+                        nuevas.add(fila);
+                    }
+                }
+                insertar(nuevas.stream().map(FilaImportacion::valor).toList());
+                for (FilaImportacion<Habitacion> fila : nuevas) {
+                    eventPublisher.publishEvent(new HabitacionEvento(fila.valor(), Operacion.CREADA));
+                }
+            });
+            resultado.setCreadas(resultado.getCreadas() + nuevas.size());
+        } catch (DataAccessException e) {
+            log.warn("No se pudo guardar un tramo de {} habitaciones: {}", nuevas.size(), e.getMessage());
+            for (FilaImportacion<Habitacion> fila : nuevas) {
+                resultado.registrarError(fila.linea(), "No se pudo guardar: " + e.getMostSpecificCause().getMessage(),
+                        erroresMaximo);
+            }
+        }
+    }
+
+    private void insertar(List<Habitacion> habitaciones) {
+        if (habitaciones.isEmpty()) {
+            return;
+        }
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT, new String[]{"id_habitacion"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Habitacion h = habitaciones.get(i);
+                        ps.setString(1, h.getNumero());
+                        ps.setString(2, h.getTipo());
+                        ps.setObject(3, h.getPrecioPorNoche(), Types.DOUBLE);
+                        ps.setObject(4, h.getDisponible(), Types.BOOLEAN);
+                        ps.setString(5, h.getDescripcion());
+                        ps.setObject(6, h.getCapacidad(), Types.INTEGER);
+                        ps.setString(7, h.getEstado());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return habitaciones.size();
+                    }
+                }, claves);
+        List<Map<String, Object>> generadas = claves.getKeyList();
+        for (int i = 0; i < habitaciones.size(); i++) {
+            habitaciones.get(i).setIdHabitacion(((Number) generadas.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    private static Habitacion desdeCsv(Map<String, String> campos) {
+        return Habitacion.builder()
+                .numero(campos.get("numero"))
+                .tipo(campos.get("tipo"))
+                .precioPorNoche(convertir(campos, "preciopornoche", Double::valueOf))
+                .disponible(convertir(campos, "disponible", HabitacionImportador::booleano))
+                .descripcion(campos.get("descripcion"))
+                .capacidad(convertir(campos, "capacidad", Integer::valueOf))
+                .estado(campos.get("estado"))
+                .build();
+    }
+
+    private static <V> V convertir(Map<String, String> campos, String columna, Function<String, V> conversion) {
+        String valor = campos.get(columna);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return conversion.apply(valor);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Valor inválido en la columna " + columna + ": " + valor);
+        }
+    }
+
+    private static Boolean booleano(String valor) {
+        if (!valor.equalsIgnoreCase("true") && !valor.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException(valor);
+        }
+        return Boolean.valueOf(valor);
+    }
+}
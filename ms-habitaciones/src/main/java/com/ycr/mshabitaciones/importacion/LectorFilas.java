@@ -0,0 +1,93 @@
+package com.ycr.mshabitaciones.importacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// Recorre un archivo de importación fila a fila sin cargarlo entero: CSV con cabecera (los nombres de columna son
+// los campos de la entidad, sin distinguir mayúsculas) o NDJSON con un objeto JSON por línea.
+// Las líneas en blanco se saltan; una fila que no se puede convertir se devuelve con su error.
+public class LectorFilas<T> {
+
+    private final FormatoImportacion formato;
+    private final BufferedReader reader;
+    private final Class<T> tipo;
+    private final Function<Map<String, String>, T> desdeCsv;
+    private final ObjectMapper objectMapper;
+    private LectorCsv csv;
+    private List<String> cabecera;
+    private int linea;
+
+    public LectorFilas(InputStream entrada, FormatoImportacion formato, Class<T> tipo,
+                       Function<Map<String, String>, T> desdeCsv, ObjectMapper objectMapper) {
+        this.formato = formato;
+        this.reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        this.tipo = tipo;
+        this.desdeCsv = desdeCsv;
+        this.objectMapper = objectMapper;
+    }
+
+    // Null al llegar al final
+    public FilaImportacion<T> siguiente() throws IOException {
+        return formato == FormatoImportacion.CSV ? siguienteCsv() : siguienteNdjson();
+    }
+
+    private FilaImportacion<T> siguienteNdjson() throws IOException {
+        String texto;
+        do {
+            texto = reader.readLine();
+            linea++;
+            if (texto == null) {
+                return null;
+            }
+        } while (texto.isBlank());
+        try {
+            return new FilaImportacion<>(linea, objectMapper.readValue(texto, tipo), null);
+        } catch (JsonProcessingException e) {
+            return new FilaImportacion<>(linea, null, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private FilaImportacion<T> siguienteCsv() throws IOException {
+        if (csv == null) {
+            csv = new LectorCsv(reader);
+            cabecera = csv.siguiente();
+            if (cabecera == null) {
+                return null;
+            }
+            cabecera = cabecera.stream().map(nombre -> nombre.trim().toLowerCase(Locale.ROOT)).toList();
+        }
+        List<String> campos;
+        do {
+            campos = csv.siguiente();
+            if (campos == null) {
+                return null;
+            }
+        } while (campos.size() == 1 && campos.get(0).isBlank());
+        int lineaRegistro = csv.lineaRegistro();
+        if (campos.size() != cabecera.size()) {
+            return new FilaImportacion<>(lineaRegistro, null,
+                    "Se esperaban " + cabecera.size() + " columnas y hay " + campos.size());
+        }
+        Map<String, String> valores = new HashMap<>();
+        for (int i = 0; i < campos.size(); i++) {
+            String valor = campos.get(i).trim();
+            valores.put(cabecera.get(i), valor.isEmpty() ? null : valor);
+        }
+        try {
+            return new FilaImportacion<>(lineaRegistro, desdeCsv.apply(valores), null);
+        } catch (RuntimeException e) {
+            return new FilaImportacion<>(lineaRegistro, null, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ycr.mshabitaciones.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+
+// Valores numéricos de una columna (precio, capacidad) ordenados junto a la posición de su habitación en el índice.
+// Un rango se resuelve con una búsqueda binaria hasta el mínimo y marca en un BitSet las posiciones hasta el máximo.
+// Insertar y quitar desplazan el arreglo (O(n)), suficiente para el volumen de un catálogo de habitaciones.
+class ColumnaOrdenada {
+
+    private double[] valores = new double[16];
+    private int[] posiciones = new int[16];
+    private int tamanio;
+
+    // Carga en bloque: ordena una vez en lugar de insertar uno a uno
+    void reconstruir(double[] nuevosValores, int[] nuevasPosiciones, int cantidad) {
+        Integer[] orden = new Integer[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator.<Integer>comparingDouble(i -> nuevosValores[i]).thenComparingInt(i -> nuevasPosiciones[i]));
+        valores = new double[Math.max(16, cantidad)];
+        posiciones = new int[valores.length];
+        tamanio = cantidad;
+        for (int i = 0; i < cantidad; i++) {
+            valores[i] = nuevosValores[orden[i]];
+            posiciones[i] = nuevasPosiciones[orden[i]];
+        }
+    }
+
+    void insertar(double valor, int posicion) {
+        if (tamanio == valores.length) {
+            valores = Arrays.copyOf(valores, tamanio * 2);
+            posiciones = Arrays.copyOf(posiciones, tamanio * 2);
+        }
+        int i = buscar(valor, posicion);
+        System.arraycopy(valores, i, valores, i + 1, tamanio - i);
+        System.arraycopy(posiciones, i, posiciones, i + 1, tamanio - i);
+        valores[i] = valor;
+        posiciones[i] = posicion;
+        tamanio++;
+    }
+
+    void quitar(double valor, int posicion) {
+        int i = buscar(valor, posicion);
+        if (i < tamanio && valores[i] == valor && posiciones[i] == posicion) {
+            System.arraycopy(valores, i + 1, valores, i, tamanio - i - 1);
+            System.arraycopy(posiciones, i + 1, posiciones, i, tamanio - i - 1);
+            tamanio--;
+        }
+    }
+
+    // Posiciones con minimo <= valor <= maximo
+    BitSet rango(double minimo, double maximo) {
+        BitSet resultado = new BitSet();
+        for (int i = buscar(minimo, Integer.MIN_VALUE); i < tamanio && valores[i] <= maximo; i++) {
+            resultado.set(posiciones[i]);
+        }
+        return resultado;
+    }
+
+    // Primer índice cuyo par (valor, posición) no es menor que el buscado
+    private int buscar(double valor, int posicion) {
+        int bajo = 0;
+        int alto = tamanio;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (valores[medio] < valor || (valores[medio] == valor && posiciones[medio] < posicion)) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
@@ -0,0 +1,298 @@
+package com.ycr.mshabitaciones.index;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.dtos.BusquedaHabitacionesDTO;
+import com.ycr.mshabitaciones.dtos.FiltroHabitacionesDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido en memoria del catálogo de habitaciones para la búsqueda con facetas.
+// Cada habitación ocupa una posición; tipo, estado y disponible son un BitSet de posiciones por valor,
+// y precio y capacidad son columnas ordenadas que devuelven un BitSet por rango. Un filtro es la intersección
+// de esos BitSet, sin consultar MySQL. Las posiciones de las habitaciones eliminadas quedan libres hasta la
+// siguiente reconstrucción.
+// Tipo y estado se comparan sin distinguir mayúsculas, como la colación por defecto de MySQL.
+@Component
+public class HabitacionFacetIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> posiciones = new HashMap<>();
+    private final List<Habitacion> habitaciones = new ArrayList<>();
+    private final BitSet ocupadas = new BitSet();
+    private final Map<String, BitSet> porTipo = new HashMap<>();
+    private final Map<String, BitSet> porEstado = new HashMap<>();
+    private final BitSet disponibles = new BitSet();
+    private final BitSet noDisponibles = new BitSet();
+    private final ColumnaOrdenada precios = new ColumnaOrdenada();
+    private final ColumnaOrdenada capacidades = new ColumnaOrdenada();
+    private volatile boolean listo = false;
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    public int tamanio() {
+        lock.readLock().lock();
+        try {
+            return posiciones.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reemplazar el contenido completo del índice
+    public void reconstruir(Collection<Habitacion> todas) {
+        lock.writeLock().lock();
+        try {
+            posiciones.clear();
+            habitaciones.clear();
+            ocupadas.clear();
+            porTipo.clear();
+            porEstado.clear();
+            disponibles.clear();
+            noDisponibles.clear();
+            double[] valoresPrecio = new double[todas.size()];
+            int[] posicionesPrecio = new int[todas.size()];
+            double[] valoresCapacidad = new double[todas.size()];
+            int[] posicionesCapacidad = new int[todas.size()];
+            int conPrecio = 0;
+            int conCapacidad = 0;
+            for (Habitacion habitacion : todas) {
+                int posicion = habitaciones.size();
+                Habitacion copia = copiar(habitacion);
+                habitaciones.add(copia);
+                posiciones.put(copia.getIdHabitacion(), posicion);
+                marcar(copia, posicion);
+                if (copia.getPrecioPorNoche() != null) {
+                    valoresPrecio[conPrecio] = copia.getPrecioPorNoche();
+                    posicionesPrecio[conPrecio++] = posicion;
+                }
+                if (copia.getCapacidad() != null) {
+                    valoresCapacidad[conCapacidad] = copia.getCapacidad();
+                    posicionesCapacidad[conCapacidad++] = posicion;
+                }
+            }
+            precios.reconstruir(valoresPrecio, posicionesPrecio, conPrecio);
+            capacidades.reconstruir(valoresCapacidad, posicionesCapacidad, conCapacidad);
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Alta o modificación: se quita la versión anterior de todos los BitSet y columnas y se indexa la nueva
+    public void guardar(Habitacion habitacion) {
+        lock.writeLock().lock();
+        try {
+            Integer posicion = posiciones.get(habitacion.getIdHabitacion());
+            if (posicion == null) {
+                posicion = habitaciones.size();
+                habitaciones.add(null);
+                posiciones.put(habitacion.getIdHabitacion(), posicion);
+            } else {
+                desmarcar(posicion);
+            }
+            Habitacion copia = copiar(habitacion);
+            habitaciones.set(posicion, copia);
+            marcar(copia, posicion);
+            if (copia.getPrecioPorNoche() != null) {
+                precios.insertar(copia.getPrecioPorNoche(), posicion);
+            }
+            if (copia.getCapacidad() != null) {
+                capacidades.insertar(copia.getCapacidad(), posicion);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Cambio de disponibilidad sin el resto de la habitación (lotes de ms-reserva).
+    // Devuelve false si la habitación no está indexada.
+    public boolean cambiarDisponibilidad(Long idHabitacion, Boolean disponible) {
+        lock.writeLock().lock();
+        try {
+            Integer posicion = posiciones.get(idHabitacion);
+            if (posicion == null) {
+                return false;
+            }
+            habitaciones.get(posicion).setDisponible(disponible);
+            disponibles.clear(posicion);
+            noDisponibles.clear(posicion);
+            if (disponible != null) {
+                (disponible ? disponibles : noDisponibles).set(posicion);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void quitar(Long idHabitacion) {
+        lock.writeLock().lock();
+        try {
+            Integer posicion = posiciones.remove(idHabitacion);
+            if (posicion != null) {
+                desmarcar(posicion);
+                habitaciones.set(posicion, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Las facetas de cada dimensión se cuentan aplicando los demás filtros pero no el suyo, para que el cliente
+    // vea cuántas habitaciones obtendría al cambiar o añadir un valor de esa dimensión
+    public BusquedaHabitacionesDTO buscar(FiltroHabitacionesDTO filtro) {
+        if (!listo) {
+            throw new IllegalStateException("El índice de habitaciones todavía no se ha cargado");
+        }
+        lock.readLock().lock();
+        try {
+            BitSet rangos = (BitSet) ocupadas.clone();
+            if (filtro.getPrecioMinimo() != null || filtro.getPrecioMaximo() != null) {
+                rangos.and(precios.rango(
+                        filtro.getPrecioMinimo() != null ? filtro.getPrecioMinimo() : Double.NEGATIVE_INFINITY,
+                        filtro.getPrecioMaximo() != null ? filtro.getPrecioMaximo() : Double.POSITIVE_INFINITY));
+            }
+            if (filtro.getCapacidadMinima() != null) {
+                rangos.and(capacidades.rango(filtro.getCapacidadMinima(), Double.POSITIVE_INFINITY));
+            }
+            BitSet tipo = union(porTipo, filtro.getTipo(), true);
+            BitSet estado = union(porEstado, filtro.getEstado(), false);
+            BitSet disponible = filtro.getDisponible() == null ? null
+                    : filtro.getDisponible() ? disponibles : noDisponibles;
+
+            BitSet resultado = interseccion(rangos, tipo, estado, disponible);
+            List<Habitacion> encontradas = new ArrayList<>(resultado.cardinality());
+            for (int i = resultado.nextSetBit(0); i >= 0; i = resultado.nextSetBit(i + 1)) {
+                encontradas.add(copiar(habitaciones.get(i)));
+            }
+            encontradas.sort((a, b) -> a.getIdHabitacion().compareTo(b.getIdHabitacion()));
+
+            Map<String, Map<String, Integer>> facetas = new LinkedHashMap<>();
+            facetas.put("tipo", contar(porTipo, interseccion(rangos, estado, disponible)));
+            facetas.put("estado", contar(porEstado, interseccion(rangos, tipo, disponible)));
+            Map<String, BitSet> porDisponible = new LinkedHashMap<>();
+            porDisponible.put("true", disponibles);
+            porDisponible.put("false", noDisponibles);
+            facetas.put("disponible", contar(porDisponible, interseccion(rangos, tipo, estado)));
+            return new BusquedaHabitacionesDTO(encontradas.size(), encontradas, facetas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void marcar(Habitacion habitacion, int posicion) {
+        ocupadas.set(posicion);
+        if (habitacion.getTipo() != null) {
+            porTipo.computeIfAbsent(clave(habitacion.getTipo(), true), k -> new BitSet()).set(posicion);
+        }
+        if (habitacion.getEstado() != null) {
+            porEstado.computeIfAbsent(clave(habitacion.getEstado(), false), k -> new BitSet()).set(posicion);
+        }
+        if (habitacion.getDisponible() != null) {
+            (habitacion.getDisponible() ? disponibles : noDisponibles).set(posicion);
+        }
+    }
+
+    private void desmarcar(int posicion) {
+        Habitacion anterior = habitaciones.get(posicion);
+        ocupadas.clear(posicion);
+        disponibles.clear(posicion);
+        noDisponibles.clear(posicion);
+        if (anterior.getTipo() != null) {
+            quitarDe(porTipo, clave(anterior.getTipo(), true), posicion);
+        }
+        if (anterior.getEstado() != null) {
+            quitarDe(porEstado, clave(anterior.getEstado(), false), posicion);
+        }
+        if (anterior.getPrecioPorNoche() != null) {
+            precios.quitar(anterior.getPrecioPorNoche(), posicion);
+        }
+        if (anterior.getCapacidad() != null) {
+            capacidades.quitar(anterior.getCapacidad(), posicion);
+        }
+    }
+
+    private static void quitarDe(Map<String, BitSet> porValor, String clave, int posicion) {
+        BitSet bits = porValor.get(clave);
+        if (bits != null) {
+            bits.clear(posicion);
+            if (bits.isEmpty()) {
+                porValor.remove(clave);
+            }
+        }
+    }
+
+    // Tipos en minúsculas (simple, doble, suite) y estados en mayúsculas (ACTIVA, MANTENIMIENTO, INACTIVA)
+    private static String clave(String valor, boolean minusculas) {
+        String limpio = valor.trim();
+        return minusculas ? limpio.toLowerCase(Locale.ROOT) : limpio.toUpperCase(Locale.ROOT);
+    }
+
+    // Null si el filtro no se usa; un valor desconocido da un BitSet vacío
+    private static BitSet union(Map<String, BitSet> porValor, List<String> valores, boolean minusculas) {
+        if (valores == null || valores.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        for (String valor : valores) {
+            BitSet bits = porValor.get(clave(valor, minusculas));
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    private static BitSet interseccion(BitSet base, BitSet... filtros) {
+        BitSet resultado = (BitSet) base.clone();
+        for (BitSet filtro : filtros) {
+            if (filtro != null) {
+                resultado.and(filtro);
+            }
+        }
+        return resultado;
+    }
+
+    private static Map<String, Integer> contar(Map<String, BitSet> porValor, BitSet base) {
+        Map<String, Integer> conteos = new TreeMap<>();
+        porValor.forEach((valor, bits) -> {
+            int cantidad = base.intersects(bits) ? cuantos(base, bits) : 0;
+            if (cantidad > 0) {
+                conteos.put(valor, cantidad);
+            }
+        });
+        return conteos;
+    }
+
+    private static int cuantos(BitSet base, BitSet bits) {
+        BitSet comun = (BitSet) base.clone();
+        comun.and(bits);
+        return comun.cardinality();
+    }
+
+    // El índice guarda y devuelve copias: las entidades de JPA siguen vivas fuera de él
+    private static Habitacion copiar(Habitacion habitacion) {
+        return Habitacion.builder()
+                .idHabitacion(habitacion.getIdHabitacion())
+                .numero(habitacion.getNumero())
+                .tipo(habitacion.getTipo())
+                .precioPorNoche(habitacion.getPrecioPorNoche())
+                .disponible(habitacion.getDisponible())
+                .descripcion(habitacion.getDescripcion())
+                .capacidad(habitacion.getCapacidad())
+                .estado(habitacion.getEstado())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ycr.mshabitaciones.index;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.Repository.HabitacionRepository;
+import com.ycr.mshabitaciones.events.HabitacionEvento;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+// Mantiene HabitacionFacetIndex alineado con la tabla habitaciones: lo carga al arrancar, aplica cada escritura de
+// HabitacionService después del commit y lo reconstruye periódicamente, lo que también recoge los cambios hechos
+// por otras instancias de ms-habitacion y compacta las posiciones libres.
+@Component
+public class HabitacionIndexSincronizador {
+
+    private static final Logger log = LoggerFactory.getLogger(HabitacionIndexSincronizador.class);
+
+    @Autowired
+    private HabitacionRepository habitacionRepository;
+    @Autowired
+    private HabitacionFacetIndex indice;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargarIndice() {
+        List<Habitacion> habitaciones = habitacionRepository.findAll();
+        indice.reconstruir(habitaciones);
+        log.info("Índice de búsqueda cargado con {} habitaciones", habitaciones.size());
+    }
+
+    @Scheduled(fixedDelayString = "${habitaciones.indice.reconstruccion-ms:300000}",
+            initialDelayString = "${habitaciones.indice.reconstruccion-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        indice.reconstruir(habitacionRepository.findAll());
+    }
+
+    @TransactionalEventListener
+    public void alConfirmarCambio(HabitacionEvento evento) {
+        if (evento.getOperacion() == HabitacionEvento.Operacion.ELIMINADA) {
+            indice.quitar(evento.getIdHabitacion());
+        } else if (evento.getHabitacion() != null) {
+            indice.guardar(evento.getHabitacion());
+        } else if (evento.getDisponible() == null
+                || !indice.cambiarDisponibilidad(evento.getIdHabitacion(), evento.getDisponible())) {
+            habitacionRepository.findById(evento.getIdHabitacion()).ifPresent(indice::guardar);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ycr.mshabitaciones.notificaciones;
+
+import com.ycr.mshabitaciones.events.HabitacionEvento;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+// Avisa a cada instancia de los servicios suscritos (por defecto ms-reserva) que una habitación cambió,
+// para que descarten su copia en caché. Es best-effort: si el aviso se pierde, el TTL de la caché lo cubre.
+// Los cambios de disponibilidad no se notifican porque los hace ms-reserva y no afectan a lo que cachea.
+@Component
+public class HabitacionCambiosNotificador {
+
+    private static final Logger log = LoggerFactory.getLogger(HabitacionCambiosNotificador.class);
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Value("${habitaciones.notificaciones.suscriptores:ms-reserva}")
+    private List<String> suscriptores;
+
+    private final RestClient restClient = RestClient.create();
+
+    @Async
+    @TransactionalEventListener
+    public void notificarCambio(HabitacionEvento evento) {
+        if (evento.getOperacion() != HabitacionEvento.Operacion.ACTUALIZADA
+                && evento.getOperacion() != HabitacionEvento.Operacion.ESTADO
+                && evento.getOperacion() != HabitacionEvento.Operacion.ELIMINADA) {
+            return;
+        }
+        for (String servicio : suscriptores) {
+            for (ServiceInstance instancia : discoveryClient.getInstances(servicio)) {
+                try {
+                    restClient.post()
+                            .uri(instancia.getUri() + "/reservas/cache/habitaciones/{id}/invalidar", evento.getIdHabitacion())
+                            .retrieve()
+                            .toBodilessEntity();
+                } catch (Exception e) {
+                    log.warn("No se pudo notificar el cambio de la habitación {} a {}: {}",
+                            evento.getIdHabitacion(), instancia.getUri(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ycr.mshabitaciones.Repository;
+
+import com.ycr.mshabitaciones.dtos.FiltroHabitacionesDTO;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Ejecuta GET /habitaciones/consulta sobre un volumen grande de datos en H2 y revisa lo que llega a la base:
+// los índices que declara Habitacion, el plan de cada combinación de filtros y las columnas que se leen.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.ycr.mshabitaciones.Repository.HabitacionRepositoryPlanTests$CapturaSql")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HabitacionRepositoryPlanTests {
+
+    private static final int HABITACIONES = 20_000;
+    private static final String[] TIPOS = {"simple", "doble", "suite", "familiar"};
+    private static final String[] ESTADOS = {"ACTIVA", "ACTIVA", "ACTIVA", "MANTENIMIENTO", "INACTIVA"};
+
+    @Autowired
+    private HabitacionRepository habitacionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Guarda las sentencias SQL que genera Hibernate para poder revisarlas y pedir su plan
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> sentencias = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            sentencias.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void cargarDatos() {
+        Integer existentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM habitaciones", Integer.class);
+        if (existentes != null && existentes == HABITACIONES) {
+            return;
+        }
+        List<Object[]> filas = new ArrayList<>(HABITACIONES);
+        for (int i = 1; i <= HABITACIONES; i++) {
+            filas.add(new Object[]{String.valueOf(1000 + i), TIPOS[i % TIPOS.length], 40.0 + i % 500, i % 3 != 0,
+                    "Habitación " + i, 1 + i % 6, ESTADOS[i % ESTADOS.length]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO habitaciones (numero, tipo, precio_por_noche, disponible, descripcion, "
+                + "capacidad, estado) VALUES (?, ?, ?, ?, ?, ?, ?)", filas);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Sentencias que lanza la consulta; los parámetros quedan sin valor, como en la sentencia preparada
+    private List<String> sentenciasDe(FiltroHabitacionesDTO filtro, Sort orden) {
+        CapturaSql.sentencias.clear();
+        habitacionRepository.buscarResumenes(HabitacionSpecifications.segun(filtro), PageRequest.of(2, 50, orden));
+        return List.copyOf(CapturaSql.sentencias);
+    }
+
+    private void assertUsaIndice(FiltroHabitacionesDTO filtro, Sort orden) {
+        List<String> sentencias = sentenciasDe(filtro, orden);
+        assertEquals(1, sentencias.size(), "Se esperaba una sola consulta:\n" + sentencias);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sentencias.get(0), String.class));
+        assertFalse(plan.contains("tableScan"), "Recorrido completo de la tabla:\n" + plan);
+    }
+
+    @Test
+    void consultasFiltradasUsanIndices() {
+        Sort porPrecio = Sort.by("precioPorNoche");
+        assertUsaIndice(FiltroHabitacionesDTO.builder().tipo(List.of("suite")).build(), porPrecio);
+        assertUsaIndice(FiltroHabitacionesDTO.builder().tipo(List.of("suite", "doble")).precioMaximo(60.0).build(),
+                porPrecio);
+        assertUsaIndice(FiltroHabitacionesDTO.builder().precioMinimo(100.0).precioMaximo(110.0).build(), porPrecio);
+        assertUsaIndice(FiltroHabitacionesDTO.builder().precioMinimo(100.0).precioMaximo(110.0).capacidadMinima(4)
+                .build(), Sort.unsorted());
+        assertUsaIndice(FiltroHabitacionesDTO.builder().estado(List.of("MANTENIMIENTO")).precioMaximo(50.0).build(),
+                porPrecio);
+        assertUsaIndice(FiltroHabitacionesDTO.builder().capacidadMinima(6).build(), Sort.unsorted());
+    }
+
+    // Solo las columnas del resumen, sin COUNT(*)
+    @Test
+    void laConsultaLeeSoloLasColumnasDelResumen() {
+        List<String> sentencias = sentenciasDe(FiltroHabitacionesDTO.builder().tipo(List.of("suite"))
+                .disponible(true).estado(List.of("ACTIVA")).build(), Sort.by("precioPorNoche"));
+
+        assertEquals(1, sentencias.size(), "Se esperaba una sola consulta:\n" + sentencias);
+        String sql = sentencias.get(0).toLowerCase(Locale.ROOT);
+        assertFalse(sql.contains("count("));
+        String columnas = sql.substring(sql.indexOf("select") + 6, sql.indexOf(" from "));
+        assertEquals(List.of("id_habitacion", "numero", "tipo", "precio_por_noche", "capacidad"),
+                List.of(columnas.split(",")).stream().map(c -> c.substring(c.indexOf('.') + 1).trim()).toList());
+    }
+
+    // Hibernate crea con ddl-auto los índices que declara la entidad, con sus columnas en el mismo orden
+    @Test
+    void laEntidadDeclaraLosIndicesDeLasConsultas() {
+        Map<String, String> indices = new TreeMap<>();
+        jdbcTemplate.query("SELECT INDEX_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                + "WHERE LOWER(TABLE_NAME) = 'habitaciones' ORDER BY INDEX_NAME, ORDINAL_POSITION", rs -> {
+            indices.merge(rs.getString(1).toLowerCase(Locale.ROOT), rs.getString(2).toLowerCase(Locale.ROOT),
+                    (anteriores, columna) -> anteriores + "," + columna);
+        });
+
+        assertEquals("tipo,precio_por_noche,capacidad,numero", indices.get("idx_habitaciones_tipo_precio"));
+        assertEquals("precio_por_noche,capacidad,tipo,numero", indices.get("idx_habitaciones_precio"));
+        assertEquals("estado,precio_por_noche", indices.get("idx_habitaciones_estado_precio"));
+        assertEquals("capacidad", indices.get("idx_habitaciones_capacidad"));
+        assertEquals("numero", indices.get("idx_habitaciones_numero"));
+        assertEquals(5, indices.keySet().stream().filter(n -> n.startsWith("idx_")).count(), indices::toString);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ycr.mshabitaciones.Service;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.Repository.HabitacionRepository;
+import com.ycr.mshabitaciones.dtos.FiltroHabitacionesDTO;
+import com.ycr.mshabitaciones.dtos.HabitacionResumenDTO;
+import com.ycr.mshabitaciones.dtos.PaginaHabitacionesDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Tope de página bajo para comprobar que ?tamanio= no lo supera
+@SpringBootTest(properties = "habitaciones.consulta.tamanio-maximo=3")
+class HabitacionConsultaTests {
+
+    @Autowired
+    private HabitacionService habitacionService;
+    @Autowired
+    private HabitacionRepository habitacionRepository;
+
+    private static final FiltroHabitacionesDTO SIN_FILTROS = new FiltroHabitacionesDTO();
+
+    @BeforeEach
+    void cargar() {
+        habitacionRepository.deleteAll();
+        guardar("101", "simple", 50.0, true, 1, "ACTIVA");
+        guardar("102", "doble", 80.0, true, 2, "ACTIVA");
+        guardar("103", "doble", 80.0, false, 2, "ACTIVA");
+        guardar("104", "suite", 200.0, true, 4, "MANTENIMIENTO");
+        guardar("105", "doble", 80.0, true, 3, "ACTIVA");
+        guardar("106", "simple", 50.0, true, 2, "INACTIVA");
+        guardar("107", "suite", 150.0, true, 4, "ACTIVA");
+    }
+
+    private void guardar(String numero, String tipo, double precio, boolean disponible, int capacidad, String estado) {
+        habitacionRepository.save(Habitacion.builder().numero(numero).tipo(tipo).precioPorNoche(precio)
+                .disponible(disponible).descripcion("Habitación " + numero).capacidad(capacidad).estado(estado).build());
+    }
+
+    private static List<String> numeros(PaginaHabitacionesDTO pagina) {
+        return pagina.getHabitaciones().stream().map(HabitacionResumenDTO::getNumero).toList();
+    }
+
+    // Recorre todas las páginas de 2 en 2
+    private List<String> todas(FiltroHabitacionesDTO filtro, String ordenPrecio) {
+        List<String> resultado = new ArrayList<>();
+        PaginaHabitacionesDTO pagina;
+        int numero = 0;
+        do {
+            pagina = habitacionService.consultarHabitaciones(filtro, numero++, 2, ordenPrecio);
+            resultado.addAll(numeros(pagina));
+        } while (pagina.isHaySiguiente());
+        return resultado;
+    }
+
+    @Test
+    void losFiltrosSeCombinan() {
+        assertEquals(List.of("104", "105", "107"), todas(FiltroHabitacionesDTO.builder()
+                .tipo(List.of("doble", "suite")).disponible(true).capacidadMinima(3).build(), null));
+        assertEquals(List.of("102", "103", "105", "107"), todas(FiltroHabitacionesDTO.builder()
+                .estado(List.of("ACTIVA")).precioMinimo(60.0).precioMaximo(160.0).build(), null));
+        assertEquals(List.of("101", "106"), todas(FiltroHabitacionesDTO.builder()
+                .tipo(List.of("simple")).precioMaximo(50.0).build(), null));
+        assertEquals(List.of("104"), todas(FiltroHabitacionesDTO.builder()
+                .estado(List.of("MANTENIMIENTO", "INACTIVA")).precioMinimo(100.0).build(), null));
+        assertEquals(List.of("101", "102", "103", "104", "105", "106", "107"), todas(SIN_FILTROS, null));
+    }
+
+    // Con precios repetidos el id desempata: ninguna habitación se repite ni se pierde entre páginas
+    @Test
+    void laPaginacionPorPrecioNoSolapaNiSaltaFilas() {
+        assertEquals(List.of("101", "106", "102", "103", "105", "107", "104"), todas(SIN_FILTROS, "asc"));
+        assertEquals(List.of("104", "107", "102", "103", "105", "101", "106"), todas(SIN_FILTROS, "DESC"));
+    }
+
+    @Test
+    void haySiguienteSaleDeLaFilaDeMas() {
+        FiltroHabitacionesDTO dobles = FiltroHabitacionesDTO.builder().tipo(List.of("doble")).build();
+
+        PaginaHabitacionesDTO justa = habitacionService.consultarHabitaciones(dobles, 0, 3, null);
+        assertEquals(3, justa.getHabitaciones().size());
+        assertFalse(justa.isHaySiguiente());
+
+        PaginaHabitacionesDTO corta = habitacionService.consultarHabitaciones(dobles, 0, 2, null);
+        assertEquals(List.of("102", "103"), numeros(corta));
+        assertTrue(corta.isHaySiguiente());
+
+        PaginaHabitacionesDTO ultima = habitacionService.consultarHabitaciones(dobles, 1, 2, null);
+        assertEquals(List.of("105"), numeros(ultima));
+        assertFalse(ultima.isHaySiguiente());
+    }
+
+    @Test
+    void elResumenLlevaSoloLasColumnasDelListado() {
+        HabitacionResumenDTO resumen = habitacionService.consultarHabitaciones(FiltroHabitacionesDTO.builder()
+                .tipo(List.of("suite")).estado(List.of("ACTIVA")).build(), 0, 1, null).getHabitaciones().get(0);
+
+        Habitacion guardada = habitacionRepository.findByNumero("107").orElseThrow();
+        assertEquals(new HabitacionResumenDTO(guardada.getIdHabitacion(), "107", "suite", 150.0, 4), resumen);
+    }
+
+    @Test
+    void validaLosParametrosYLimitaElTamanio() {
+        PaginaHabitacionesDTO pagina = habitacionService.consultarHabitaciones(SIN_FILTROS, 0, 100, null);
+        assertEquals(3, pagina.getTamanio());
+        assertEquals(3, pagina.getHabitaciones().size());
+        assertTrue(pagina.isHaySiguiente());
+
+        assertThrows(RuntimeException.class, () -> habitacionService.consultarHabitaciones(
+                FiltroHabitacionesDTO.builder().precioMinimo(100.0).precioMaximo(50.0).build(), 0, 10, null));
+        assertThrows(RuntimeException.class, () -> habitacionService.consultarHabitaciones(SIN_FILTROS, -1, 10, null));
+        assertThrows(RuntimeException.class, () -> habitacionService.consultarHabitaciones(SIN_FILTROS, 0, 0, null));
+        assertThrows(RuntimeException.class, () -> habitacionService.consultarHabitaciones(SIN_FILTROS, 0, 10, "precio"));
+    }
+}
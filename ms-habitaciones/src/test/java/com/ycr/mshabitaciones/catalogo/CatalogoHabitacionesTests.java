@@ -0,0 +1,80 @@
+package com.ycr.mshabitaciones.catalogo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.events.HabitacionEvento;
+import com.ycr.mshabitaciones.events.HabitacionEvento.Operacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogoHabitacionesTests {
+
+    private CatalogoHabitaciones catalogo;
+
+    private static Habitacion habitacion(long id, boolean disponible) {
+        return Habitacion.builder().idHabitacion(id).numero(String.valueOf(id)).tipo("doble")
+                .precioPorNoche(80.0).disponible(disponible).capacidad(2).estado("ACTIVA").build();
+    }
+
+    @BeforeEach
+    void cargar() {
+        catalogo = new CatalogoHabitaciones();
+        ReflectionTestUtils.setField(catalogo, "objectMapper", new ObjectMapper());
+        catalogo.reemplazar(List.of(habitacion(2, true), habitacion(1, true), habitacion(3, false)));
+    }
+
+    @Test
+    void unaTransaccionProduceUnSoloSnapshot() {
+        CatalogoSnapshot anterior = catalogo.snapshot();
+
+        catalogo.aplicar(List.of(
+                new HabitacionEvento(1L, Operacion.DISPONIBILIDAD, null, false),
+                new HabitacionEvento(2L, Operacion.DISPONIBILIDAD, null, false),
+                new HabitacionEvento(habitacion(4, true), Operacion.CREADA),
+                new HabitacionEvento(3L, Operacion.ELIMINADA)));
+
+        CatalogoSnapshot actual = catalogo.snapshot();
+        assertEquals(anterior.getVersion() + 1, actual.getVersion());
+        assertEquals(List.of(1L, 2L, 4L), actual.getHabitaciones().stream().map(Habitacion::getIdHabitacion).toList());
+        assertFalse(actual.getHabitaciones().get(0).getDisponible());
+        assertNotEquals(anterior.getEtagTodas(), actual.getEtagTodas());
+        // El snapshot anterior no cambia: quien lo esté leyendo sigue viendo la versión previa
+        assertEquals(3, anterior.getHabitaciones().size());
+        assertEquals(true, anterior.getHabitaciones().get(0).getDisponible());
+    }
+
+    @Test
+    void unaRecargaSinCambiosConservaLaVersion() {
+        CatalogoSnapshot anterior = catalogo.snapshot();
+
+        catalogo.reemplazar(List.of(habitacion(1, true), habitacion(2, true), habitacion(3, false)));
+
+        assertSame(anterior, catalogo.snapshot());
+    }
+
+    // Un refresco que leyó la base antes de un cambio ya aplicado después del commit no lo pisa
+    @Test
+    void unRefrescoAtrasadoNoPisaUnSnapshotMasNuevo() {
+        long versionLeida = catalogo.version();
+        List<Habitacion> leidas = List.of(habitacion(1, true), habitacion(2, true), habitacion(3, false));
+
+        catalogo.aplicar(List.of(new HabitacionEvento(1L, Operacion.DISPONIBILIDAD, null, false)));
+        CatalogoSnapshot nuevo = catalogo.snapshot();
+
+        assertFalse(catalogo.reemplazar(leidas, versionLeida));
+        assertSame(nuevo, catalogo.snapshot());
+        assertFalse(catalogo.snapshot().getHabitaciones().get(0).getDisponible());
+
+        assertTrue(catalogo.reemplazar(List.of(habitacion(1, false), habitacion(2, true)), catalogo.version()));
+        assertEquals(nuevo.getVersion() + 1, catalogo.version());
+    }
+}
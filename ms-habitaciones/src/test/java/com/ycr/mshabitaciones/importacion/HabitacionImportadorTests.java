@@ -0,0 +1,137 @@
+package com.ycr.mshabitaciones.importacion;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.Repository.HabitacionRepository;
+import com.ycr.mshabitaciones.Service.HabitacionService;
+import com.ycr.mshabitaciones.dtos.ErrorImportacionDTO;
+import com.ycr.mshabitaciones.dtos.ResultadoImportacionDTO;
+import com.ycr.mshabitaciones.events.HabitacionEvento;
+import com.ycr.mshabitaciones.events.HabitacionEvento.Operacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Tramos de 3 filas para que un archivo pequeño ocupe varios
+@SpringBootTest(properties = "habitaciones.importacion.tramo=3")
+@RecordApplicationEvents
+class HabitacionImportadorTests {
+
+    @Autowired
+    private HabitacionImportador importador;
+    @Autowired
+    private HabitacionService habitacionService;
+    @MockitoSpyBean
+    private HabitacionRepository habitacionRepository;
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @BeforeEach
+    void limpiar() {
+        habitacionRepository.deleteAll();
+        habitacionRepository.save(Habitacion.builder().numero("100").tipo("doble").precioPorNoche(80.0)
+                .disponible(true).capacidad(2).estado("ACTIVA").build());
+        clearInvocations(habitacionRepository);
+    }
+
+    private static InputStream contenido(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<Integer, String> errores(ResultadoImportacionDTO resultado) {
+        return resultado.getErrores().stream()
+                .collect(Collectors.toMap(ErrorImportacionDTO::getLinea, ErrorImportacionDTO::getMensaje));
+    }
+
+    @Test
+    void importaPorTramosYReportaCadaFilaRechazada() throws IOException {
+        String csv = "numero,tipo,precioPorNoche,capacidad\n"
+                + "100,doble,80,2\n"        // 2: ya estaba en la base
+                + "101,doble,80,2\n"        // 3: se crea
+                + "101,suite,200,4\n"       // 4: repetida dentro del mismo tramo
+                + "102,simple,50,1\n"       // 5: se crea
+                + "101,simple,50,1\n"       // 6: creada por el tramo anterior
+                + "103,simple,abc,1\n"      // 7: no se puede leer, no entra en ningún tramo
+                + "103,simple,50,1\n"       // 8: se crea
+                + "104,simple,50,1\n"       // 9: su tramo falla al insertar
+                + "9".repeat(300) + ",simple,50,1\n";
+
+        ResultadoImportacionDTO resultado = importador.importar(contenido(csv), FormatoImportacion.CSV);
+
+        assertEquals(9, resultado.getProcesadas());
+        assertEquals(3, resultado.getCreadas());
+        assertEquals(6, resultado.getConErrores());
+        Map<Integer, String> errores = errores(resultado);
+        assertEquals("Ya existe una habitación con el número: 100", errores.get(2));
+        assertEquals("Número repetido en el archivo: 101", errores.get(4));
+        assertEquals("Ya existe una habitación con el número: 101", errores.get(6));
+        assertTrue(errores.get(7).contains("preciopornoche"));
+        // El tramo que falla se deshace entero: la fila válida que lo acompañaba tampoco queda guardada
+        assertTrue(errores.get(9).startsWith("No se pudo guardar"));
+        assertTrue(errores.get(10).startsWith("No se pudo guardar"));
+        assertTrue(habitacionRepository.findByNumero("104").isEmpty());
+
+        // Una sola consulta IN de números existentes por tramo
+        verify(habitacionRepository, times(1)).findNumerosExistentes(List.of("100", "101", "101"));
+        verify(habitacionRepository, times(1)).findNumerosExistentes(List.of("102", "101", "103"));
+        verify(habitacionRepository, times(3)).findNumerosExistentes(anyCollection());
+    }
+
+    @Test
+    void asignaLosIdsGeneradosALasHabitacionesPublicadas() throws IOException {
+        String csv = "numero,tipo,precioPorNoche,capacidad,disponible\n"
+                + "201,doble,80,2,\n"
+                + "202,suite,200,4,false\n"
+                + "203,simple,50,1,true\n"
+                + "204,simple,55,1,\n";
+
+        ResultadoImportacionDTO resultado = importador.importar(contenido(csv), FormatoImportacion.CSV);
+
+        assertEquals(4, resultado.getCreadas());
+        Map<String, Long> guardadas = habitacionRepository.findAll().stream()
+                .collect(Collectors.toMap(Habitacion::getNumero, Habitacion::getIdHabitacion));
+        List<HabitacionEvento> creadas = eventos.stream(HabitacionEvento.class)
+                .filter(e -> e.getOperacion() == Operacion.CREADA).toList();
+        assertEquals(4, creadas.size());
+        for (HabitacionEvento evento : creadas) {
+            assertEquals(guardadas.get(evento.getHabitacion().getNumero()), evento.getIdHabitacion());
+        }
+        Habitacion sinDisponible = habitacionRepository.findByNumero("201").orElseThrow();
+        assertEquals(true, sinDisponible.getDisponible());
+        assertEquals("ACTIVA", sinDisponible.getEstado());
+        assertEquals(false, habitacionRepository.findByNumero("202").orElseThrow().getDisponible());
+    }
+
+    @Test
+    void elServicioEligeElFormatoPorContentType() {
+        String ndjson = "{\"numero\":\"301\",\"tipo\":\"suite\",\"precioPorNoche\":300}\n"
+                + "nope\n"
+                + "{\"tipo\":\"simple\"}\n";
+
+        ResultadoImportacionDTO resultado = habitacionService.importarHabitaciones(contenido(ndjson),
+                FormatoImportacion.MEDIA_TYPE_NDJSON);
+
+        assertEquals(3, resultado.getProcesadas());
+        assertEquals(1, resultado.getCreadas());
+        assertEquals("El número de habitación es obligatorio", errores(resultado).get(3));
+        assertEquals(300.0, habitacionRepository.findByNumero("301").orElseThrow().getPrecioPorNoche());
+    }
+}
@@ -0,0 +1,76 @@
+package com.ycr.mshabitaciones.importacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LectorFilasTests {
+
+    private static List<FilaImportacion<Habitacion>> leer(String contenido, FormatoImportacion formato) throws IOException {
+        LectorFilas<Habitacion> lector = new LectorFilas<>(
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato, Habitacion.class,
+                campos -> {
+                    if (campos.get("capacidad") != null && !campos.get("capacidad").matches("\\d+")) {
+                        throw new RuntimeException("capacidad inválida");
+                    }
+                    return Habitacion.builder().numero(campos.get("numero")).descripcion(campos.get("descripcion"))
+                            .capacidad(campos.get("capacidad") == null ? null : Integer.valueOf(campos.get("capacidad")))
+                            .build();
+                },
+                new ObjectMapper());
+        List<FilaImportacion<Habitacion>> filas = new ArrayList<>();
+        FilaImportacion<Habitacion> fila;
+        while ((fila = lector.siguiente()) != null) {
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    @Test
+    void csvConComillasSaltosDeLineaYErroresPorFila() throws IOException {
+        String csv = "Numero,DESCRIPCION,capacidad\r\n"
+                + "101,\"Vista al mar, \"\"premium\"\"\",2\r\n"
+                + "102,\"Dos\nlíneas\",x\r\n"
+                + "\r\n"
+                + "103,sin capacidad\r\n"
+                + "104,,\r\n";
+
+        List<FilaImportacion<Habitacion>> filas = leer(csv, FormatoImportacion.CSV);
+
+        assertEquals(4, filas.size());
+        assertEquals(2, filas.get(0).linea());
+        assertEquals("Vista al mar, \"premium\"", filas.get(0).valor().getDescripcion());
+        assertEquals(2, filas.get(0).valor().getCapacidad());
+        assertEquals(3, filas.get(1).linea());
+        assertEquals("capacidad inválida", filas.get(1).error());
+        assertEquals(6, filas.get(2).linea());
+        assertNotNull(filas.get(2).error());
+        assertEquals("104", filas.get(3).valor().getNumero());
+        assertNull(filas.get(3).valor().getDescripcion());
+        assertNull(filas.get(3).valor().getCapacidad());
+    }
+
+    @Test
+    void ndjsonSaltaLineasEnBlancoEInformaJsonInvalido() throws IOException {
+        String ndjson = "{\"numero\":\"201\",\"capacidad\":3}\n\n{no es json}\n{\"numero\":\"202\"}";
+
+        List<FilaImportacion<Habitacion>> filas = leer(ndjson, FormatoImportacion.NDJSON);
+
+        assertEquals(3, filas.size());
+        assertEquals("201", filas.get(0).valor().getNumero());
+        assertEquals(3, filas.get(1).linea());
+        assertNotNull(filas.get(1).error());
+        assertEquals(4, filas.get(2).linea());
+        assertEquals("202", filas.get(2).valor().getNumero());
+    }
+}
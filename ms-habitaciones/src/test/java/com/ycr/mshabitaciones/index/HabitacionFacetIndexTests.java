@@ -0,0 +1,80 @@
+package com.ycr.mshabitaciones.index;
+
+import com.ycr.mshabitaciones.Entity.Habitacion;
+import com.ycr.mshabitaciones.dtos.BusquedaHabitacionesDTO;
+import com.ycr.mshabitaciones.dtos.FiltroHabitacionesDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HabitacionFacetIndexTests {
+
+    private HabitacionFacetIndex indice;
+
+    private static Habitacion habitacion(long id, String tipo, String estado, boolean disponible, int capacidad, double precio) {
+        return Habitacion.builder().idHabitacion(id).numero(String.valueOf(100 + id)).tipo(tipo).estado(estado)
+                .disponible(disponible).capacidad(capacidad).precioPorNoche(precio).build();
+    }
+
+    private static List<Long> ids(BusquedaHabitacionesDTO resultado) {
+        return resultado.getHabitaciones().stream().map(Habitacion::getIdHabitacion).toList();
+    }
+
+    @BeforeEach
+    void cargar() {
+        indice = new HabitacionFacetIndex();
+        indice.reconstruir(List.of(
+                habitacion(1, "simple", "ACTIVA", true, 1, 50),
+                habitacion(2, "doble", "ACTIVA", true, 2, 80),
+                habitacion(3, "doble", "ACTIVA", false, 2, 90),
+                habitacion(4, "suite", "ACTIVA", true, 4, 200),
+                habitacion(5, "Doble", "MANTENIMIENTO", false, 3, 85)));
+    }
+
+    @Test
+    void combinaFiltrosYCuentaFacetasSinElFiltroPropio() {
+        BusquedaHabitacionesDTO resultado = indice.buscar(FiltroHabitacionesDTO.builder()
+                .tipo(List.of("doble")).disponible(true).capacidadMinima(2).precioMinimo(60.0).precioMaximo(100.0).build());
+
+        assertEquals(List.of(2L), ids(resultado));
+        // Sin el filtro de tipo: doble (2) y ninguna otra en el rango de precio
+        assertEquals(Map.of("doble", 1), resultado.getFacetas().get("tipo"));
+        // Sin el filtro de disponible: las dobles de 60 a 100 son 2, 3 y 5
+        assertEquals(Map.of("true", 1, "false", 2), resultado.getFacetas().get("disponible"));
+        assertEquals(Map.of("ACTIVA", 1), resultado.getFacetas().get("estado"));
+    }
+
+    @Test
+    void sinFiltrosDevuelveTodoElCatalogo() {
+        BusquedaHabitacionesDTO resultado = indice.buscar(new FiltroHabitacionesDTO());
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(resultado));
+        assertEquals(Map.of("simple", 1, "doble", 3, "suite", 1), resultado.getFacetas().get("tipo"));
+        assertEquals(Map.of("ACTIVA", 4, "MANTENIMIENTO", 1), resultado.getFacetas().get("estado"));
+    }
+
+    @Test
+    void aplicaLasEscriturasSinReconstruir() {
+        indice.guardar(habitacion(2, "suite", "ACTIVA", true, 4, 210));
+        indice.guardar(habitacion(6, "simple", "ACTIVA", true, 1, 45));
+        indice.cambiarDisponibilidad(3L, true);
+        indice.quitar(1L);
+
+        assertEquals(List.of(2L, 4L), ids(indice.buscar(FiltroHabitacionesDTO.builder()
+                .tipo(List.of("suite")).precioMinimo(150.0).build())));
+        assertEquals(List.of(3L, 6L), ids(indice.buscar(FiltroHabitacionesDTO.builder()
+                .disponible(true).precioMaximo(100.0).build())));
+        assertEquals(5, indice.tamanio());
+    }
+
+    @Test
+    void noRespondeAntesDeCargarse() {
+        assertThrows(IllegalStateException.class,
+                () -> new HabitacionFacetIndex().buscar(new FiltroHabitacionesDTO()));
+    }
+}
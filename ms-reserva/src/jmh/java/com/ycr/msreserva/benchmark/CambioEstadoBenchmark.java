@@ -0,0 +1,37 @@
+package com.ycr.msreserva.benchmark;
+
+import com.ycr.msreserva.Service.ReservaService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Regla de transición de cambiarEstado, incluido el caso que se rechaza con excepción
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CambioEstadoBenchmark {
+
+    private static final String[][] TRANSICIONES = {
+            {"PENDIENTE", "CONFIRMADA"},
+            {"CONFIRMADA", "CANCELADA"},
+            {"PENDIENTE", "PENDIENTE_CONFIRMACION"},
+            {"CONFIRMADA", "COMPLETADA"}
+    };
+
+    private int i;
+
+    @Benchmark
+    public Boolean transicionValida() {
+        String[] transicion = TRANSICIONES[i++ & 3];
+        return ReservaService.disponibilidadTrasCambioDeEstado(transicion[0], transicion[1]);
+    }
+
+    @Benchmark
+    public Boolean transicionRechazada() {
+        try {
+            return ReservaService.disponibilidadTrasCambioDeEstado("CANCELADA", "CONFIRMADA");
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
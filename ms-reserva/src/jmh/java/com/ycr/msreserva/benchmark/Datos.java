@@ -0,0 +1,39 @@
+package com.ycr.msreserva.benchmark;
+
+import com.ycr.msreserva.Entity.Reserva;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Reservas sintéticas deterministas (semilla fija) para que los resultados sean comparables entre commits
+final class Datos {
+
+    static final LocalDate ORIGEN = LocalDate.of(2030, 1, 1);
+    private static final String[] ESTADOS = {"PENDIENTE", "CONFIRMADA", "PENDIENTE_CONFIRMACION", "COMPLETADA", "CANCELADA"};
+
+    private Datos() {
+    }
+
+    static List<Reserva> reservas(int cantidad, int habitaciones) {
+        Random random = new Random(42);
+        List<Reserva> reservas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            LocalDate inicio = ORIGEN.plusDays(random.nextInt(730));
+            int noches = 1 + random.nextInt(7);
+            reservas.add(Reserva.builder()
+                    .idReserva((long) i + 1)
+                    .idCliente(1L + random.nextInt(10_000))
+                    .idHabitacion(1L + random.nextInt(habitaciones))
+                    .fechaInicio(inicio)
+                    .fechaFin(inicio.plusDays(noches))
+                    .montoTotal(80.0 * noches)
+                    .estado(ESTADOS[random.nextInt(ESTADOS.length)])
+                    .fechaCreacion(LocalDateTime.of(2029, 12, 1, 10, 0))
+                    .build());
+        }
+        return reservas;
+    }
+}
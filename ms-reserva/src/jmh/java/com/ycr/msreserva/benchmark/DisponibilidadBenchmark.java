@@ -0,0 +1,35 @@
+package com.ycr.msreserva.benchmark;
+
+import com.ycr.msreserva.index.ReservaIntervalIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Verificación de solapamiento con el índice en memoria (la ruta de crearReserva y verificarDisponibilidad)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DisponibilidadBenchmark {
+
+    private static final int HABITACIONES = 200;
+
+    @Param({"10", "100", "1000"})
+    public int reservasPorHabitacion;
+
+    private ReservaIntervalIndex indice;
+
+    @Setup
+    public void preparar() {
+        indice = new ReservaIntervalIndex();
+        indice.reconstruir(Datos.reservas(reservasPorHabitacion * HABITACIONES, HABITACIONES));
+    }
+
+    @Benchmark
+    public boolean haySolapamiento() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate inicio = Datos.ORIGEN.plusDays(random.nextInt(730));
+        return indice.haySolapamiento(1L + random.nextInt(HABITACIONES), inicio, inicio.plusDays(1 + random.nextInt(7)));
+    }
+}
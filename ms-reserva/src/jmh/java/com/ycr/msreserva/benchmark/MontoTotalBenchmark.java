@@ -0,0 +1,30 @@
+package com.ycr.msreserva.benchmark;
+
+import com.ycr.msreserva.Service.ReservaService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MontoTotalBenchmark {
+
+    private LocalDate[] inicios;
+    private int i;
+
+    @Setup
+    public void preparar() {
+        inicios = new LocalDate[1024];
+        for (int j = 0; j < inicios.length; j++) {
+            inicios[j] = Datos.ORIGEN.plusDays(j);
+        }
+    }
+
+    @Benchmark
+    public double calcularMontoTotal() {
+        LocalDate inicio = inicios[i++ & 1023];
+        return ReservaService.calcularMontoTotal(inicio, inicio.plusDays(1 + (i & 7)), 120.0);
+    }
+}
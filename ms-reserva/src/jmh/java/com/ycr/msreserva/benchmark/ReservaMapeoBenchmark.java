@@ -0,0 +1,54 @@
+package com.ycr.msreserva.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.events.ReservaEvento;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Mapeo de la entidad Reserva: construcción con el builder, copia para eventos (ReservaEvento.copiar)
+// y lectura del cuerpo JSON de POST /reservas
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReservaMapeoBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Reserva reserva;
+    private byte[] json;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reserva = Datos.reservas(1, 10).get(0);
+        json = objectMapper.writeValueAsBytes(reserva);
+    }
+
+    @Benchmark
+    public Reserva construir() {
+        return Reserva.builder()
+                .idCliente(7L)
+                .idHabitacion(12L)
+                .fechaInicio(LocalDate.of(2030, 5, 1))
+                .fechaFin(LocalDate.of(2030, 5, 4))
+                .montoTotal(360.0)
+                .estado("PENDIENTE")
+                .fechaCreacion(LocalDateTime.of(2030, 4, 1, 9, 30))
+                .build();
+    }
+
+    @Benchmark
+    public Reserva copiarParaEvento() {
+        return ReservaEvento.copiar(reserva);
+    }
+
+    @Benchmark
+    public Reserva leerJson() throws IOException {
+        return objectMapper.readValue(json, Reserva.class);
+    }
+}
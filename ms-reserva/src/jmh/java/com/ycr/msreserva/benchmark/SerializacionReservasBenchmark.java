@@ -0,0 +1,40 @@
+package com.ycr.msreserva.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ycr.msreserva.Entity.Reserva;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización de List<Reserva> con la misma configuración de Jackson que usa Spring MVC
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializacionReservasBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int filas;
+
+    private ObjectWriter writer;
+    private List<Reserva> reservas;
+
+    @Setup
+    public void preparar() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        reservas = Datos.reservas(filas, 500);
+    }
+
+    @Benchmark
+    public void serializarLista() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), reservas);
+    }
+
+    @Benchmark
+    public byte[] serializarListaABytes() throws IOException {
+        return writer.writeValueAsBytes(reservas);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ycr.msreserva.Controller;
+
+import com.ycr.msreserva.Service.AnaliticaService;
+import com.ycr.msreserva.dtos.ResumenDiarioDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Ocupación, noches vendidas, ingresos y cancelaciones leídos de la tabla pre-agregada resumen_diario
+@RestController
+@RequestMapping("/reservas/analitica")
+public class AnaliticaController {
+
+    @Autowired
+    private AnaliticaService analiticaService;
+
+    // READ - Resumen diario entre dos fechas, opcionalmente de un tipo de habitación
+    @GetMapping("/diaria")
+    public ResponseEntity<?> obtenerResumenDiario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String tipo) {
+        try {
+            List<ResumenDiarioDTO> resumen = analiticaService.obtenerResumenDiario(desde, hasta, tipo);
+            return new ResponseEntity<>(resumen, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Reconstruir el resumen desde la tabla reservas
+    @PostMapping("/reconstruir")
+    public ResponseEntity<?> reconstruirResumen() {
+        try {
+            int filas = analiticaService.reconstruirResumen();
+            return new ResponseEntity<>(Map.of("filas", filas), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ycr.msreserva.Controller;
+
+import com.ycr.msreserva.cache.HabitacionCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Avisos de invalidación que envía ms-habitaciones a cada instancia de ms-reserva
+@RestController
+@RequestMapping("/reservas/cache")
+public class CacheController {
+
+    @Autowired
+    private HabitacionCache habitacionCache;
+
+    // Invalidar una habitación
+    @PostMapping("/habitaciones/{id}/invalidar")
+    public ResponseEntity<Void> invalidarHabitacion(@PathVariable Long id) {
+        habitacionCache.invalidar(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Invalidar todas las habitaciones
+    @PostMapping("/habitaciones/invalidar")
+    public ResponseEntity<Void> invalidarHabitaciones() {
+        habitacionCache.invalidarTodo();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ycr.msreserva.Controller;
+
+import com.ycr.msreserva.Service.InventarioService;
+import com.ycr.msreserva.dtos.InventarioDiaDTO;
+import com.ycr.msreserva.index.RejillaDisponibilidad;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+// Habitaciones totales, ocupadas y libres por tipo y noche, y rejilla habitación × día para el tablero de recepción
+@RestController
+@RequestMapping("/reservas/inventario")
+public class InventarioController {
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    // READ - Inventario entre dos fechas (ambas incluidas), de todos los tipos o de uno
+    @GetMapping
+    public ResponseEntity<?> obtenerInventario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String tipo) {
+        try {
+            List<InventarioDiaDTO> inventario = inventarioService.obtenerInventario(desde, hasta, tipo);
+            return new ResponseEntity<>(inventario, HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // READ - Rejilla de ocupación de todas las habitaciones (o las de un tipo) desde una fecha, hoy por defecto.
+    // Una fila por habitación con los días en tramos alternos libre/ocupado, en lugar de las reservas completas
+    @GetMapping(value = "/rejilla", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> obtenerRejilla(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(defaultValue = "60") int dias,
+            @RequestParam(required = false) String tipo) {
+        return responderRejilla(desde, dias, tipo, RejillaDisponibilidad::aDTO);
+    }
+
+    // READ - La misma rejilla en binario (Accept: application/octet-stream): un bit por día y habitación,
+    // formato descrito en RejillaDisponibilidad.codificar
+    @GetMapping(value = "/rejilla", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> obtenerRejillaBinaria(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(defaultValue = "60") int dias,
+            @RequestParam(required = false) String tipo) {
+        return responderRejilla(desde, dias, tipo, RejillaDisponibilidad::codificar);
+    }
+
+    private ResponseEntity<?> responderRejilla(LocalDate desde, int dias, String tipo,
+                                               Function<RejillaDisponibilidad, Object> codificacion) {
+        try {
+            RejillaDisponibilidad rejilla = inventarioService.obtenerRejilla(desde == null ? LocalDate.now() : desde, dias, tipo);
+            return new ResponseEntity<>(codificacion.apply(rejilla), HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
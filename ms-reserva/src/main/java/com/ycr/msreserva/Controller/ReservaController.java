@@ -1,23 +1,44 @@
 package com.ycr.msreserva.Controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Service.ReservaReactivaService;
 import com.ycr.msreserva.Service.ReservaService;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.dtos.PaginaReservas;
+import com.ycr.msreserva.dtos.ReservaLoteResultado;
+import com.ycr.msreserva.manifiesto.Manifiesto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/reservas")
 public class ReservaController {
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     @Autowired
     private ReservaService reservaService;
+    @Autowired
+    private ReservaReactivaService reservaReactivaService;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     // CREATE - Crear una nueva reserva
     @PostMapping
@@ -30,11 +51,57 @@ public class ReservaController {
         }
     }
 
-    // READ - Obtener todas las reservas
+    // CREATE - Crear una reserva sin bloquear hilos mientras se valida con ms-cliente y ms-habitacion
+    @PostMapping("/reactiva")
+    public Mono<ResponseEntity<?>> crearReservaReactiva(@RequestBody Reserva reserva) {
+        return reservaReactivaService.crearReserva(reserva)
+                .<ResponseEntity<?>>map(nuevaReserva -> new ResponseEntity<>(nuevaReserva, HttpStatus.CREATED))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(
+                        new ResponseEntity<>("Demasiadas reservas en curso, intente de nuevo", HttpStatus.SERVICE_UNAVAILABLE)))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(
+                        new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST)));
+    }
+
+    // CREATE - Crear reservas en lote (grupos y operadores turísticos)
+    @PostMapping("/batch")
+    public ResponseEntity<?> crearReservasLote(@RequestBody List<Reserva> reservas) {
+        try {
+            List<ReservaLoteResultado> resultados = reservaService.crearReservasLote(reservas);
+            return new ResponseEntity<>(resultados, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // READ - Obtener todas las reservas (paginado: ?cursor=&limite=)
     @GetMapping
-    public ResponseEntity<List<Reserva>> obtenerTodasLasReservas() {
-        List<Reserva> reservas = reservaService.obtenerTodasLasReservas();
-        return new ResponseEntity<>(reservas, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodasLasReservas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            PaginaReservas pagina = reservaService.obtenerTodasLasReservas(cursor, limite);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // READ - Exportar reservas completas como NDJSON (una reserva por línea), opcionalmente filtradas por estado
+    @GetMapping(value = "/exportar", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportarReservas(@RequestParam(required = false) String estado) {
+        StreamingResponseBody cuerpo = salida -> {
+            ObjectWriter writer = objectMapper.writerFor(Reserva.class);
+            reservaService.exportarReservas(estado, reserva -> {
+                try {
+                    salida.write(writer.writeValueAsBytes(reserva));
+                    salida.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            salida.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON)).body(cuerpo);
     }
 
     // READ - Obtener reserva por ID
@@ -49,23 +116,44 @@ public class ReservaController {
 
     // READ - Obtener reservas por cliente
     @GetMapping("/cliente/{idCliente}")
-    public ResponseEntity<List<Reserva>> obtenerReservasPorCliente(@PathVariable Long idCliente) {
-        List<Reserva> reservas = reservaService.obtenerReservasPorCliente(idCliente);
-        return new ResponseEntity<>(reservas, HttpStatus.OK);
+    public ResponseEntity<?> obtenerReservasPorCliente(
+            @PathVariable Long idCliente,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            PaginaReservas pagina = reservaService.obtenerReservasPorCliente(idCliente, cursor, limite);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
 
     // READ - Obtener reservas por habitación
     @GetMapping("/habitacion/{idHabitacion}")
-    public ResponseEntity<List<Reserva>> obtenerReservasPorHabitacion(@PathVariable Long idHabitacion) {
-        List<Reserva> reservas = reservaService.obtenerReservasPorHabitacion(idHabitacion);
-        return new ResponseEntity<>(reservas, HttpStatus.OK);
+    public ResponseEntity<?> obtenerReservasPorHabitacion(
+            @PathVariable Long idHabitacion,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            PaginaReservas pagina = reservaService.obtenerReservasPorHabitacion(idHabitacion, cursor, limite);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
 
     // READ - Obtener reservas por estado
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<Reserva>> obtenerReservasPorEstado(@PathVariable String estado) {
-        List<Reserva> reservas = reservaService.obtenerReservasPorEstado(estado);
-        return new ResponseEntity<>(reservas, HttpStatus.OK);
+    public ResponseEntity<?> obtenerReservasPorEstado(
+            @PathVariable String estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            PaginaReservas pagina = reservaService.obtenerReservasPorEstado(estado, cursor, limite);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
 
     // READ - Obtener reservas activas de una habitación
@@ -77,25 +165,58 @@ public class ReservaController {
 
     // READ - Obtener reservas por rango de fechas
     @GetMapping("/fechas")
-    public ResponseEntity<List<Reserva>> obtenerReservasPorRangoFechas(
+    public ResponseEntity<?> obtenerReservasPorRangoFechas(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin) {
-        List<Reserva> reservas = reservaService.obtenerReservasPorRangoFechas(inicio, fin);
-        return new ResponseEntity<>(reservas, HttpStatus.OK);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            PaginaReservas pagina = reservaService.obtenerReservasPorRangoFechas(inicio, fin, cursor, limite);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
 
     // READ - Obtener reservas para check-out hoy
     @GetMapping("/checkout/hoy")
-    public ResponseEntity<List<Reserva>> obtenerReservasCheckOutHoy() {
-        List<Reserva> reservas = reservaService.obtenerReservasCheckOutHoy();
-        return new ResponseEntity<>(reservas, HttpStatus.OK);
+    public ResponseEntity<List<Reserva>> obtenerReservasCheckOutHoy(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responderManifiesto(reservaService.obtenerManifiestoCheckOut(LocalDate.now()), ifNoneMatch);
+    }
+
+    // READ - Obtener reservas para check-out mañana
+    @GetMapping("/checkout/manana")
+    public ResponseEntity<List<Reserva>> obtenerReservasCheckOutManana(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responderManifiesto(reservaService.obtenerManifiestoCheckOut(LocalDate.now().plusDays(1)), ifNoneMatch);
     }
 
     // READ - Obtener reservas para check-in hoy
     @GetMapping("/checkin/hoy")
-    public ResponseEntity<List<Reserva>> obtenerReservasCheckInHoy() {
-        List<Reserva> reservas = reservaService.obtenerReservasCheckInHoy();
-        return new ResponseEntity<>(reservas, HttpStatus.OK);
+    public ResponseEntity<List<Reserva>> obtenerReservasCheckInHoy(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responderManifiesto(reservaService.obtenerManifiestoCheckIn(LocalDate.now()), ifNoneMatch);
+    }
+
+    // READ - Obtener reservas para check-in mañana
+    @GetMapping("/checkin/manana")
+    public ResponseEntity<List<Reserva>> obtenerReservasCheckInManana(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responderManifiesto(reservaService.obtenerManifiestoCheckIn(LocalDate.now().plusDays(1)), ifNoneMatch);
+    }
+
+    // Los terminales de recepción consultan cada pocos segundos: si el ETag coincide se responde 304 sin cuerpo
+    private ResponseEntity<List<Reserva>> responderManifiesto(Manifiesto manifiesto, String ifNoneMatch) {
+        if (manifiesto.etag() == null) {
+            return new ResponseEntity<>(manifiesto.reservas(), HttpStatus.OK);
+        }
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*")
+                || Arrays.stream(ifNoneMatch.split(",")).map(String::trim)
+                        .anyMatch(etag -> etag.equals(manifiesto.etag()) || etag.equals("W/" + manifiesto.etag())))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(manifiesto.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(manifiesto.etag()).body(manifiesto.reservas());
     }
 
     // READ - Verificar disponibilidad
@@ -108,6 +229,21 @@ public class ReservaController {
         return new ResponseEntity<>(disponible, HttpStatus.OK);
     }
 
+    // READ - Buscar habitaciones libres en un rango de fechas
+    @GetMapping("/disponibilidad/habitaciones")
+    public ResponseEntity<?> buscarHabitacionesLibres(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) Integer capacidad) {
+        try {
+            List<HabitacionDTO> libres = reservaService.buscarHabitacionesLibres(fechaInicio, fechaFin, tipo, capacidad);
+            return new ResponseEntity<>(libres, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     // UPDATE - Actualizar reserva
     @PutMapping("/{id}")
     public ResponseEntity<?> actualizarReserva(@PathVariable Long id, @RequestBody Reserva reserva) {
@@ -0,0 +1,31 @@
+package com.ycr.msreserva.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Cambio de disponibilidad pendiente de enviar a ms-habitacion.
+// Se inserta en la misma transacción que la reserva y lo despacha DisponibilidadOutboxDispatcher.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_disponibilidad", indexes = {
+        @Index(name = "idx_outbox_proximo_intento", columnList = "proximoIntento, idOutbox"),
+        @Index(name = "idx_outbox_habitacion", columnList = "idHabitacion, idOutbox")
+})
+public class DisponibilidadOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idOutbox;
+    private Long idHabitacion;
+    private Boolean disponible;
+    private LocalDateTime fechaCreacion;
+    private Integer intentos;
+    private LocalDateTime proximoIntento;
+}
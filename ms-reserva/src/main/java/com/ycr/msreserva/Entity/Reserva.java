@@ -13,10 +13,19 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "reservas")
+// Índices alineados con las consultas de ReservaRepository; se crean en db/migration/V2__indices_reservas.sql
+@Table(name = "reservas", indexes = {
+        @Index(name = "idx_reservas_habitacion_estado_fechas", columnList = "idHabitacion, estado, fechaInicio, fechaFin"),
+        @Index(name = "idx_reservas_cliente", columnList = "idCliente"),
+        @Index(name = "idx_reservas_estado", columnList = "estado"),
+        @Index(name = "idx_reservas_inicio_estado", columnList = "fechaInicio, estado"),
+        @Index(name = "idx_reservas_fin_estado", columnList = "fechaFin, estado")
+})
 public class Reserva {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con asignación en bloques de 50 para que Hibernate pueda agrupar los inserts en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_seq")
+    @SequenceGenerator(name = "reservas_seq", sequenceName = "reservas_seq", allocationSize = 50)
     private Long idReserva;
     private Long idCliente;
     private Long idHabitacion;
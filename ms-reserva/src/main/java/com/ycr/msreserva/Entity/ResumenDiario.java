@@ -0,0 +1,32 @@
+package com.ycr.msreserva.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Agregado diario por tipo de habitación que mantiene ResumenDiarioAcumulador.
+// habitacionesOcupadas se cuenta por cada noche de estancia; nochesVendidas, ingresos y cancelaciones
+// se imputan al día de llegada (fechaInicio), igual que el listado /reservas/fechas.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "resumen_diario", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_resumen_fecha_tipo", columnNames = {"fecha", "tipoHabitacion"})
+})
+public class ResumenDiario {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idResumen;
+    private LocalDate fecha;
+    private String tipoHabitacion;
+    private Long habitacionesOcupadas;
+    private Long nochesVendidas;
+    private Double ingresos;
+    private Long cancelaciones;
+}
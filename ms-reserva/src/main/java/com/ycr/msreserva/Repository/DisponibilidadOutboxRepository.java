@@ -0,0 +1,51 @@
+package com.ycr.msreserva.Repository;
+
+import com.ycr.msreserva.Entity.DisponibilidadOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DisponibilidadOutboxRepository extends JpaRepository<DisponibilidadOutbox, Long> {
+
+    // Primer cambio pendiente de cada habitación lista para enviar, en orden de llegada. Se bloquea con
+    // SELECT ... FOR UPDATE SKIP LOCKED (timeout -2): otra instancia que reclame a la vez salta estas filas.
+    // Mientras exista el primer cambio de una habitación nadie más puede tomar los siguientes, así que cada
+    // habitación la despacha una sola instancia y sus cambios salen en orden.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM DisponibilidadOutbox o WHERE o.proximoIntento <= :ahora AND NOT EXISTS (" +
+            "SELECT a FROM DisponibilidadOutbox a WHERE a.idHabitacion = o.idHabitacion AND a.idOutbox < o.idOutbox) " +
+            "ORDER BY o.idOutbox")
+    List<DisponibilidadOutbox> reclamarPendientes(@Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    // Todos los cambios encolados de las habitaciones reclamadas, en orden de llegada
+    @Query("SELECT o FROM DisponibilidadOutbox o WHERE o.idHabitacion IN :idsHabitacion ORDER BY o.idOutbox")
+    List<DisponibilidadOutbox> findPorHabitaciones(@Param("idsHabitacion") Collection<Long> idsHabitacion);
+
+    // Apartar los cambios reclamados mientras se envían; si la instancia cae, vuelven a estar pendientes al vencer
+    @Modifying
+    @Query("UPDATE DisponibilidadOutbox o SET o.proximoIntento = :hasta WHERE o.idOutbox IN :ids")
+    int apartar(@Param("ids") Collection<Long> ids, @Param("hasta") LocalDateTime hasta);
+
+    // Borrar lo ya enviado de una habitación sin tocar lo que llegó después
+    @Modifying
+    @Query("DELETE FROM DisponibilidadOutbox o WHERE o.idHabitacion = :idHabitacion AND o.idOutbox <= :hastaId")
+    int deleteEnviados(@Param("idHabitacion") Long idHabitacion, @Param("hastaId") Long hastaId);
+
+    @Modifying
+    @Query("UPDATE DisponibilidadOutbox o SET o.intentos = o.intentos + 1, o.proximoIntento = :proximoIntento " +
+            "WHERE o.idOutbox IN :ids")
+    int reprogramar(@Param("ids") Collection<Long> ids, @Param("proximoIntento") LocalDateTime proximoIntento);
+}
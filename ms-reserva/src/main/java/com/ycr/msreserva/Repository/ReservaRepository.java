@@ -1,12 +1,20 @@
 package com.ycr.msreserva.Repository;
 
 import com.ycr.msreserva.Entity.Reserva;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
@@ -23,6 +31,49 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
             @Param("fechaInicio") LocalDate fechaInicio,
             @Param("fechaFin") LocalDate fechaFin
     );
+    // Igual, antes de guardar: SELECT ... FOR UPDATE bloquea en MySQL el rango leído del índice de la habitación hasta
+    // el commit, así que otra instancia que reserve la misma habitación a la vez espera y luego ve la reserva nueva.
+    // Necesita transacción.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reserva r WHERE r.idHabitacion = :idHabitacion " +
+            "AND r.estado NOT IN ('CANCELADA', 'COMPLETADA') " +
+            "AND r.fechaInicio <= :fechaFin AND r.fechaFin >= :fechaInicio")
+    List<Reserva> bloquearReservasConflictivas(
+            @Param("idHabitacion") Long idHabitacion,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin
+    );
+
+    // Todas las reservas que ocupan fechas (misma regla que findReservasConflictivas), para cargar el índice en memoria
+    @Query("SELECT r FROM Reserva r WHERE r.estado NOT IN ('CANCELADA', 'COMPLETADA')")
+    List<Reserva> findReservasActivas();
+
+    // Reservas que ocupan algún día de [inicio, fin] en cualquier habitación (rejilla fuera de la ventana en memoria)
+    @Query("SELECT r FROM Reserva r WHERE r.estado NOT IN ('CANCELADA', 'COMPLETADA') " +
+            "AND r.fechaInicio <= :fin AND r.fechaFin >= :inicio")
+    List<Reserva> findReservasActivasEnRango(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    // Conflictos de varias habitaciones a la vez (validación de reservas en lote)
+    @Query("SELECT r FROM Reserva r WHERE r.idHabitacion IN :idsHabitacion " +
+            "AND r.estado NOT IN ('CANCELADA', 'COMPLETADA') " +
+            "AND r.fechaInicio <= :fechaFin AND r.fechaFin >= :fechaInicio")
+    List<Reserva> findReservasConflictivasEnHabitaciones(
+            @Param("idsHabitacion") Collection<Long> idsHabitacion,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin
+    );
+
+    // Versión con bloqueo de la anterior, para guardar un lote (ver bloquearReservasConflictivas)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reserva r WHERE r.idHabitacion IN :idsHabitacion " +
+            "AND r.estado NOT IN ('CANCELADA', 'COMPLETADA') " +
+            "AND r.fechaInicio <= :fechaFin AND r.fechaFin >= :fechaInicio")
+    List<Reserva> bloquearReservasConflictivasEnHabitaciones(
+            @Param("idsHabitacion") Collection<Long> idsHabitacion,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin
+    );
+
     // Reservas activas de una habitación
     @Query("SELECT r FROM Reserva r WHERE r.idHabitacion = :idHabitacion " +
            "AND r.estado IN ('CONFIRMADA', 'PENDIENTE_CONFIRMACION') " +
@@ -42,4 +93,49 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     // Reservas que inician hoy (para check-in)
     @Query("SELECT r FROM Reserva r WHERE r.fechaInicio = :fecha AND r.estado = 'CONFIRMADA'")
     List<Reserva> findReservasPorCheckIn(@Param("fecha") LocalDate fecha);
-}
\ No newline at end of file
+
+    // Habitaciones con alguna reserva (reconstrucción del resumen diario)
+    @Query("SELECT DISTINCT r.idHabitacion FROM Reserva r WHERE r.idHabitacion IS NOT NULL")
+    List<Long> findIdsHabitacion();
+
+    // Paginación por cursor (keyset): siguiente página a partir del último id devuelto
+    @Query("SELECT r FROM Reserva r WHERE r.idReserva > :despuesDe ORDER BY r.idReserva")
+    List<Reserva> findPagina(@Param("despuesDe") Long despuesDe, Pageable pageable);
+
+    @Query("SELECT r FROM Reserva r WHERE r.idCliente = :idCliente AND r.idReserva > :despuesDe ORDER BY r.idReserva")
+    List<Reserva> findPaginaPorCliente(@Param("idCliente") Long idCliente, @Param("despuesDe") Long despuesDe, Pageable pageable);
+
+    @Query("SELECT r FROM Reserva r WHERE r.idHabitacion = :idHabitacion AND r.idReserva > :despuesDe ORDER BY r.idReserva")
+    List<Reserva> findPaginaPorHabitacion(@Param("idHabitacion") Long idHabitacion, @Param("despuesDe") Long despuesDe, Pageable pageable);
+
+    @Query("SELECT r FROM Reserva r WHERE r.estado = :estado AND r.idReserva > :despuesDe ORDER BY r.idReserva")
+    List<Reserva> findPaginaPorEstado(@Param("estado") String estado, @Param("despuesDe") Long despuesDe, Pageable pageable);
+
+    // Rango de fechas ordenado por (fechaInicio, idReserva); el cursor es el par del último elemento
+    @Query("SELECT r FROM Reserva r WHERE r.fechaInicio BETWEEN :inicio AND :fin " +
+            "AND (r.fechaInicio > :fechaCursor OR (r.fechaInicio = :fechaCursor AND r.idReserva > :idCursor)) " +
+            "ORDER BY r.fechaInicio, r.idReserva")
+    List<Reserva> findPaginaPorFechaInicio(
+            @Param("inicio") LocalDate inicio,
+            @Param("fin") LocalDate fin,
+            @Param("fechaCursor") LocalDate fechaCursor,
+            @Param("idCursor") Long idCursor,
+            Pageable pageable
+    );
+
+    // Exportación completa: se recorre con un cursor del driver en lugar de cargar la tabla en memoria.
+    // Debe consumirse dentro de una transacción.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reserva r ORDER BY r.idReserva")
+    Stream<Reserva> streamTodas();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reserva r WHERE r.estado = :estado ORDER BY r.idReserva")
+    Stream<Reserva> streamPorEstado(@Param("estado") String estado);
+}
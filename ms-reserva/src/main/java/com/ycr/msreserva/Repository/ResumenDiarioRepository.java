@@ -0,0 +1,47 @@
+package com.ycr.msreserva.Repository;
+
+import com.ycr.msreserva.Entity.ResumenDiario;
+import com.ycr.msreserva.dtos.ResumenDiarioDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumenDiarioRepository extends JpaRepository<ResumenDiario, Long> {
+
+    // Suma un delta a la fila (fecha, tipo); devuelve 0 si la fila todavía no existe
+    @Modifying
+    @Query("UPDATE ResumenDiario r SET r.habitacionesOcupadas = r.habitacionesOcupadas + :ocupadas, " +
+            "r.nochesVendidas = r.nochesVendidas + :noches, r.ingresos = r.ingresos + :ingresos, " +
+            "r.cancelaciones = r.cancelaciones + :cancelaciones " +
+            "WHERE r.fecha = :fecha AND r.tipoHabitacion = :tipo")
+    int incrementar(@Param("fecha") LocalDate fecha,
+                    @Param("tipo") String tipo,
+                    @Param("ocupadas") long ocupadas,
+                    @Param("noches") long noches,
+                    @Param("ingresos") double ingresos,
+                    @Param("cancelaciones") long cancelaciones);
+
+    @Query("SELECT new com.ycr.msreserva.dtos.ResumenDiarioDTO(r.fecha, r.tipoHabitacion, r.habitacionesOcupadas, " +
+            "r.nochesVendidas, r.ingresos, r.cancelaciones) FROM ResumenDiario r " +
+            "WHERE r.fecha BETWEEN :desde AND :hasta AND r.tipoHabitacion = :tipo ORDER BY r.fecha")
+    List<ResumenDiarioDTO> findPorTipo(@Param("desde") LocalDate desde,
+                                       @Param("hasta") LocalDate hasta,
+                                       @Param("tipo") String tipo);
+
+    // Totales por día sumando todos los tipos de habitación
+    @Query("SELECT new com.ycr.msreserva.dtos.ResumenDiarioDTO(r.fecha, CAST(NULL AS String), SUM(r.habitacionesOcupadas), " +
+            "SUM(r.nochesVendidas), SUM(r.ingresos), SUM(r.cancelaciones)) FROM ResumenDiario r " +
+            "WHERE r.fecha BETWEEN :desde AND :hasta GROUP BY r.fecha ORDER BY r.fecha")
+    List<ResumenDiarioDTO> findTotalesPorDia(@Param("desde") LocalDate desde,
+                                             @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @Query("DELETE FROM ResumenDiario r")
+    int deleteTodo();
+}
@@ -0,0 +1,37 @@
+package com.ycr.msreserva.Service;
+
+import com.ycr.msreserva.Repository.ResumenDiarioRepository;
+import com.ycr.msreserva.analitica.ResumenDiarioAcumulador;
+import com.ycr.msreserva.dtos.ResumenDiarioDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class AnaliticaService {
+
+    @Autowired
+    private ResumenDiarioRepository resumenRepository;
+    @Autowired
+    private ResumenDiarioAcumulador acumulador;
+
+    // Resumen por día (una fila por día con datos), total o de un tipo de habitación
+    @Transactional(readOnly = true)
+    public List<ResumenDiarioDTO> obtenerResumenDiario(LocalDate desde, LocalDate hasta, String tipo) {
+        if (desde.isAfter(hasta)) {
+            throw new RuntimeException("La fecha 'desde' debe ser anterior o igual a 'hasta'");
+        }
+        if (tipo == null || tipo.isBlank()) {
+            return resumenRepository.findTotalesPorDia(desde, hasta);
+        }
+        return resumenRepository.findPorTipo(desde, hasta, tipo);
+    }
+
+    // Reconstruir el resumen desde cero (además de la tarea nocturna)
+    public int reconstruirResumen() {
+        return acumulador.reconstruir();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ycr.msreserva.Service;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.dtos.InventarioDiaDTO;
+import com.ycr.msreserva.index.InventarioPorTipo;
+import com.ycr.msreserva.index.OcupacionBitmap;
+import com.ycr.msreserva.index.RejillaDisponibilidad;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class InventarioService {
+
+    @Autowired
+    private InventarioPorTipo inventario;
+    @Autowired
+    private OcupacionBitmap ocupacion;
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Value("${reservas.rejilla.dias-maximo:366}")
+    private int diasMaximoRejilla;
+
+    // Habitaciones libres por tipo y noche, leídas de los contadores en memoria sin consultar reservas ni ms-habitacion
+    public List<InventarioDiaDTO> obtenerInventario(LocalDate desde, LocalDate hasta, String tipo) {
+        if (desde.isAfter(hasta)) {
+            throw new RuntimeException("La fecha 'desde' debe ser anterior o igual a 'hasta'");
+        }
+        return inventario.consultar(desde, hasta, tipo);
+    }
+
+    // Rejilla habitación × día: las habitaciones salen del catálogo del inventario (todas o las de un tipo) y la
+    // ocupación de la matriz en memoria. Fuera de su ventana se recorren una vez las reservas activas del periodo.
+    // Sin filtro de tipo se añaden también las habitaciones con reservas que no están en el catálogo.
+    @Transactional(readOnly = true)
+    public RejillaDisponibilidad obtenerRejilla(LocalDate desde, int dias, String tipo) {
+        if (dias < 1 || dias > diasMaximoRejilla) {
+            throw new RuntimeException("El número de días debe estar entre 1 y " + diasMaximoRejilla);
+        }
+        Map<Long, String> habitaciones = new TreeMap<>(inventario.habitaciones(tipo));
+        Map<Long, BitSet> ocupadas = ocupacion.extraerFilas(desde, dias)
+                .orElseGet(() -> ocupacionDesdeReservas(desde, dias));
+        if (InventarioPorTipo.normalizarTipo(tipo) == null) {
+            ocupadas.keySet().forEach(idHabitacion -> habitaciones.putIfAbsent(idHabitacion, null));
+        }
+        List<RejillaDisponibilidad.Fila> filas = new ArrayList<>(habitaciones.size());
+        BitSet libre = new BitSet();
+        habitaciones.forEach((idHabitacion, tipoHabitacion) -> filas.add(new RejillaDisponibilidad.Fila(
+                idHabitacion, tipoHabitacion, ocupadas.getOrDefault(idHabitacion, libre))));
+        return new RejillaDisponibilidad(desde, dias, filas);
+    }
+
+    private Map<Long, BitSet> ocupacionDesdeReservas(LocalDate desde, int dias) {
+        Map<Long, BitSet> ocupadas = new HashMap<>();
+        for (Reserva reserva : reservaRepository.findReservasActivasEnRango(desde, desde.plusDays(dias - 1L))) {
+            if (reserva.getIdHabitacion() == null) {
+                continue;
+            }
+            long inicio = Math.max(0, ChronoUnit.DAYS.between(desde, reserva.getFechaInicio()));
+            long fin = Math.min(dias - 1L, ChronoUnit.DAYS.between(desde, reserva.getFechaFin()));
+            if (inicio <= fin) {
+                ocupadas.computeIfAbsent(reserva.getIdHabitacion(), id -> new BitSet(dias)).set((int) inicio, (int) fin + 1);
+            }
+        }
+        return ocupadas;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ycr.msreserva.Service;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.cache.ClienteCache;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.reactivo.ServiciosRemotosReactivos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// Camino no bloqueante de crearReserva para POST /reservas/reactiva.
+// Cliente y habitación se validan a la vez con WebClient (pasando por ClienteCache y HabitacionCache), sin ocupar
+// un hilo mientras ms-cliente o ms-habitacion responden. Solo la parte que bloquea de verdad (lock de la habitación,
+// insert y commit) va al scheduler de persistencia, con las mismas reglas que ReservaService.registrarReserva.
+// El cambio de disponibilidad queda en el outbox dentro de esa transacción y lo envía el dispatcher, fuera de la respuesta.
+@Service
+public class ReservaReactivaService {
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ServiciosRemotosReactivos remotos;
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    @Qualifier("persistenciaScheduler")
+    private Scheduler persistenciaScheduler;
+
+    public Mono<Reserva> crearReserva(Reserva reserva) {
+        return Mono.fromRunnable(() -> ReservaService.validarFechas(reserva))
+                .then(Mono.zip(
+                        clienteCache.obtenerClientePorId(reserva.getIdCliente(), remotos::obtenerClientePorId),
+                        habitacionCache.obtenerHabitacionPorId(reserva.getIdHabitacion(), remotos::obtenerHabitacionPorId)))
+                .map(validaciones -> {
+                    ResponseEntity<ClienteDTO> clienteResponse = validaciones.getT1();
+                    if (!clienteResponse.getStatusCode().is2xxSuccessful() ||
+                            clienteResponse.getBody() == null ||
+                            clienteResponse.getBody().getIdCliente() == 0L) {
+                        throw new RuntimeException("Cliente no encontrado o servicio no disponible (ID: " + reserva.getIdCliente() + ")");
+                    }
+                    ResponseEntity<HabitacionDTO> habitacionResponse = validaciones.getT2();
+                    if (!habitacionResponse.getStatusCode().is2xxSuccessful() ||
+                            habitacionResponse.getBody() == null ||
+                            habitacionResponse.getBody().getIdHabitacion() == 0L) {
+                        throw new RuntimeException("Habitación no encontrada o servicio no disponible (ID: " + reserva.getIdHabitacion() + ")");
+                    }
+                    return habitacionResponse.getBody();
+                })
+                .flatMap(habitacion -> Mono.fromCallable(() -> reservaService.registrarReserva(reserva, habitacion))
+                        .subscribeOn(persistenciaScheduler));
+    }
+}
@@ -1,74 +1,149 @@
 package com.ycr.msreserva.Service;
 
+import com.ycr.msreserva.Entity.DisponibilidadOutbox;
 import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.DisponibilidadOutboxRepository;
 import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.cache.ClienteCache;
+import com.ycr.msreserva.cache.HabitacionCache;
 import com.ycr.msreserva.dtos.ClienteDTO;
 import com.ycr.msreserva.dtos.HabitacionDTO;
-import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.dtos.PaginaReservas;
+import com.ycr.msreserva.dtos.ReservaLoteResultado;
+import com.ycr.msreserva.events.ReservaEvento;
 import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.index.OcupacionBitmap;
+import com.ycr.msreserva.index.ReservaIntervalIndex;
+import com.ycr.msreserva.lock.HabitacionLocks;
+import com.ycr.msreserva.manifiesto.Manifiesto;
+import com.ycr.msreserva.manifiesto.ManifiestosRecepcion;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Cada operación pública se mide en reservas.servicio, etiquetada por método y excepción
 @Service
 @Transactional
+@Timed(value = "reservas.servicio", description = "Operaciones de ReservaService")
 public class ReservaService {
 
     @Autowired
     private ReservaRepository reservaRepository;
     @Autowired
-    private ClienteFeign clienteFeign;
+    private ClienteCache clienteCache;
     @Autowired
     private HabitacionFeign habitacionFeign;
+    @Autowired
+    private DisponibilidadOutboxRepository disponibilidadOutboxRepository;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    private ReservaIntervalIndex indiceDisponibilidad;
+    @Autowired
+    private OcupacionBitmap ocupacion;
+    @Autowired
+    private ManifiestosRecepcion manifiestos;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private HabitacionLocks habitacionLocks;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
 
+    @Autowired
+    @Qualifier("validacionesExecutor")
+    private Executor validacionesExecutor;
+
+    @Value("${reservas.lote.maximo:500}")
+    private int maximoLote;
+    @Value("${reservas.validaciones.paralelas:true}")
+    private boolean validacionesParalelas;
+    @Value("${reservas.paginacion.limite-defecto:100}")
+    private int limiteDefecto;
+    @Value("${reservas.paginacion.limite-maximo:1000}")
+    private int limiteMaximo;
+
+    // Las validaciones remotas se hacen fuera del lock; solo la verificación de solapamiento,
+    // el insert y el commit se serializan por habitación
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Reserva crearReserva(Reserva reserva) {
         // 🗓 Validar fechas
-        if (reserva.getFechaInicio().isAfter(reserva.getFechaFin())) {
-            throw new RuntimeException("La fecha de inicio no puede ser posterior a la fecha de fin");
-        }
+        validarFechas(reserva);
 
-        if (reserva.getFechaInicio().isBefore(LocalDate.now())) {
-            throw new RuntimeException("La fecha de inicio no puede ser anterior a hoy");
-        }
+        // Validar cliente y habitación en paralelo
+        CompletableFuture<ResponseEntity<ClienteDTO>> clienteFuture =
+                enParalelo(() -> clienteCache.obtenerClientePorId(reserva.getIdCliente()));
+        CompletableFuture<ResponseEntity<HabitacionDTO>> habitacionFuture =
+                enParalelo(() -> habitacionCache.obtenerHabitacionPorId(reserva.getIdHabitacion()));
 
-        ResponseEntity<ClienteDTO> clienteResponse = clienteFeign.obtenerClientePorId(reserva.getIdCliente());
+        ResponseEntity<ClienteDTO> clienteResponse = esperar(clienteFuture);
         if (!clienteResponse.getStatusCode().is2xxSuccessful() ||
                 clienteResponse.getBody() == null ||
                 clienteResponse.getBody().getIdCliente() == 0L) {  // 👈 Validación adicional
             throw new RuntimeException("Cliente no encontrado o servicio no disponible (ID: " + reserva.getIdCliente() + ")");
         }
 
-        ResponseEntity<HabitacionDTO> habitacionResponse = habitacionFeign.obtenerHabitacionPorId(reserva.getIdHabitacion());
+        ResponseEntity<HabitacionDTO> habitacionResponse = esperar(habitacionFuture);
         if (!habitacionResponse.getStatusCode().is2xxSuccessful() ||
                 habitacionResponse.getBody() == null ||
                 habitacionResponse.getBody().getIdHabitacion() == 0L) {  // 👈 Validación adicional
             throw new RuntimeException("Habitación no encontrada o servicio no disponible (ID: " + reserva.getIdHabitacion() + ")");
         }
 
-        HabitacionDTO habitacion = habitacionResponse.getBody();
+        return registrarReserva(reserva, habitacionResponse.getBody());
+    }
 
-        // Verificar disponibilidad (no hay reservas conflictivas)
-        List<Reserva> reservasConflictivas = reservaRepository.findReservasConflictivas(
-                reserva.getIdHabitacion(),
-                reserva.getFechaInicio(),
-                reserva.getFechaFin()
-        );
+    public static void validarFechas(Reserva reserva) {
+        if (reserva.getFechaInicio().isAfter(reserva.getFechaFin())) {
+            throw new RuntimeException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
 
-        if (!reservasConflictivas.isEmpty()) {
-            throw new RuntimeException("La habitación no está disponible en las fechas seleccionadas");
+        if (reserva.getFechaInicio().isBefore(LocalDate.now())) {
+            throw new RuntimeException("La fecha de inicio no puede ser anterior a hoy");
         }
+    }
 
+    // Segunda mitad de crearReserva, con el cliente y la habitación ya validados: calcula el monto y guarda la reserva
+    // con el lock de la habitación tomado. También la usa ReservaReactivaService desde su scheduler de persistencia.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Reserva registrarReserva(Reserva reserva, HabitacionDTO habitacion) {
         // Calcular monto total
-        long dias = ChronoUnit.DAYS.between(reserva.getFechaInicio(), reserva.getFechaFin());
-        if (dias <= 0) dias = 1; // Mínimo 1 día
-        reserva.setMontoTotal(habitacion.getPrecioPorNoche() * dias);
+        reserva.setMontoTotal(calcularMontoTotal(reserva.getFechaInicio(), reserva.getFechaFin(), habitacion.getPrecioPorNoche()));
 
         // ⚙ Establecer valores por defecto
         if (reserva.getEstado() == null) {
@@ -76,22 +151,251 @@ public class ReservaService {
         }
         reserva.setFechaCreacion(LocalDateTime.now());
 
-        // 💾 Guardar reserva
-        Reserva reservaGuardada = reservaRepository.save(reserva);
+        // 💾 Verificar disponibilidad y guardar reserva con el lock de la habitación tomado
+        Reserva reservaGuardada = habitacionLocks.ejecutar(reserva.getIdHabitacion(), () -> transactionTemplate.execute(status -> {
+            // Verificar disponibilidad (no hay reservas conflictivas)
+            if (haySolapamientoAlGuardar(reserva.getIdHabitacion(), reserva.getFechaInicio(), reserva.getFechaFin(), null)) {
+                throw new RuntimeException("La habitación no está disponible en las fechas seleccionadas");
+            }
+            Reserva guardada = reservaRepository.save(reserva);
+            // Actualizar disponibilidad de la habitación (se envía desde el outbox tras el commit)
+            encolarDisponibilidad(guardada.getIdHabitacion(), false);
+            eventPublisher.publishEvent(new ReservaEvento(null, guardada));
+            return guardada;
+        }));
+
+        return reservaGuardada;
+    }
+
+    // Crear reservas en lote: una consulta en bloque por servicio remoto, una sola verificación de
+    // conflictos para todas las habitaciones y un único saveAll (insert en lotes JDBC).
+    // Cada elemento devuelve su propio resultado; un fallo no invalida al resto.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ReservaLoteResultado> crearReservasLote(List<Reserva> reservas) {
+        if (reservas.size() > maximoLote) {
+            throw new RuntimeException("El lote no puede tener más de " + maximoLote + " reservas");
+        }
+        ReservaLoteResultado[] resultados = new ReservaLoteResultado[reservas.size()];
+
+        // 🗓 Validar fechas
+        List<Integer> pendientes = new ArrayList<>();
+        for (int i = 0; i < reservas.size(); i++) {
+            Reserva reserva = reservas.get(i);
+            if (reserva.getIdCliente() == null || reserva.getIdHabitacion() == null
+                    || reserva.getFechaInicio() == null || reserva.getFechaFin() == null) {
+                resultados[i] = ReservaLoteResultado.fallo(i, "Faltan datos obligatorios de la reserva");
+            } else if (reserva.getFechaInicio().isAfter(reserva.getFechaFin())) {
+                resultados[i] = ReservaLoteResultado.fallo(i, "La fecha de inicio no puede ser posterior a la fecha de fin");
+            } else if (reserva.getFechaInicio().isBefore(LocalDate.now())) {
+                resultados[i] = ReservaLoteResultado.fallo(i, "La fecha de inicio no puede ser anterior a hoy");
+            } else {
+                pendientes.add(i);
+            }
+        }
+        if (pendientes.isEmpty()) {
+            return List.of(resultados);
+        }
+
+        // Validar clientes y habitaciones con una consulta en bloque por servicio
+        List<Long> idsCliente = pendientes.stream().map(i -> reservas.get(i).getIdCliente()).distinct().toList();
+        List<Long> idsHabitacion = pendientes.stream().map(i -> reservas.get(i).getIdHabitacion()).distinct().toList();
+
+        CompletableFuture<ResponseEntity<List<ClienteDTO>>> clientesFuture =
+                enParalelo(() -> clienteCache.obtenerClientesPorIds(idsCliente));
+        CompletableFuture<ResponseEntity<List<HabitacionDTO>>> habitacionesFuture =
+                enParalelo(() -> habitacionCache.obtenerHabitacionesPorIds(idsHabitacion));
+
+        ResponseEntity<List<ClienteDTO>> clientesResponse = esperar(clientesFuture);
+        if (!clientesResponse.getStatusCode().is2xxSuccessful() || clientesResponse.getBody() == null) {
+            throw new RuntimeException("Servicio de clientes no disponible");
+        }
+        ResponseEntity<List<HabitacionDTO>> habitacionesResponse = esperar(habitacionesFuture);
+        if (!habitacionesResponse.getStatusCode().is2xxSuccessful() || habitacionesResponse.getBody() == null) {
+            throw new RuntimeException("Servicio de habitaciones no disponible");
+        }
+        Set<Long> clientes = clientesResponse.getBody().stream().map(ClienteDTO::getIdCliente).collect(Collectors.toSet());
+        Map<Long, HabitacionDTO> habitaciones = habitacionesResponse.getBody().stream()
+                .collect(Collectors.toMap(HabitacionDTO::getIdHabitacion, h -> h, (a, b) -> a));
+
+        List<Integer> validas = new ArrayList<>();
+        for (Integer i : pendientes) {
+            Reserva reserva = reservas.get(i);
+            if (!clientes.contains(reserva.getIdCliente())) {
+                resultados[i] = ReservaLoteResultado.fallo(i, "Cliente no encontrado (ID: " + reserva.getIdCliente() + ")");
+            } else if (!habitaciones.containsKey(reserva.getIdHabitacion())) {
+                resultados[i] = ReservaLoteResultado.fallo(i, "Habitación no encontrada (ID: " + reserva.getIdHabitacion() + ")");
+            } else {
+                validas.add(i);
+            }
+        }
+
+        // 💾 Verificar conflictos y guardar todo con los locks de las habitaciones involucradas
+        if (!validas.isEmpty()) {
+            Set<Long> idsBloqueo = validas.stream().map(i -> reservas.get(i).getIdHabitacion()).collect(Collectors.toSet());
+            habitacionLocks.ejecutar(idsBloqueo, () -> transactionTemplate.execute(status -> {
+                Map<Long, List<Reserva>> existentes = conflictosExistentes(idsBloqueo,
+                        validas.stream().map(i -> reservas.get(i).getFechaInicio()).min(LocalDate::compareTo).get(),
+                        validas.stream().map(i -> reservas.get(i).getFechaFin()).max(LocalDate::compareTo).get());
+                Map<Long, List<Reserva>> aceptadas = new HashMap<>();
+                List<Integer> aGuardar = new ArrayList<>();
+
+                for (Integer i : validas) {
+                    Reserva reserva = reservas.get(i);
+                    if (seSolapa(existentes.getOrDefault(reserva.getIdHabitacion(), List.of()), reserva)
+                            || seSolapa(aceptadas.getOrDefault(reserva.getIdHabitacion(), List.of()), reserva)) {
+                        resultados[i] = ReservaLoteResultado.fallo(i, "La habitación no está disponible en las fechas seleccionadas");
+                        continue;
+                    }
+
+                    // Calcular monto total
+                    reserva.setMontoTotal(calcularMontoTotal(reserva.getFechaInicio(), reserva.getFechaFin(),
+                            habitaciones.get(reserva.getIdHabitacion()).getPrecioPorNoche()));
+                    if (reserva.getEstado() == null) {
+                        reserva.setEstado("PENDIENTE");
+                    }
+                    reserva.setFechaCreacion(LocalDateTime.now());
+                    reserva.setIdReserva(null);
+
+                    aceptadas.computeIfAbsent(reserva.getIdHabitacion(), k -> new ArrayList<>()).add(reserva);
+                    aGuardar.add(i);
+                }
+
+                List<Reserva> guardadas = reservaRepository.saveAll(aGuardar.stream().map(reservas::get).toList());
+                Set<Long> habitacionesReservadas = new HashSet<>();
+                for (int j = 0; j < guardadas.size(); j++) {
+                    Reserva guardada = guardadas.get(j);
+                    resultados[aGuardar.get(j)] = ReservaLoteResultado.exito(aGuardar.get(j), guardada);
+                    habitacionesReservadas.add(guardada.getIdHabitacion());
+                    eventPublisher.publishEvent(new ReservaEvento(null, guardada));
+                }
+                // Actualizar disponibilidad una vez por habitación
+                habitacionesReservadas.forEach(idHabitacion -> encolarDisponibilidad(idHabitacion, false));
+                return guardadas;
+            }));
+        }
+
+        return List.of(resultados);
+    }
+
+    private int tamanoPagina(Integer limite) {
+        if (limite == null) {
+            return limiteDefecto;
+        }
+        if (limite <= 0) {
+            throw new RuntimeException("El límite debe ser mayor que 0");
+        }
+        return Math.min(limite, limiteMaximo);
+    }
+
+    private PaginaReservas paginaPorId(List<Reserva> filas, int tamano) {
+        if (filas.size() <= tamano) {
+            return new PaginaReservas(filas, null);
+        }
+        List<Reserva> pagina = new ArrayList<>(filas.subList(0, tamano));
+        return new PaginaReservas(pagina, codificarCursor(String.valueOf(pagina.get(tamano - 1).getIdReserva())));
+    }
 
-        // Actualizar disponibilidad de la habitación
+    private static long idDesdeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
         try {
-            habitacionFeign.cambiarDisponibilidad(habitacion.getIdHabitacion(), false);
-        } catch (Exception e) {
-            System.err.println("No se pudo actualizar la disponibilidad de la habitación (posible fallback activado)");
+            return Long.parseLong(decodificarCursor(cursor));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Cursor inválido");
         }
+    }
 
-        return reservaGuardada;
+    // El cursor es opaco para el cliente: la posición del último elemento en Base64 URL-safe
+    private static String codificarCursor(String posicion) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicion.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificarCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
     }
 
-    // Obtener todas las reservas
-    public List<Reserva> obtenerTodasLasReservas() {
-        return reservaRepository.findAll();
+    // Monto de una estancia: precio por noche por número de noches, mínimo 1
+    public static double calcularMontoTotal(LocalDate fechaInicio, LocalDate fechaFin, double precioPorNoche) {
+        long dias = ChronoUnit.DAYS.between(fechaInicio, fechaFin);
+        if (dias <= 0) dias = 1; // Mínimo 1 día
+        return precioPorNoche * dias;
+    }
+
+    // Regla de cambiarEstado: una reserva cancelada no cambia de estado; cancelar libera la habitación
+    // y confirmar la ocupa. Devuelve la nueva disponibilidad de la habitación, o null si no cambia.
+    public static Boolean disponibilidadTrasCambioDeEstado(String estadoAnterior, String nuevoEstado) {
+        if ("CANCELADA".equals(estadoAnterior)) {
+            throw new RuntimeException("No se puede cambiar el estado de una reserva cancelada");
+        }
+        if ("CANCELADA".equals(nuevoEstado)) {
+            return true;
+        }
+        if ("CONFIRMADA".equals(nuevoEstado)) {
+            return false;
+        }
+        return null;
+    }
+
+    // Registrar el cambio de disponibilidad en el outbox dentro de la transacción actual;
+    // DisponibilidadOutboxDispatcher lo envía a ms-habitacion en lotes.
+    private void encolarDisponibilidad(Long idHabitacion, boolean disponible) {
+        LocalDateTime ahora = LocalDateTime.now();
+        disponibilidadOutboxRepository.save(DisponibilidadOutbox.builder()
+                .idHabitacion(idHabitacion)
+                .disponible(disponible)
+                .fechaCreacion(ahora)
+                .intentos(0)
+                .proximoIntento(ahora)
+                .build());
+    }
+
+    // Lanzar una llamada remota en el pool de validaciones. Con reservas.validaciones.paralelas=false
+    // se ejecuta en el mismo hilo, como antes.
+    private <T> CompletableFuture<T> enParalelo(Supplier<T> llamada) {
+        if (!validacionesParalelas) {
+            return CompletableFuture.completedFuture(llamada.get());
+        }
+        return CompletableFuture.supplyAsync(llamada, validacionesExecutor);
+    }
+
+    private static <T> T esperar(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    // Reservas activas que se cruzan con [fechaInicio, fechaFin] en cualquiera de las habitaciones, en una sola consulta
+    // que bloquea los rangos leídos hasta el commit. El índice en memoria no basta para guardar: solo conoce las
+    // reservas de otras instancias tras la verificación de consistencia.
+    private Map<Long, List<Reserva>> conflictosExistentes(Collection<Long> idsHabitacion, LocalDate fechaInicio, LocalDate fechaFin) {
+        return reservaRepository.bloquearReservasConflictivasEnHabitaciones(idsHabitacion, fechaInicio, fechaFin).stream()
+                .collect(Collectors.groupingBy(Reserva::getIdHabitacion));
+    }
+
+    private static boolean seSolapa(List<Reserva> reservas, Reserva nueva) {
+        for (Reserva r : reservas) {
+            if (!r.getFechaInicio().isAfter(nueva.getFechaFin()) && !r.getFechaFin().isBefore(nueva.getFechaInicio())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Obtener todas las reservas (paginado por cursor)
+    @Transactional(readOnly = true)
+    public PaginaReservas obtenerTodasLasReservas(String cursor, Integer limite) {
+        int tamano = tamanoPagina(limite);
+        return paginaPorId(reservaRepository.findPagina(idDesdeCursor(cursor), PageRequest.of(0, tamano + 1)), tamano);
     }
 
     // Obtener reserva por ID
@@ -100,18 +404,24 @@ public class ReservaService {
     }
 
     // Obtener reservas por cliente
-    public List<Reserva> obtenerReservasPorCliente(Long idCliente) {
-        return reservaRepository.findByIdCliente(idCliente);
+    @Transactional(readOnly = true)
+    public PaginaReservas obtenerReservasPorCliente(Long idCliente, String cursor, Integer limite) {
+        int tamano = tamanoPagina(limite);
+        return paginaPorId(reservaRepository.findPaginaPorCliente(idCliente, idDesdeCursor(cursor), PageRequest.of(0, tamano + 1)), tamano);
     }
 
     // Obtener reservas por habitación
-    public List<Reserva> obtenerReservasPorHabitacion(Long idHabitacion) {
-        return reservaRepository.findByIdHabitacion(idHabitacion);
+    @Transactional(readOnly = true)
+    public PaginaReservas obtenerReservasPorHabitacion(Long idHabitacion, String cursor, Integer limite) {
+        int tamano = tamanoPagina(limite);
+        return paginaPorId(reservaRepository.findPaginaPorHabitacion(idHabitacion, idDesdeCursor(cursor), PageRequest.of(0, tamano + 1)), tamano);
     }
 
     // Obtener reservas por estado
-    public List<Reserva> obtenerReservasPorEstado(String estado) {
-        return reservaRepository.findByEstado(estado);
+    @Transactional(readOnly = true)
+    public PaginaReservas obtenerReservasPorEstado(String estado, String cursor, Integer limite) {
+        int tamano = tamanoPagina(limite);
+        return paginaPorId(reservaRepository.findPaginaPorEstado(estado, idDesdeCursor(cursor), PageRequest.of(0, tamano + 1)), tamano);
     }
 
     // Obtener reservas activas de una habitación
@@ -119,52 +429,152 @@ public class ReservaService {
         return reservaRepository.findReservasActivasPorHabitacion(idHabitacion, LocalDate.now());
     }
 
-    // Obtener reservas por rango de fechas
-    public List<Reserva> obtenerReservasPorRangoFechas(LocalDate inicio, LocalDate fin) {
-        return reservaRepository.findByFechaInicioBetween(inicio, fin);
+    // Obtener reservas por rango de fechas, ordenadas por fecha de inicio
+    @Transactional(readOnly = true)
+    public PaginaReservas obtenerReservasPorRangoFechas(LocalDate inicio, LocalDate fin, String cursor, Integer limite) {
+        int tamano = tamanoPagina(limite);
+        LocalDate fechaCursor = inicio;
+        long idCursor = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] partes = decodificarCursor(cursor).split("\\|");
+            try {
+                fechaCursor = LocalDate.parse(partes[0]);
+                idCursor = Long.parseLong(partes[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Cursor inválido");
+            }
+        }
+        List<Reserva> filas = reservaRepository.findPaginaPorFechaInicio(inicio, fin, fechaCursor, idCursor, PageRequest.of(0, tamano + 1));
+        if (filas.size() <= tamano) {
+            return new PaginaReservas(filas, null);
+        }
+        List<Reserva> pagina = filas.subList(0, tamano);
+        Reserva ultima = pagina.get(tamano - 1);
+        return new PaginaReservas(new ArrayList<>(pagina), codificarCursor(ultima.getFechaInicio() + "|" + ultima.getIdReserva()));
+    }
+
+    // Exportar reservas una a una (NDJSON). La transacción queda abierta mientras se recorre el cursor
+    // y cada reserva se desacopla del contexto de persistencia al escribirla, así la memoria no crece con la tabla.
+    @Transactional(readOnly = true)
+    public long exportarReservas(String estado, Consumer<Reserva> escritor) {
+        long total = 0;
+        try (Stream<Reserva> reservas = estado == null ? reservaRepository.streamTodas() : reservaRepository.streamPorEstado(estado)) {
+            Iterator<Reserva> it = reservas.iterator();
+            while (it.hasNext()) {
+                Reserva reserva = it.next();
+                escritor.accept(reserva);
+                entityManager.detach(reserva);
+                total++;
+            }
+        }
+        return total;
     }
 
-    // Obtener reservas para check-out hoy
-    public List<Reserva> obtenerReservasCheckOutHoy() {
-        return reservaRepository.findReservasPorCheckOut(LocalDate.now());
+    // Obtener reservas para check-out de un día (hoy y mañana salen del manifiesto en memoria)
+    public Manifiesto obtenerManifiestoCheckOut(LocalDate fecha) {
+        return manifiestos.checkOut(fecha);
     }
 
-    // Obtener reservas para check-in hoy
-    public List<Reserva> obtenerReservasCheckInHoy() {
-        return reservaRepository.findReservasPorCheckIn(LocalDate.now());
+    // Obtener reservas para check-in de un día (hoy y mañana salen del manifiesto en memoria)
+    public Manifiesto obtenerManifiestoCheckIn(LocalDate fecha) {
+        return manifiestos.checkIn(fecha);
     }
 
     // Verificar disponibilidad de habitación
     public boolean verificarDisponibilidad(Long idHabitacion, LocalDate fechaInicio, LocalDate fechaFin) {
-        List<Reserva> reservasConflictivas = reservaRepository.findReservasConflictivas(
-                idHabitacion, fechaInicio, fechaFin
-        );
-        return reservasConflictivas.isEmpty();
+        return !haySolapamiento(idHabitacion, fechaInicio, fechaFin, null);
     }
 
-    // Actualizar reserva
+    // Buscar todas las habitaciones libres en un rango, con filtros opcionales de tipo y capacidad mínima
+    @Transactional(readOnly = true)
+    public List<HabitacionDTO> buscarHabitacionesLibres(LocalDate fechaInicio, LocalDate fechaFin, String tipo, Integer capacidad) {
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new RuntimeException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+
+        ResponseEntity<List<HabitacionDTO>> catalogoResponse = habitacionFeign.obtenerTodasLasHabitaciones();
+        if (!catalogoResponse.getStatusCode().is2xxSuccessful() || catalogoResponse.getBody() == null) {
+            throw new RuntimeException("Servicio de habitaciones no disponible");
+        }
+
+        Map<Long, HabitacionDTO> candidatas = new LinkedHashMap<>();
+        for (HabitacionDTO habitacion : catalogoResponse.getBody()) {
+            if ("MANTENIMIENTO".equalsIgnoreCase(habitacion.getEstado()) || "INACTIVA".equalsIgnoreCase(habitacion.getEstado())) {
+                continue;
+            }
+            if (tipo != null && !tipo.equalsIgnoreCase(habitacion.getTipo())) {
+                continue;
+            }
+            if (capacidad != null && (habitacion.getCapacidad() == null || habitacion.getCapacidad() < capacidad)) {
+                continue;
+            }
+            candidatas.put(habitacion.getIdHabitacion(), habitacion);
+        }
+
+        // La matriz de ocupación resuelve todo el lote; fuera de su ventana se consulta habitación por habitación
+        List<Long> libres = ocupacion.filtrarLibres(candidatas.keySet(), fechaInicio, fechaFin)
+                .orElseGet(() -> candidatas.keySet().stream()
+                        .filter(id -> !haySolapamiento(id, fechaInicio, fechaFin, null))
+                        .toList());
+        return libres.stream().map(candidatas::get).toList();
+    }
+
+    // Consultar el índice en memoria; mientras no termine de cargarse se usa la consulta JPA
+    private boolean haySolapamiento(Long idHabitacion, LocalDate fechaInicio, LocalDate fechaFin, Long excluirIdReserva) {
+        if (indiceDisponibilidad.estaListo()) {
+            return indiceDisponibilidad.haySolapamiento(idHabitacion, fechaInicio, fechaFin, excluirIdReserva);
+        }
+        List<Reserva> reservasConflictivas = reservaRepository.findReservasConflictivas(idHabitacion, fechaInicio, fechaFin);
+        reservasConflictivas.removeIf(r -> r.getIdReserva().equals(excluirIdReserva));
+        return !reservasConflictivas.isEmpty();
+    }
+
+    // Comprobación antes de guardar, dentro de la transacción y con el lock de la habitación tomado. El índice en memoria
+    // solo sirve para rechazar rápido: las reservas hechas en otra instancia le llegan con la verificación de
+    // consistencia, y HabitacionLocks tampoco se comparte entre instancias. Si el índice no ve conflicto, decide la
+    // consulta, que bloquea el rango hasta el commit para que otra instancia no guarde una reserva solapada a la vez.
+    private boolean haySolapamientoAlGuardar(Long idHabitacion, LocalDate fechaInicio, LocalDate fechaFin, Long excluirIdReserva) {
+        if (indiceDisponibilidad.estaListo()
+                && indiceDisponibilidad.haySolapamiento(idHabitacion, fechaInicio, fechaFin, excluirIdReserva)) {
+            return true;
+        }
+        List<Reserva> reservasConflictivas = reservaRepository.bloquearReservasConflictivas(idHabitacion, fechaInicio, fechaFin);
+        reservasConflictivas.removeIf(r -> r.getIdReserva().equals(excluirIdReserva));
+        return !reservasConflictivas.isEmpty();
+    }
+
+    // Actualizar reserva. Igual que crearReserva: validaciones remotas primero y luego la
+    // transacción con el lock de la habitación destino tomado
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Reserva actualizarReserva(Long id, Reserva reservaActualizada) {
-        return reservaRepository.findById(id)
+        CompletableFuture<ResponseEntity<ClienteDTO>> clienteFuture =
+                enParalelo(() -> clienteCache.obtenerClientePorId(reservaActualizada.getIdCliente()));
+        CompletableFuture<ResponseEntity<HabitacionDTO>> habitacionFuture =
+                enParalelo(() -> habitacionCache.obtenerHabitacionPorId(reservaActualizada.getIdHabitacion()));
+
+        // Validar cliente
+        ResponseEntity<ClienteDTO> clienteResponse = esperar(clienteFuture);
+        if (!clienteResponse.getStatusCode().is2xxSuccessful() || clienteResponse.getBody() == null) {
+            throw new RuntimeException("Cliente no encontrado con ID: " + reservaActualizada.getIdCliente());
+        }
+
+        // Validar habitación
+        ResponseEntity<HabitacionDTO> habitacionResponse = esperar(habitacionFuture);
+        if (!habitacionResponse.getStatusCode().is2xxSuccessful() || habitacionResponse.getBody() == null) {
+            throw new RuntimeException("Habitación no encontrada con ID: " + reservaActualizada.getIdHabitacion());
+        }
+
+        HabitacionDTO habitacion = habitacionResponse.getBody();
+
+        return habitacionLocks.ejecutar(reservaActualizada.getIdHabitacion(), () -> transactionTemplate.execute(status ->
+                reservaRepository.findById(id)
                 .map(reserva -> {
 
                     //  No permitir actualizar una reserva cancelada
                     if ("CANCELADA".equalsIgnoreCase(reserva.getEstado())) {
                         throw new RuntimeException("No se puede actualizar una reserva cancelada");
                     }
-
-                    // Validar cliente
-                    ResponseEntity<ClienteDTO> clienteResponse = clienteFeign.obtenerClientePorId(reservaActualizada.getIdCliente());
-                    if (!clienteResponse.getStatusCode().is2xxSuccessful() || clienteResponse.getBody() == null) {
-                        throw new RuntimeException("Cliente no encontrado con ID: " + reservaActualizada.getIdCliente());
-                    }
-
-                    // Validar habitación
-                    ResponseEntity<HabitacionDTO> habitacionResponse = habitacionFeign.obtenerHabitacionPorId(reservaActualizada.getIdHabitacion());
-                    if (!habitacionResponse.getStatusCode().is2xxSuccessful() || habitacionResponse.getBody() == null) {
-                        throw new RuntimeException("Habitación no encontrada con ID: " + reservaActualizada.getIdHabitacion());
-                    }
-
-                    HabitacionDTO habitacion = habitacionResponse.getBody();
+                    Reserva anterior = ReservaEvento.copiar(reserva);
 
                     // Verificar si cambian las fechas o la habitación
                     boolean cambiosDeDisponibilidad =
@@ -173,27 +583,16 @@ public class ReservaService {
                                     !reserva.getFechaFin().equals(reservaActualizada.getFechaFin());
 
                     if (cambiosDeDisponibilidad) {
-                        List<Reserva> reservasConflictivas = reservaRepository.findReservasConflictivas(
-                                reservaActualizada.getIdHabitacion(),
-                                reservaActualizada.getFechaInicio(),
-                                reservaActualizada.getFechaFin()
-                        );
-
                         // Excluir la reserva actual de los conflictos
-                        reservasConflictivas.removeIf(r -> r.getIdReserva().equals(id));
-
-                        if (!reservasConflictivas.isEmpty()) {
+                        if (haySolapamientoAlGuardar(reservaActualizada.getIdHabitacion(),
+                                reservaActualizada.getFechaInicio(),
+                                reservaActualizada.getFechaFin(), id)) {
                             throw new RuntimeException("La habitación no está disponible en las nuevas fechas");
                         }
 
                         // Recalcular monto total
-                        long dias = ChronoUnit.DAYS.between(
-                                reservaActualizada.getFechaInicio(),
-                                reservaActualizada.getFechaFin()
-                        );
-                        if (dias <= 0) dias = 1;
-
-                        reservaActualizada.setMontoTotal(habitacion.getPrecioPorNoche() * dias);
+                        reservaActualizada.setMontoTotal(calcularMontoTotal(reservaActualizada.getFechaInicio(),
+                                reservaActualizada.getFechaFin(), habitacion.getPrecioPorNoche()));
                     }
 
                     // Actualizar campos
@@ -204,39 +603,32 @@ public class ReservaService {
                     reserva.setMontoTotal(reservaActualizada.getMontoTotal());
                     reserva.setEstado(reservaActualizada.getEstado());
 
-                    return reservaRepository.save(reserva);
+                    Reserva reservaGuardada = reservaRepository.save(reserva);
+                    eventPublisher.publishEvent(new ReservaEvento(anterior, reservaGuardada));
+                    return reservaGuardada;
                 })
-                .orElseThrow(() -> new RuntimeException("Reserva no encontrada con id: " + id));
+                .orElseThrow(() -> new RuntimeException("Reserva no encontrada con id: " + id))));
     }
     //* Cambiar estado de reserva
     public Reserva cambiarEstado(Long id, String nuevoEstado) {
         return reservaRepository.findById(id)
                 .map(reserva -> {
                     String estadoAnterior = reserva.getEstado();
+                    Reserva anterior = ReservaEvento.copiar(reserva);
 
                     //  Validar transición de estado
-                    if ("CANCELADA".equals(estadoAnterior)) {
-                        throw new RuntimeException("No se puede cambiar el estado de una reserva cancelada");
-                    }
+                    Boolean disponible = disponibilidadTrasCambioDeEstado(estadoAnterior, nuevoEstado);
 
                     reserva.setEstado(nuevoEstado);
 
-                    //  Cambiar disponibilidad en ms-habitacion según el nuevo estado
-                    Long idHabitacion = reserva.getIdHabitacion();
-
-                    try {
-                        if ("CANCELADA".equals(nuevoEstado)) {
-                            habitacionFeign.cambiarDisponibilidad(idHabitacion, true);
-                            System.out.println("✔ Habitación liberada (disponible nuevamente)");
-                        } else if ("CONFIRMADA".equals(nuevoEstado)) {
-                            habitacionFeign.cambiarDisponibilidad(idHabitacion, false);
-                            System.out.println("✔ Habitación marcada como ocupada");
-                        }
-                    } catch (Exception e) {
-                        System.err.println(" Error al actualizar disponibilidad de habitación vía Feign: " + e.getMessage());
+                    //  Cambiar disponibilidad en ms-habitacion según el nuevo estado (vía outbox, misma transacción)
+                    if (disponible != null) {
+                        encolarDisponibilidad(reserva.getIdHabitacion(), disponible);
                     }
 
-                    return reservaRepository.save(reserva);
+                    Reserva reservaGuardada = reservaRepository.save(reserva);
+                    eventPublisher.publishEvent(new ReservaEvento(anterior, reservaGuardada));
+                    return reservaGuardada;
                 })
                 .orElseThrow(() -> new RuntimeException("Reserva no encontrada con id: " + id));
     }
@@ -253,9 +645,9 @@ public class ReservaService {
 
     // Eliminar reserva
     public void eliminarReserva(Long id) {
-        if (!reservaRepository.existsById(id)) {
-            throw new RuntimeException("Reserva no encontrada con id: " + id);
-        }
-        reservaRepository.deleteById(id);
+        Reserva reserva = reservaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Reserva no encontrada con id: " + id));
+        reservaRepository.delete(reserva);
+        eventPublisher.publishEvent(new ReservaEvento(reserva, null));
     }
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.ycr.msreserva.analitica;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Entity.ResumenDiario;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.Repository.ResumenDiarioRepository;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.events.ReservaEvento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+
+// Mantiene la tabla resumen_diario: aplica el delta de cada reserva después del commit
+// (se resta la versión anterior y se suma la actual) en resumenExecutor, y la reconstruye completa cada noche
+// en ese mismo hilo para que deltas y reconstrucción no se solapen.
+@Component
+public class ResumenDiarioAcumulador {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumenDiarioAcumulador.class);
+    static final String SIN_TIPO = "SIN_TIPO";
+
+    @Autowired
+    private ResumenDiarioRepository resumenRepository;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    @Qualifier("resumenExecutor")
+    private Executor resumenExecutor;
+
+    private record Clave(LocalDate fecha, String tipo) {
+    }
+
+    private static final class Delta {
+        long ocupadas;
+        long noches;
+        double ingresos;
+        long cancelaciones;
+
+        boolean vacio() {
+            return ocupadas == 0 && noches == 0 && ingresos == 0 && cancelaciones == 0;
+        }
+    }
+
+    @TransactionalEventListener
+    public void alConfirmarCambio(ReservaEvento evento) {
+        resumenExecutor.execute(() -> acumular(evento));
+    }
+
+    private void acumular(ReservaEvento evento) {
+        Map<Clave, Delta> deltas = new HashMap<>();
+        if (evento.getAnterior() != null) {
+            aportar(evento.getAnterior(), -1, tipoDe(evento.getAnterior().getIdHabitacion()), deltas);
+        }
+        if (evento.getActual() != null) {
+            aportar(evento.getActual(), 1, tipoDe(evento.getActual().getIdHabitacion()), deltas);
+        }
+        deltas.values().removeIf(Delta::vacio);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            try {
+                aplicar(deltas);
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia insertó la misma fila (fecha, tipo) a la vez: la transacción se revirtió entera, se reintenta
+                aplicar(deltas);
+            }
+        } catch (RuntimeException e) {
+            // La reserva ya está confirmada; la reconstrucción nocturna corrige el agregado
+            log.error("No se pudo actualizar el resumen diario para la reserva {}", evento.getIdReserva(), e);
+        }
+    }
+
+    private void aplicar(Map<Clave, Delta> deltas) {
+        transactionTemplate.executeWithoutResult(status -> deltas.forEach((clave, delta) -> {
+            int filas = resumenRepository.incrementar(clave.fecha(), clave.tipo(),
+                    delta.ocupadas, delta.noches, delta.ingresos, delta.cancelaciones);
+            if (filas == 0) {
+                resumenRepository.saveAndFlush(ResumenDiario.builder()
+                        .fecha(clave.fecha())
+                        .tipoHabitacion(clave.tipo())
+                        .habitacionesOcupadas(delta.ocupadas)
+                        .nochesVendidas(delta.noches)
+                        .ingresos(delta.ingresos)
+                        .cancelaciones(delta.cancelaciones)
+                        .build());
+            }
+        }));
+    }
+
+    // Reconstrucción completa a partir de la tabla reservas. Se ejecuta en resumenExecutor, el mismo hilo que
+    // aplica los deltas: los encolados antes se aplican sobre el resumen viejo y se descartan con él, y los
+    // encolados durante la reconstrucción esperan a que confirme y se suman sobre el nuevo.
+    @Scheduled(cron = "${reservas.resumen.reconstruccion-cron:0 30 3 * * *}")
+    public int reconstruir() {
+        FutureTask<Integer> tarea = new FutureTask<>(this::reconstruirEnHiloDelResumen);
+        resumenExecutor.execute(tarea);
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reconstrucción del resumen diario interrumpida");
+        } catch (CancellationException e) {
+            throw new RuntimeException("Cola del resumen diario llena, no se pudo reconstruir");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : new RuntimeException(e.getCause());
+        }
+    }
+
+    private int reconstruirEnHiloDelResumen() {
+        // Los tipos se piden a ms-habitacion antes de abrir la transacción, para no retener la conexión
+        Map<Long, String> tipos = tiposDe(reservaRepository.findIdsHabitacion());
+        Integer filas = transactionTemplate.execute(status -> {
+            Map<Clave, Delta> totales = new HashMap<>();
+            try (Stream<Reserva> reservas = reservaRepository.streamTodas()) {
+                Iterator<Reserva> it = reservas.iterator();
+                while (it.hasNext()) {
+                    Reserva reserva = it.next();
+                    aportar(reserva, 1, tipos.getOrDefault(reserva.getIdHabitacion(), SIN_TIPO), totales);
+                    entityManager.detach(reserva);
+                }
+            }
+            totales.values().removeIf(Delta::vacio);
+            resumenRepository.deleteTodo();
+            resumenRepository.saveAll(totales.entrySet().stream()
+                    .map(e -> ResumenDiario.builder()
+                            .fecha(e.getKey().fecha())
+                            .tipoHabitacion(e.getKey().tipo())
+                            .habitacionesOcupadas(e.getValue().ocupadas)
+                            .nochesVendidas(e.getValue().noches)
+                            .ingresos(e.getValue().ingresos)
+                            .cancelaciones(e.getValue().cancelaciones)
+                            .build())
+                    .toList());
+            return totales.size();
+        });
+        log.info("Resumen diario reconstruido: {} filas", filas);
+        return filas == null ? 0 : filas;
+    }
+
+    // Aporte de una reserva a los agregados, con signo (+1 al sumar, -1 al retirar la versión anterior)
+    private static void aportar(Reserva reserva, int signo, String tipo, Map<Clave, Delta> deltas) {
+        if (reserva.getFechaInicio() == null || reserva.getFechaFin() == null) {
+            return;
+        }
+        LocalDate llegada = reserva.getFechaInicio();
+        Delta delLlegada = deltas.computeIfAbsent(new Clave(llegada, tipo), k -> new Delta());
+        if ("CANCELADA".equalsIgnoreCase(reserva.getEstado())) {
+            delLlegada.cancelaciones += signo;
+            return;
+        }
+        long noches = ChronoUnit.DAYS.between(llegada, reserva.getFechaFin());
+        if (noches <= 0) noches = 1; // Mínimo 1 noche, igual que el monto total
+        delLlegada.noches += signo * noches;
+        delLlegada.ingresos += signo * (reserva.getMontoTotal() == null ? 0.0 : reserva.getMontoTotal());
+        for (int i = 0; i < noches; i++) {
+            deltas.computeIfAbsent(new Clave(llegada.plusDays(i), tipo), k -> new Delta()).ocupadas += signo;
+        }
+    }
+
+    private String tipoDe(Long idHabitacion) {
+        try {
+            ResponseEntity<HabitacionDTO> response = habitacionCache.obtenerHabitacionPorId(idHabitacion);
+            if (response != null && response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                    && response.getBody().getTipo() != null) {
+                return response.getBody().getTipo();
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo obtener el tipo de la habitación {}: {}", idHabitacion, e.getMessage());
+        }
+        return SIN_TIPO;
+    }
+
+    private Map<Long, String> tiposDe(List<Long> idsHabitacion) {
+        Map<Long, String> tipos = new HashMap<>();
+        if (idsHabitacion.isEmpty()) {
+            return tipos;
+        }
+        ResponseEntity<List<HabitacionDTO>> response = habitacionCache.obtenerHabitacionesPorIds(idsHabitacion);
+        if (response == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            // Sin tipos no se puede repartir por tipo de habitación; mejor conservar el resumen actual
+            throw new RuntimeException("ms-habitacion no disponible para reconstruir el resumen diario");
+        }
+        for (HabitacionDTO habitacion : response.getBody()) {
+            if (habitacion.getTipo() != null) {
+                tipos.put(habitacion.getIdHabitacion(), habitacion.getTipo());
+            }
+        }
+        return tipos;
+    }
+}
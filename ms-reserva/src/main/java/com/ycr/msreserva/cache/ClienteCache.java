@@ -0,0 +1,119 @@
+package com.ycr.msreserva.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.feign.ClienteFeign;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Caché de existencia de clientes delante de ClienteFeign, acotada por tamaño y TTL.
+// Los clientes encontrados se guardan más tiempo; los "no encontrado" (404 de ms-cliente) se guardan
+// poco tiempo para frenar reintentos con ids inválidos. La respuesta de fallback del circuit breaker
+// (idCliente == 0) significa que no se sabe, así que nunca se guarda.
+@Component
+public class ClienteCache {
+
+    private final ClienteFeign clienteFeign;
+    private final Cache<Long, Optional<ClienteDTO>> cache;
+
+    public ClienteCache(ClienteFeign clienteFeign,
+                        MeterRegistry meterRegistry,
+                        @Value("${reservas.cache.clientes.ttl:10m}") Duration ttl,
+                        @Value("${reservas.cache.clientes.ttl-no-encontrado:30s}") Duration ttlNoEncontrado,
+                        @Value("${reservas.cache.clientes.maximo:20000}") long maximo) {
+        this.clienteFeign = clienteFeign;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(Expiry.<Long, Optional<ClienteDTO>>writing(
+                        (id, cliente) -> cliente.isPresent() ? ttl : ttlNoEncontrado))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reservas.clientes");
+    }
+
+    public ResponseEntity<ClienteDTO> obtenerClientePorId(Long id) {
+        Optional<ClienteDTO> guardado = cache.getIfPresent(id);
+        if (guardado != null) {
+            return guardado.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        }
+        ResponseEntity<ClienteDTO> response = clienteFeign.obtenerClientePorId(id);
+        guardar(id, response);
+        return response;
+    }
+
+    // Variante no bloqueante para ReservaReactivaService: mismas reglas de caché, la consulta remota la aporta quien llama
+    public Mono<ResponseEntity<ClienteDTO>> obtenerClientePorId(Long id, Function<Long, Mono<ResponseEntity<ClienteDTO>>> consulta) {
+        return Mono.defer(() -> {
+            Optional<ClienteDTO> guardado = cache.getIfPresent(id);
+            if (guardado != null) {
+                return Mono.just(guardado.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build()));
+            }
+            return consulta.apply(id).doOnNext(response -> guardar(id, response));
+        });
+    }
+
+    private void guardar(Long id, ResponseEntity<ClienteDTO> response) {
+        if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+            cache.put(id, Optional.empty());
+        } else if (esClienteReal(response.getStatusCode().is2xxSuccessful(), response.getBody())) {
+            cache.put(id, Optional.of(response.getBody()));
+        }
+    }
+
+    // Resolver varios clientes: los que están en caché no salen a la red; de los que se consultan,
+    // los que ms-cliente no devuelve se guardan como "no encontrado"
+    public ResponseEntity<List<ClienteDTO>> obtenerClientesPorIds(List<Long> ids) {
+        Map<Long, Optional<ClienteDTO>> guardados = cache.getAllPresent(ids);
+        List<ClienteDTO> clientes = new ArrayList<>();
+        guardados.values().forEach(cliente -> cliente.ifPresent(clientes::add));
+        List<Long> faltantes = ids.stream().filter(id -> !guardados.containsKey(id)).toList();
+        if (faltantes.isEmpty()) {
+            return ResponseEntity.ok(clientes);
+        }
+        ResponseEntity<List<ClienteDTO>> response = clienteFeign.obtenerClientesPorIds(faltantes);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+        Set<Long> encontrados = response.getBody().stream().map(ClienteDTO::getIdCliente).collect(Collectors.toSet());
+        for (ClienteDTO cliente : response.getBody()) {
+            if (esClienteReal(true, cliente)) {
+                cache.put(cliente.getIdCliente(), Optional.of(cliente));
+            }
+            clientes.add(cliente);
+        }
+        for (Long id : faltantes) {
+            if (!encontrados.contains(id)) {
+                cache.put(id, Optional.empty());
+            }
+        }
+        return ResponseEntity.ok(clientes);
+    }
+
+    public void invalidar(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidarTodo() {
+        cache.invalidateAll();
+    }
+
+    private static boolean esClienteReal(boolean exitosa, ClienteDTO cliente) {
+        return exitosa && cliente != null && cliente.getIdCliente() != null && cliente.getIdCliente() != 0L;
+    }
+}
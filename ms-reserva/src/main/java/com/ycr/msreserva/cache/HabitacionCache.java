@@ -0,0 +1,128 @@
+package com.ycr.msreserva.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.feign.HabitacionFeignAgrupado;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Caché local de HabitacionDTO delante de HabitacionFeign.
+// ms-habitaciones avisa cuando una habitación cambia (POST /reservas/cache/habitaciones/{id}/invalidar);
+// el TTL cubre los avisos perdidos. Nunca se guarda la respuesta de fallback del circuit breaker (id 0).
+// Con reservas.habitaciones.agrupacion.habilitada las consultas individuales pasan por HabitacionFeignAgrupado.
+// Métricas: cache.gets{result=hit|miss}, cache.evictions, cache.size con cache=reservas.habitaciones.
+@Component
+public class HabitacionCache {
+
+    private final HabitacionFeign habitacionFeign;
+    // Consulta de una habitación que no está en caché: directa por Feign, o agrupada con las de otros hilos
+    private final Function<Long, ResponseEntity<HabitacionDTO>> consultaIndividual;
+    private final Cache<Long, HabitacionDTO> cache;
+    // Si llega una invalidación mientras hay una consulta remota en curso, su respuesta ya no se guarda
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    // Sin agrupación de consultas, para las pruebas del paquete
+    HabitacionCache(HabitacionFeign habitacionFeign,
+                    MeterRegistry meterRegistry,
+                    Duration ttl,
+                    long maximo) {
+        this(habitacionFeign, null, false, meterRegistry, ttl, maximo);
+    }
+
+    @Autowired
+    public HabitacionCache(HabitacionFeign habitacionFeign,
+                           HabitacionFeignAgrupado habitacionFeignAgrupado,
+                           @Value("${reservas.habitaciones.agrupacion.habilitada:false}") boolean agrupar,
+                           MeterRegistry meterRegistry,
+                           @Value("${reservas.cache.habitaciones.ttl:10m}") Duration ttl,
+                           @Value("${reservas.cache.habitaciones.maximo:5000}") long maximo) {
+        this.habitacionFeign = habitacionFeign;
+        this.consultaIndividual = agrupar ? habitacionFeignAgrupado::obtenerHabitacionPorId : habitacionFeign::obtenerHabitacionPorId;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reservas.habitaciones");
+    }
+
+    public ResponseEntity<HabitacionDTO> obtenerHabitacionPorId(Long id) {
+        HabitacionDTO habitacion = cache.getIfPresent(id);
+        if (habitacion != null) {
+            return ResponseEntity.ok(habitacion);
+        }
+        long version = invalidaciones.get();
+        ResponseEntity<HabitacionDTO> response = consultaIndividual.apply(id);
+        if (esRespuestaReal(response.getStatusCode().is2xxSuccessful(), response.getBody()) && version == invalidaciones.get()) {
+            cache.put(id, response.getBody());
+        }
+        return response;
+    }
+
+    // Variante no bloqueante para ReservaReactivaService: mismas reglas de caché, la consulta remota la aporta quien llama
+    public Mono<ResponseEntity<HabitacionDTO>> obtenerHabitacionPorId(Long id, Function<Long, Mono<ResponseEntity<HabitacionDTO>>> consulta) {
+        return Mono.defer(() -> {
+            HabitacionDTO habitacion = cache.getIfPresent(id);
+            if (habitacion != null) {
+                return Mono.just(ResponseEntity.ok(habitacion));
+            }
+            long version = invalidaciones.get();
+            return consulta.apply(id).doOnNext(response -> {
+                if (esRespuestaReal(response.getStatusCode().is2xxSuccessful(), response.getBody()) && version == invalidaciones.get()) {
+                    cache.put(id, response.getBody());
+                }
+            });
+        });
+    }
+
+    // Resolver varias habitaciones: las que están en caché no salen a la red, el resto va en una sola llamada
+    public ResponseEntity<List<HabitacionDTO>> obtenerHabitacionesPorIds(List<Long> ids) {
+        Map<Long, HabitacionDTO> encontradas = cache.getAllPresent(ids);
+        List<Long> faltantes = ids.stream().filter(id -> !encontradas.containsKey(id)).toList();
+        List<HabitacionDTO> habitaciones = new ArrayList<>(encontradas.values());
+        if (faltantes.isEmpty()) {
+            return ResponseEntity.ok(habitaciones);
+        }
+        long version = invalidaciones.get();
+        ResponseEntity<List<HabitacionDTO>> response = habitacionFeign.obtenerHabitacionesPorIds(faltantes);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+        for (HabitacionDTO habitacion : response.getBody()) {
+            if (esRespuestaReal(true, habitacion) && version == invalidaciones.get()) {
+                cache.put(habitacion.getIdHabitacion(), habitacion);
+            }
+            habitaciones.add(habitacion);
+        }
+        return ResponseEntity.ok(habitaciones);
+    }
+
+    public void invalidar(Long id) {
+        invalidaciones.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    public void invalidarTodo() {
+        invalidaciones.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static boolean esRespuestaReal(boolean exitosa, HabitacionDTO habitacion) {
+        return exitosa && habitacion != null
+                && habitacion.getIdHabitacion() != null && habitacion.getIdHabitacion() != 0L;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ycr.msreserva.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Habilita @Timed en los beans de la aplicación (ReservaService publica reservas.servicio por operación).
+// Las consultas de los repositorios ya se miden en spring.data.repository.invocations, las llamadas remotas en
+// reservas.remoto, y los estados de los circuit breakers y el pool de Hikari los publican sus propios binders.
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ycr.msreserva.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// Scheduler acotado donde POST /reservas/reactiva hace el trabajo bloqueante (lock de la habitación y JDBC).
+// Tiene tantos hilos como conexiones el pool de Hikari, así no hay hilos esperando conexión, y una cola para absorber
+// picos; si se llena, la reserva se rechaza con 503 en lugar de acumular memoria.
+@Configuration
+public class PersistenciaReactivaConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler persistenciaScheduler(
+            @Value("${reservas.reactivo.persistencia.hilos:${spring.datasource.hikari.maximum-pool-size:10}}") int hilos,
+            @Value("${reservas.reactivo.persistencia.cola:10000}") int cola) {
+        return Schedulers.newBoundedElastic(hilos, cola, "reservas-persistencia");
+    }
+}
@@ -0,0 +1,103 @@
+package com.ycr.msreserva.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// En modo de hilos virtuales escucha el evento JFR jdk.VirtualThreadPinned: un hilo virtual que se bloquea dentro
+// de un synchronized (p. ej. en el driver JDBC) retiene su hilo portador y reduce la concurrencia real.
+// Cada bloqueo que supera el umbral se cuenta en reservas.hilos.virtuales.pinning, etiquetado por el primer marco
+// de código propio o de librería que lo causó; la primera vez que aparece un marco se escribe la pila en el log.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinningHilosVirtuales {
+
+    private static final Logger log = LoggerFactory.getLogger(PinningHilosVirtuales.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration umbral;
+    private final Set<String> origenesVistos = ConcurrentHashMap.newKeySet();
+    private RecordingStream grabacion;
+
+    public PinningHilosVirtuales(MeterRegistry meterRegistry,
+                                 @Value("${reservas.virtual.pinning-umbral:20ms}") Duration umbral) {
+        this.meterRegistry = meterRegistry;
+        this.umbral = umbral;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        grabacion = new RecordingStream();
+        grabacion.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        grabacion.onEvent(EVENTO, this::registrar);
+        grabacion.startAsync();
+        log.info("Diagnóstico de pinning de hilos virtuales activo (umbral {})", umbral);
+    }
+
+    private void registrar(RecordedEvent evento) {
+        String origen = origen(evento.getStackTrace());
+        Counter.builder("reservas.hilos.virtuales.pinning")
+                .description("Hilos virtuales que retuvieron su hilo portador más allá del umbral")
+                .tag("origen", origen)
+                .register(meterRegistry)
+                .increment();
+        Timer.builder("reservas.hilos.virtuales.pinning.duracion")
+                .register(meterRegistry)
+                .record(evento.getDuration());
+        if (origenesVistos.add(origen)) {
+            log.warn("Hilo virtual fijado a su portador durante {} ms en {}:\n{}",
+                    evento.getDuration().toMillis(), origen, pila(evento.getStackTrace()));
+        }
+    }
+
+    // Primer marco fuera del JDK: es el que tiene el synchronized o la llamada nativa que fija el hilo
+    private static String origen(RecordedStackTrace pila) {
+        if (pila == null) {
+            return "desconocido";
+        }
+        for (RecordedFrame marco : pila.getFrames()) {
+            String clase = marco.getMethod().getType().getName();
+            if (!clase.startsWith("java.") && !clase.startsWith("jdk.") && !clase.startsWith("sun.")) {
+                return clase + "." + marco.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+
+    private static String pila(RecordedStackTrace pila) {
+        if (pila == null) {
+            return "\t(sin pila)";
+        }
+        StringBuilder texto = new StringBuilder();
+        for (RecordedFrame marco : pila.getFrames()) {
+            texto.append("\tat ").append(marco.getMethod().getType().getName()).append('.')
+                    .append(marco.getMethod().getName()).append(':').append(marco.getLineNumber()).append('\n');
+        }
+        return texto.toString();
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (grabacion != null) {
+            grabacion.close();
+        }
+    }
+}
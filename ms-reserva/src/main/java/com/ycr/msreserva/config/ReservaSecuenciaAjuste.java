@@ -0,0 +1,31 @@
+package com.ycr.msreserva.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// En MySQL, Hibernate emula la secuencia reservas_seq con una tabla que arranca en 1.
+// Las reservas creadas antes con AUTO_INCREMENT ya ocupan esos ids, así que al arrancar se
+// adelanta la secuencia por encima del mayor id existente (más un bloque de asignación).
+@Component
+public class ReservaSecuenciaAjuste implements SmartInitializingSingleton {
+
+    private static final int BLOQUE_ASIGNACION = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Integer tablas = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables " +
+                        "WHERE table_schema = DATABASE() AND LOWER(table_name) = 'reservas_seq'",
+                Integer.class);
+        if (tablas == null || tablas == 0) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE reservas_seq SET next_val = GREATEST(next_val, " +
+                "(SELECT COALESCE(MAX(id_reserva), 0) + ? FROM reservas))", BLOQUE_ASIGNACION + 1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ycr.msreserva.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Future;
+
+// Un único hilo aplica los deltas del resumen diario: las filas (fecha, tipo) más reservadas no compiten
+// entre sí y el hilo de la reserva no pide una segunda conexión mientras aún tiene la suya.
+// Si la cola se llena se descarta el delta; la reconstrucción nocturna lo recupera.
+@Configuration
+public class ResumenExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumenExecutorConfig.class);
+
+    @Bean
+    public ThreadPoolTaskExecutor resumenExecutor(@Value("${reservas.resumen.cola:10000}") int cola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("resumen-");
+        executor.setRejectedExecutionHandler((tarea, pool) -> {
+            // Una reconstrucción rechazada se cancela para que quien la espera no se quede bloqueado
+            if (tarea instanceof Future<?> futura) {
+                futura.cancel(false);
+                log.warn("Cola del resumen diario llena, se rechaza la reconstrucción");
+            } else {
+                log.warn("Cola del resumen diario llena, se descarta un delta hasta la próxima reconstrucción");
+            }
+        });
+        executor.initialize();
+        return executor;
+    }
+}
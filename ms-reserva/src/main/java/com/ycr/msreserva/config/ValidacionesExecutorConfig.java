@@ -0,0 +1,45 @@
+package com.ycr.msreserva.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Pool acotado para lanzar en paralelo las validaciones remotas (ms-cliente y ms-habitacion).
+// Si se llena, la llamada se ejecuta en el hilo de la petición en lugar de fallar.
+@Configuration
+public class ValidacionesExecutorConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor validacionesExecutor(
+            @Value("${reservas.validaciones.hilos:32}") int hilos,
+            @Value("${reservas.validaciones.cola:200}") int cola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("validaciones-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Con hilos virtuales (Java 21 y spring.threads.virtual.enabled) cada validación usa su propio hilo virtual;
+    // el límite de concurrencia frena a quien lanza la llamada en vez de encolarla, igual que CallerRunsPolicy
+    @Bean(name = "validacionesExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor validacionesExecutorVirtual(
+            @Value("${reservas.validaciones.concurrencia-virtual:512}") int concurrencia) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("validaciones-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencia);
+        return executor;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ycr.msreserva.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Una habitación de la rejilla. "tramos" son longitudes alternas empezando por días libres:
+// [2, 3, 55] = 2 días libres, 3 ocupados y 55 libres. tipo es null si la habitación no está en el catálogo.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FilaRejillaDTO {
+    private Long idHabitacion;
+    private String tipo;
+    private int[] tramos;
+}
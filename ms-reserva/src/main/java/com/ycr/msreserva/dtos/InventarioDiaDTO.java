@@ -0,0 +1,19 @@
+package com.ycr.msreserva.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Inventario de un tipo de habitación en una noche: habitaciones del catálogo, ocupadas por reservas activas y libres
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventarioDiaDTO {
+    private LocalDate fecha;
+    private String tipo;
+    private int total;
+    private int ocupadas;
+    private int libres;
+}
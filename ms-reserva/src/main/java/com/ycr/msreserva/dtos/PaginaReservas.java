@@ -0,0 +1,18 @@
+package com.ycr.msreserva.dtos;
+
+import com.ycr.msreserva.Entity.Reserva;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Página de un listado de reservas. siguienteCursor es null en la última página;
+// si no, se pasa tal cual en ?cursor= para pedir la siguiente.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaReservas {
+    private List<Reserva> reservas;
+    private String siguienteCursor;
+}
@@ -0,0 +1,18 @@
+package com.ycr.msreserva.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Ocupación habitación × día desde "desde" durante "dias" días, una fila por habitación ordenada por id
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RejillaDisponibilidadDTO {
+    private LocalDate desde;
+    private int dias;
+    private List<FilaRejillaDTO> filas;
+}
@@ -0,0 +1,25 @@
+package com.ycr.msreserva.dtos;
+
+import com.ycr.msreserva.Entity.Reserva;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de cada elemento de POST /reservas/batch, en el mismo orden en que llegaron
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservaLoteResultado {
+    private int indice;
+    private boolean exitosa;
+    private Reserva reserva;
+    private String error;
+
+    public static ReservaLoteResultado exito(int indice, Reserva reserva) {
+        return new ReservaLoteResultado(indice, true, reserva, null);
+    }
+
+    public static ReservaLoteResultado fallo(int indice, String error) {
+        return new ReservaLoteResultado(indice, false, null, error);
+    }
+}
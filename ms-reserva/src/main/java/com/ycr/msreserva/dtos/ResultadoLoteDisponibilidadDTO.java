@@ -0,0 +1,11 @@
+package com.ycr.msreserva.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ResultadoLoteDisponibilidadDTO {
+    private List<Long> actualizadas;
+    private List<Long> noEncontradas;
+}
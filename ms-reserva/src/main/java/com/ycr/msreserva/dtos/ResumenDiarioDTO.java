@@ -0,0 +1,20 @@
+package com.ycr.msreserva.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Fila de GET /reservas/analitica/diaria; tipoHabitacion es null en los totales de todos los tipos
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumenDiarioDTO {
+    private LocalDate fecha;
+    private String tipoHabitacion;
+    private Long habitacionesOcupadas;
+    private Long nochesVendidas;
+    private Double ingresos;
+    private Long cancelaciones;
+}
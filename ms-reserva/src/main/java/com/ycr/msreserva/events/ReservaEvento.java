@@ -0,0 +1,39 @@
+package com.ycr.msreserva.events;
+
+import com.ycr.msreserva.Entity.Reserva;
+import lombok.Getter;
+
+// Evento publicado por ReservaService cada vez que una reserva se crea, se modifica o se elimina.
+// Lleva una copia del estado anterior (null si es nueva) y del estado actual (null si se eliminó),
+// para que los listeners que corren después del commit no dependan de la entidad administrada.
+@Getter
+public class ReservaEvento {
+
+    private final Reserva anterior;
+    private final Reserva actual;
+
+    public ReservaEvento(Reserva anterior, Reserva actual) {
+        this.anterior = copiar(anterior);
+        this.actual = copiar(actual);
+    }
+
+    public Long getIdReserva() {
+        return actual != null ? actual.getIdReserva() : anterior.getIdReserva();
+    }
+
+    public static Reserva copiar(Reserva reserva) {
+        if (reserva == null) {
+            return null;
+        }
+        return Reserva.builder()
+                .idReserva(reserva.getIdReserva())
+                .idCliente(reserva.getIdCliente())
+                .idHabitacion(reserva.getIdHabitacion())
+                .fechaInicio(reserva.getFechaInicio())
+                .fechaFin(reserva.getFechaFin())
+                .montoTotal(reserva.getMontoTotal())
+                .estado(reserva.getEstado())
+                .fechaCreacion(reserva.getFechaCreacion())
+                .build();
+    }
+}
@@ -1,11 +1,17 @@
 package com.ycr.msreserva.feign;
 
 import com.ycr.msreserva.dtos.ClienteDTO;
+import feign.FeignException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "ms-cliente", path = "/clientes")
 public interface ClienteFeign {
@@ -20,9 +26,21 @@ public interface ClienteFeign {
         dto.setApellido("Desconocido");
         dto.setDni("00000000");
         dto.setCorreo("sin_correo@fallback.com");
-        System.err.println("⚠️ CircuitBreaker: ms-cliente no disponible (ID: " + id + ")");
+        FallbackRemoto.registrar("ms-cliente no disponible (ID: " + id + ")", e);
         return ResponseEntity.ok(dto);
     }
+    // Un 404 no es una falla del servicio: se devuelve tal cual para poder distinguir "no existe" de "no disponible"
+    default ResponseEntity<ClienteDTO> fallbackClientePorId(Long id, FeignException.NotFound e) {
+        return ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/por-ids")
+    @CircuitBreaker(name = "clientesPorIdsCB", fallbackMethod = "fallbackClientesPorIds")
+    ResponseEntity<List<ClienteDTO>> obtenerClientesPorIds(@RequestBody List<Long> ids);
+    default ResponseEntity<List<ClienteDTO>> fallbackClientesPorIds(List<Long> ids, Exception e) {
+        FallbackRemoto.registrar("ms-cliente no disponible (IDs: " + ids + ")", e);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
 
     @GetMapping("/dni/{dni}")
     @CircuitBreaker(name = "clientePorDniCB", fallbackMethod = "fallbackClientePorDni")
@@ -34,7 +52,7 @@ public interface ClienteFeign {
         dto.setApellido("Desconocido");
         dto.setDni(dni);
         dto.setCorreo("sin_correo@fallback.com");
-        System.err.println("⚠️ CircuitBreaker: ms-cliente no disponible (DNI: " + dni + ")");
+        FallbackRemoto.registrar("ms-cliente no disponible (DNI: " + dni + ")", e);
         return ResponseEntity.ok(dto);
     }
 }
@@ -0,0 +1,31 @@
+package com.ycr.msreserva.feign;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Registro común de los fallbacks de ClienteFeign y HabitacionFeign.
+// Deja constancia en el log y marca el hilo para que FeignMetricasAspect etiquete la llamada con fallback=true;
+// el circuit breaker invoca el fallback en el mismo hilo que hizo la llamada.
+final class FallbackRemoto {
+
+    private static final Logger log = LoggerFactory.getLogger(FallbackRemoto.class);
+    private static final ThreadLocal<Boolean> ACTIVADO = new ThreadLocal<>();
+
+    private FallbackRemoto() {
+    }
+
+    static void registrar(String detalle, Throwable e) {
+        ACTIVADO.set(Boolean.TRUE);
+        log.warn("CircuitBreaker: {} ({})", detalle, e.toString());
+    }
+
+    static void reiniciar() {
+        ACTIVADO.remove();
+    }
+
+    static boolean consumir() {
+        boolean activado = ACTIVADO.get() != null;
+        ACTIVADO.remove();
+        return activado;
+    }
+}
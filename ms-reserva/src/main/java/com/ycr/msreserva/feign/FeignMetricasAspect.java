@@ -0,0 +1,74 @@
+package com.ycr.msreserva.feign;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+// Mide cada llamada de ClienteFeign y HabitacionFeign en el timer reservas.remoto.
+// Se ejecuta por fuera del aspecto del circuit breaker, así la latencia incluye el fallback y la etiqueta
+// fallback distingue una respuesta real de una sustituta. outcome sigue la convención de http.client.requests.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FeignMetricasAspect {
+
+    static final String TIMER = "reservas.remoto";
+
+    private final MeterRegistry meterRegistry;
+
+    public FeignMetricasAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.ycr.msreserva.feign.ClienteFeign.*(..)) || execution(* com.ycr.msreserva.feign.HabitacionFeign.*(..))")
+    public Object medir(ProceedingJoinPoint punto) throws Throwable {
+        MethodSignature firma = (MethodSignature) punto.getSignature();
+        if (firma.getMethod().isDefault()) {
+            return punto.proceed();
+        }
+        FallbackRemoto.reiniciar();
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String outcome = "UNKNOWN";
+        String excepcion = "none";
+        try {
+            Object resultado = punto.proceed();
+            if (resultado instanceof ResponseEntity<?> respuesta) {
+                outcome = outcome(respuesta.getStatusCode().value());
+            }
+            return resultado;
+        } catch (Throwable e) {
+            outcome = "ERROR";
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            muestra.stop(Timer.builder(TIMER)
+                    .description("Llamadas a ms-cliente y ms-habitacion")
+                    .tag("cliente", firma.getDeclaringType().getSimpleName())
+                    .tag("metodo", firma.getName())
+                    .tag("outcome", outcome)
+                    .tag("fallback", String.valueOf(FallbackRemoto.consumir()))
+                    .tag("exception", excepcion)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String outcome(int estado) {
+        if (estado >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (estado >= 400) {
+            return "CLIENT_ERROR";
+        }
+        if (estado >= 300) {
+            return "REDIRECTION";
+        }
+        return "SUCCESS";
+    }
+}
@@ -1,14 +1,22 @@
 package com.ycr.msreserva.feign;
 
+import com.ycr.msreserva.dtos.CambioDisponibilidadDTO;
 import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.dtos.ResultadoLoteDisponibilidadDTO;
+import feign.FeignException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "ms-habitacion", path = "/habitaciones")
 public interface HabitacionFeign {
 
@@ -21,9 +29,29 @@ public interface HabitacionFeign {
         dto.setNumero("Desconocido");
         dto.setTipo("Indefinido");
         dto.setDisponible(false);
-        System.err.println("CircuitBreaker: ms-habitaciones no disponible (ID: " + id + ")");
+        FallbackRemoto.registrar("ms-habitaciones no disponible (ID: " + id + ")", e);
         return ResponseEntity.ok(dto);
     }
+    // Igual que en ClienteFeign: un 404 se devuelve tal cual para distinguir "no existe" de "no disponible"
+    default ResponseEntity<HabitacionDTO> fallbackHabitacionPorId(Long id, FeignException.NotFound e) {
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping
+    @CircuitBreaker(name = "habitacionesTodasCB", fallbackMethod = "fallbackTodasLasHabitaciones")
+    ResponseEntity<List<HabitacionDTO>> obtenerTodasLasHabitaciones();
+    default ResponseEntity<List<HabitacionDTO>> fallbackTodasLasHabitaciones(Exception e) {
+        FallbackRemoto.registrar("ms-habitaciones no disponible (catálogo completo)", e);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    @PostMapping("/por-ids")
+    @CircuitBreaker(name = "habitacionesPorIdsCB", fallbackMethod = "fallbackHabitacionesPorIds")
+    ResponseEntity<List<HabitacionDTO>> obtenerHabitacionesPorIds(@RequestBody List<Long> ids);
+    default ResponseEntity<List<HabitacionDTO>> fallbackHabitacionesPorIds(List<Long> ids, Exception e) {
+        FallbackRemoto.registrar("ms-habitaciones no disponible (IDs: " + ids + ")", e);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
 
     @GetMapping("/numero/{numero}")
     @CircuitBreaker(name = "habitacionPorNumeroCB", fallbackMethod = "fallbackHabitacionPorNumero")
@@ -34,10 +62,18 @@ public interface HabitacionFeign {
         dto.setNumero("Desconocido");
         dto.setTipo("Indefinido");
         dto.setDisponible(false);
-        System.err.println("CircuitBreaker: ms-habitaciones no disponible (Numero: "+ numero  + ")");
+        FallbackRemoto.registrar("ms-habitaciones no disponible (Numero: "+ numero  + ")", e);
         return ResponseEntity.ok(dto);
     }
 
+    @PostMapping("/disponibilidad/lote")
+    @CircuitBreaker(name = "cambiarDisponibilidadLoteCB", fallbackMethod = "fallbackCambiarDisponibilidadLote")
+    ResponseEntity<ResultadoLoteDisponibilidadDTO> cambiarDisponibilidadLote(@RequestBody List<CambioDisponibilidadDTO> cambios);
+    default ResponseEntity<ResultadoLoteDisponibilidadDTO> fallbackCambiarDisponibilidadLote(List<CambioDisponibilidadDTO> cambios, Exception e) {
+        FallbackRemoto.registrar("ms-habitaciones no disponible (cambio de disponibilidad de " + cambios.size() + " habitaciones)", e);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
     @PatchMapping("/{id}/disponibilidad")
     @CircuitBreaker(name = "cambiarDisponibilidadCB", fallbackMethod = "fallbackCambiarDisponibilidad")
     ResponseEntity<HabitacionDTO> cambiarDisponibilidad(
@@ -50,7 +86,7 @@ public interface HabitacionFeign {
         dto.setNumero("Desconocido");
         dto.setTipo("Indefinido");
         dto.setDisponible(false);
-        System.err.println("CircuitBreaker: ms-habitaciones no disponible (ID: "+ id + ", Disponible: " + disponible + ")");
+        FallbackRemoto.registrar("ms-habitaciones no disponible (ID: "+ id + ", Disponible: " + disponible + ")", e);
         return ResponseEntity.ok(dto);
     }
 }
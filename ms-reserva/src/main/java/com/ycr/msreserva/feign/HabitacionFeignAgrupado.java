@@ -0,0 +1,126 @@
+package com.ycr.msreserva.feign;
+
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Agrupa las consultas individuales de habitaciones al estilo DataLoader: los ids que se piden a la vez dentro de una
+// ventana corta (o hasta juntar "maximo") salen en una sola llamada POST /habitaciones/por-ids, y cada llamador recibe
+// lo mismo que le habría dado obtenerHabitacionPorId: 200 con la habitación, 404 si ms-habitacion no la devolvió,
+// o el estado de error de la llamada en bloque (503 si el circuit breaker respondió con el fallback).
+// Un mismo id pedido varias veces en la ventana se consulta una sola vez.
+@Component
+public class HabitacionFeignAgrupado {
+
+    private final HabitacionFeign habitacionFeign;
+    private final long ventanaNanos;
+    private final int maximo;
+    private final ScheduledExecutorService despachador;
+
+    // Lote en formación; se reemplaza entero al despacharlo
+    private Map<Long, CompletableFuture<ResponseEntity<HabitacionDTO>>> pendientes = new LinkedHashMap<>();
+
+    public HabitacionFeignAgrupado(HabitacionFeign habitacionFeign,
+                                   @Value("${reservas.habitaciones.agrupacion.ventana:5ms}") Duration ventana,
+                                   @Value("${reservas.habitaciones.agrupacion.maximo:100}") int maximo,
+                                   @Value("${reservas.habitaciones.agrupacion.hilos:4}") int hilos) {
+        this.habitacionFeign = habitacionFeign;
+        this.ventanaNanos = ventana.toNanos();
+        this.maximo = maximo;
+        AtomicInteger contador = new AtomicInteger();
+        this.despachador = Executors.newScheduledThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "habitaciones-agrupadas-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    public ResponseEntity<HabitacionDTO> obtenerHabitacionPorId(Long id) {
+        try {
+            return cargar(id).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<ResponseEntity<HabitacionDTO>> cargar(Long id) {
+        CompletableFuture<ResponseEntity<HabitacionDTO>> futuro;
+        Map<Long, CompletableFuture<ResponseEntity<HabitacionDTO>>> lleno = null;
+        synchronized (this) {
+            futuro = pendientes.get(id);
+            if (futuro != null) {
+                return futuro;
+            }
+            futuro = new CompletableFuture<>();
+            pendientes.put(id, futuro);
+            if (pendientes.size() == 1) {
+                Map<Long, CompletableFuture<ResponseEntity<HabitacionDTO>>> lote = pendientes;
+                despachador.schedule(() -> despacharSiSigue(lote), ventanaNanos, TimeUnit.NANOSECONDS);
+            }
+            if (pendientes.size() >= maximo) {
+                lleno = pendientes;
+                pendientes = new LinkedHashMap<>();
+            }
+        }
+        if (lleno != null) {
+            Map<Long, CompletableFuture<ResponseEntity<HabitacionDTO>>> lote = lleno;
+            despachador.execute(() -> despachar(lote));
+        }
+        return futuro;
+    }
+
+    // Al vencer la ventana el lote puede haberse despachado ya por llenarse
+    private void despacharSiSigue(Map<Long, CompletableFuture<ResponseEntity<HabitacionDTO>>> lote) {
+        synchronized (this) {
+            if (pendientes != lote) {
+                return;
+            }
+            pendientes = new LinkedHashMap<>();
+        }
+        despachar(lote);
+    }
+
+    private void despachar(Map<Long, CompletableFuture<ResponseEntity<HabitacionDTO>>> lote) {
+        try {
+            ResponseEntity<List<HabitacionDTO>> response = habitacionFeign.obtenerHabitacionesPorIds(new ArrayList<>(lote.keySet()));
+            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                ResponseEntity<HabitacionDTO> error = ResponseEntity.status(response.getStatusCode()).build();
+                lote.values().forEach(futuro -> futuro.complete(error));
+                return;
+            }
+            Map<Long, HabitacionDTO> porId = new HashMap<>();
+            for (HabitacionDTO habitacion : response.getBody()) {
+                porId.put(habitacion.getIdHabitacion(), habitacion);
+            }
+            lote.forEach((id, futuro) -> {
+                HabitacionDTO habitacion = porId.get(id);
+                futuro.complete(habitacion != null ? ResponseEntity.ok(habitacion) : ResponseEntity.notFound().build());
+            });
+        } catch (RuntimeException e) {
+            lote.values().forEach(futuro -> futuro.completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        despachador.shutdownNow();
+    }
+}
@@ -0,0 +1,191 @@
+package com.ycr.msreserva.index;
+
+import com.ycr.msreserva.dtos.InventarioDiaDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Contadores de habitaciones ocupadas por (tipo, día) sobre la misma ventana que OcupacionBitmap, más el total de
+// habitaciones de cada tipo sacado del catálogo de ms-habitacion. Una habitación cuenta como ocupada un día si
+// OcupacionBitmap la marca ese día, así que el inventario coincide con lo que acepta la validación de disponibilidad.
+// Cada habitación guarda los días con los que contribuye: al cambiar sus rangos solo se suman y restan las
+// diferencias, bajo el mismo bloqueo, y consultar una noche es leer un contador.
+@Component
+public class InventarioPorTipo {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> tipoPorHabitacion = new HashMap<>();
+    private final Map<String, Integer> totales = new TreeMap<>();
+    private final Map<String, int[]> ocupadas = new HashMap<>();
+    private final Map<Long, BitSet> contribuciones = new HashMap<>();
+    private LocalDate origen;
+    private int dias;
+    private volatile boolean listo = false;
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    public static String normalizarTipo(String tipo) {
+        return tipo == null || tipo.isBlank() ? null : tipo.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Vaciar y recalcular desde cero: totales a partir del catálogo (id de habitación -> tipo) y ocupación a partir
+    // de los rangos activos de cada habitación. Los rangos se leen con el bloqueo tomado para que un cambio
+    // concurrente se aplique antes o después de la reconstrucción, nunca a medias.
+    public void reconstruir(LocalDate origen, int dias, Map<Long, String> catalogo,
+                            Collection<Long> habitacionesConReservas, Function<Long, List<RangoFechas>> rangos) {
+        lock.writeLock().lock();
+        try {
+            this.origen = origen;
+            this.dias = dias;
+            tipoPorHabitacion.clear();
+            totales.clear();
+            ocupadas.clear();
+            contribuciones.clear();
+            catalogo.forEach(this::registrar);
+            for (Long idHabitacion : habitacionesConReservas) {
+                aplicar(idHabitacion, rangos.apply(idHabitacion));
+            }
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean conoceHabitacion(Long idHabitacion) {
+        lock.readLock().lock();
+        try {
+            return tipoPorHabitacion.containsKey(idHabitacion);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Habitación que no estaba en el catálogo al cargarlo (creada después)
+    public void registrarHabitacion(Long idHabitacion, String tipo) {
+        registrarHabitacion(idHabitacion, tipo, id -> List.of());
+    }
+
+    // Igual, sumando ya sus rangos activos; se leen con el bloqueo tomado, como en reconstruir
+    public void registrarHabitacion(Long idHabitacion, String tipo, Function<Long, List<RangoFechas>> rangos) {
+        lock.writeLock().lock();
+        try {
+            if (listo && !tipoPorHabitacion.containsKey(idHabitacion)) {
+                registrar(idHabitacion, tipo);
+                aplicar(idHabitacion, rangos.apply(idHabitacion));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Sustituir la contribución de una habitación por la de sus rangos activos actuales
+    public void actualizarHabitacion(Long idHabitacion, List<RangoFechas> rangos) {
+        lock.writeLock().lock();
+        try {
+            if (listo) {
+                aplicar(idHabitacion, rangos);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Una fila por noche en [desde, hasta] y por tipo (o solo del tipo indicado)
+    public List<InventarioDiaDTO> consultar(LocalDate desde, LocalDate hasta, String tipo) {
+        if (!listo) {
+            throw new IllegalStateException("El inventario todavía no se ha cargado");
+        }
+        String clave = normalizarTipo(tipo);
+        lock.readLock().lock();
+        try {
+            long primero = ChronoUnit.DAYS.between(origen, desde);
+            long ultimo = ChronoUnit.DAYS.between(origen, hasta);
+            if (primero < 0 || ultimo >= dias) {
+                throw new RuntimeException("El rango debe estar entre " + origen + " y " + origen.plusDays(dias - 1L));
+            }
+            List<String> tipos = clave == null ? new ArrayList<>(totales.keySet()) : List.of(clave);
+            List<InventarioDiaDTO> resultado = new ArrayList<>((int) (ultimo - primero + 1) * tipos.size());
+            for (long dia = primero; dia <= ultimo; dia++) {
+                LocalDate fecha = origen.plusDays(dia);
+                for (String t : tipos) {
+                    int total = totales.getOrDefault(t, 0);
+                    int[] contador = ocupadas.get(t);
+                    int ocupadasDia = contador == null ? 0 : contador[(int) dia];
+                    resultado.add(new InventarioDiaDTO(fecha, t, total, ocupadasDia, Math.max(0, total - ocupadasDia)));
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Habitaciones del catálogo (id -> tipo normalizado) ordenadas por id, todas o solo las del tipo indicado
+    public Map<Long, String> habitaciones(String tipo) {
+        if (!listo) {
+            throw new IllegalStateException("El inventario todavía no se ha cargado");
+        }
+        String clave = normalizarTipo(tipo);
+        lock.readLock().lock();
+        try {
+            Map<Long, String> resultado = new TreeMap<>();
+            tipoPorHabitacion.forEach((idHabitacion, t) -> {
+                if (clave == null || clave.equals(t)) {
+                    resultado.put(idHabitacion, t);
+                }
+            });
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void registrar(Long idHabitacion, String tipo) {
+        String clave = normalizarTipo(tipo);
+        if (clave == null) {
+            return;
+        }
+        tipoPorHabitacion.put(idHabitacion, clave);
+        totales.merge(clave, 1, Integer::sum);
+    }
+
+    private void aplicar(Long idHabitacion, List<RangoFechas> rangos) {
+        String tipo = tipoPorHabitacion.get(idHabitacion);
+        if (tipo == null) {
+            return;
+        }
+        BitSet nuevos = new BitSet(dias);
+        for (RangoFechas rango : rangos) {
+            long desde = Math.max(0, ChronoUnit.DAYS.between(origen, rango.inicio()));
+            long hasta = Math.min(dias - 1L, ChronoUnit.DAYS.between(origen, rango.fin()));
+            if (desde <= hasta) {
+                nuevos.set((int) desde, (int) hasta + 1);
+            }
+        }
+        BitSet anteriores = contribuciones.getOrDefault(idHabitacion, new BitSet());
+        int[] contador = ocupadas.computeIfAbsent(tipo, t -> new int[dias]);
+        BitSet cambios = (BitSet) anteriores.clone();
+        cambios.xor(nuevos);
+        for (int dia = cambios.nextSetBit(0); dia >= 0; dia = cambios.nextSetBit(dia + 1)) {
+            contador[dia] += nuevos.get(dia) ? 1 : -1;
+        }
+        if (nuevos.isEmpty()) {
+            contribuciones.remove(idHabitacion);
+        } else {
+            contribuciones.put(idHabitacion, nuevos);
+        }
+    }
+}
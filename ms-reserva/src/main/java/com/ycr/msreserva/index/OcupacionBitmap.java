@@ -0,0 +1,217 @@
+package com.ycr.msreserva.index;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Matriz de ocupación habitación × día guardada como bits en un único long[] plano.
+// Cada fila es una habitación y cada bit un día a partir de "origen", dentro de una ventana fija.
+// Se deriva de ReservaIntervalIndex: cada vez que cambia una habitación se vuelve a pintar su fila.
+@Component
+public class OcupacionBitmap {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> filas = new HashMap<>();
+    private LocalDate origen;
+    private int dias;
+    private int palabrasPorFila;
+    private long[] bits = new long[0];
+    private volatile boolean listo = false;
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    // Vaciar la matriz y fijar una nueva ventana [origen, origen + dias)
+    public void reiniciar(LocalDate origen, int dias) {
+        reiniciar(origen, dias, List.of(), idHabitacion -> List.of());
+    }
+
+    // Fijar una nueva ventana [origen, origen + dias) pintada con los rangos de las habitaciones indicadas.
+    // La matriz nueva se construye aparte y sustituye a la anterior en la misma adquisición del bloqueo: las
+    // consultas ven la matriz vieja completa o la nueva completa, nunca una a medio pintar. Los rangos se leen con
+    // el bloqueo tomado para que un actualizarFila concurrente se aplique antes o después, no sobre la matriz vieja.
+    public void reiniciar(LocalDate origen, int dias, Collection<Long> habitaciones,
+                          Function<Long, List<RangoFechas>> rangos) {
+        int nuevasPalabrasPorFila = (dias + 63) >>> 6;
+        lock.writeLock().lock();
+        try {
+            Map<Long, Integer> nuevasFilas = new HashMap<>();
+            long[] nuevosBits = new long[nuevasPalabrasPorFila * Math.max(64, habitaciones.size())];
+            for (Long idHabitacion : habitaciones) {
+                int base = nuevasFilas.size() * nuevasPalabrasPorFila;
+                boolean ocupada = false;
+                for (RangoFechas rango : rangos.apply(idHabitacion)) {
+                    long desde = Math.max(0, ChronoUnit.DAYS.between(origen, rango.inicio()));
+                    long hasta = Math.min(dias - 1L, ChronoUnit.DAYS.between(origen, rango.fin()));
+                    if (desde <= hasta) {
+                        marcar(nuevosBits, base, (int) desde, (int) hasta);
+                        ocupada = true;
+                    }
+                }
+                if (ocupada) {
+                    nuevasFilas.put(idHabitacion, nuevasFilas.size());
+                }
+            }
+            this.origen = origen;
+            this.dias = dias;
+            this.palabrasPorFila = nuevasPalabrasPorFila;
+            this.filas.clear();
+            this.filas.putAll(nuevasFilas);
+            this.bits = nuevosBits;
+            this.listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Indica si el rango completo cae dentro de la ventana de la matriz
+    public boolean cubre(LocalDate fechaInicio, LocalDate fechaFin) {
+        lock.readLock().lock();
+        try {
+            return listo && !fechaInicio.isBefore(origen) && !fechaInicio.isAfter(fechaFin)
+                    && ChronoUnit.DAYS.between(origen, fechaFin) < dias;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Volver a pintar la fila de una habitación con sus rangos activos
+    public void actualizarFila(Long idHabitacion, List<RangoFechas> rangos) {
+        lock.writeLock().lock();
+        try {
+            if (!listo) {
+                return;
+            }
+            Integer fila = filas.get(idHabitacion);
+            if (fila == null) {
+                if (rangos.isEmpty()) {
+                    return;
+                }
+                fila = filas.size();
+                int necesarias = (fila + 1) * palabrasPorFila;
+                if (necesarias > bits.length) {
+                    bits = Arrays.copyOf(bits, Math.max(necesarias, bits.length * 2));
+                }
+                filas.put(idHabitacion, fila);
+            }
+            int base = fila * palabrasPorFila;
+            Arrays.fill(bits, base, base + palabrasPorFila, 0L);
+            for (RangoFechas rango : rangos) {
+                long desde = Math.max(0, ChronoUnit.DAYS.between(origen, rango.inicio()));
+                long hasta = Math.min(dias - 1L, ChronoUnit.DAYS.between(origen, rango.fin()));
+                if (desde <= hasta) {
+                    marcar(bits, base, (int) desde, (int) hasta);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Devolver, de las habitaciones indicadas, las que no tienen ningún día ocupado en [fechaInicio, fechaFin].
+    // Vacío si el rango no cae completo dentro de la ventana de la matriz.
+    public Optional<List<Long>> filtrarLibres(Collection<Long> idsHabitacion, LocalDate fechaInicio, LocalDate fechaFin) {
+        List<Long> libres = new ArrayList<>(idsHabitacion.size());
+        lock.readLock().lock();
+        try {
+            if (!cubre(fechaInicio, fechaFin)) {
+                return Optional.empty();
+            }
+            int desde = (int) ChronoUnit.DAYS.between(origen, fechaInicio);
+            int hasta = (int) ChronoUnit.DAYS.between(origen, fechaFin);
+            for (Long idHabitacion : idsHabitacion) {
+                Integer fila = filas.get(idHabitacion);
+                if (fila == null || !hayBits(fila * palabrasPorFila, desde, hasta)) {
+                    libres.add(idHabitacion);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(libres);
+    }
+
+    // Copiar las filas con algún día ocupado en [desde, desde + dias), con el bit 0 en "desde".
+    // Vacío si el rango no cae completo dentro de la ventana de la matriz.
+    public Optional<Map<Long, BitSet>> extraerFilas(LocalDate desde, int dias) {
+        Map<Long, BitSet> resultado = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            if (!cubre(desde, desde.plusDays(dias - 1L))) {
+                return Optional.empty();
+            }
+            int inicio = (int) ChronoUnit.DAYS.between(origen, desde);
+            long[] palabras = new long[(dias + 63) >>> 6];
+            for (Map.Entry<Long, Integer> fila : filas.entrySet()) {
+                int base = fila.getValue() * palabrasPorFila;
+                for (int k = 0; k < palabras.length; k++) {
+                    int bit = inicio + (k << 6);
+                    int palabra = bit >>> 6;
+                    int desplazamiento = bit & 63;
+                    long valor = bits[base + palabra] >>> desplazamiento;
+                    if (desplazamiento != 0 && palabra + 1 < palabrasPorFila) {
+                        valor |= bits[base + palabra + 1] << (64 - desplazamiento);
+                    }
+                    palabras[k] = valor;
+                }
+                if ((dias & 63) != 0) {
+                    palabras[palabras.length - 1] &= -1L >>> (64 - (dias & 63));
+                }
+                BitSet ocupacion = BitSet.valueOf(palabras);
+                if (!ocupacion.isEmpty()) {
+                    resultado.put(fila.getKey(), ocupacion);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(resultado);
+    }
+
+    private static void marcar(long[] bits, int base, int desde, int hasta) {
+        int primera = desde >>> 6;
+        int ultima = hasta >>> 6;
+        long mascaraInicio = -1L << (desde & 63);
+        long mascaraFin = -1L >>> (63 - (hasta & 63));
+        if (primera == ultima) {
+            bits[base + primera] |= mascaraInicio & mascaraFin;
+            return;
+        }
+        bits[base + primera] |= mascaraInicio;
+        for (int i = primera + 1; i < ultima; i++) {
+            bits[base + i] = -1L;
+        }
+        bits[base + ultima] |= mascaraFin;
+    }
+
+    private boolean hayBits(int base, int desde, int hasta) {
+        int primera = desde >>> 6;
+        int ultima = hasta >>> 6;
+        long mascaraInicio = -1L << (desde & 63);
+        long mascaraFin = -1L >>> (63 - (hasta & 63));
+        if (primera == ultima) {
+            return (bits[base + primera] & mascaraInicio & mascaraFin) != 0;
+        }
+        if ((bits[base + primera] & mascaraInicio) != 0 || (bits[base + ultima] & mascaraFin) != 0) {
+            return true;
+        }
+        for (int i = primera + 1; i < ultima; i++) {
+            if (bits[base + i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ycr.msreserva.index;
+
+import java.time.LocalDate;
+
+// Rango de fechas ocupado por una reserva activa, con ambos extremos incluidos
+public record RangoFechas(LocalDate inicio, LocalDate fin) {
+}
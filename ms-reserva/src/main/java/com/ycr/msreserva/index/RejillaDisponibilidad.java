@@ -0,0 +1,96 @@
+package com.ycr.msreserva.index;
+
+import com.ycr.msreserva.dtos.FilaRejillaDTO;
+import com.ycr.msreserva.dtos.RejillaDisponibilidadDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ocupación habitación × día de un periodo para el tablero de recepción. Cada fila lleva un BitSet con el bit i a 1
+// si la habitación está ocupada el día desde + i; las filas van ordenadas por id de habitación.
+public record RejillaDisponibilidad(LocalDate desde, int dias, List<Fila> filas) {
+
+    public record Fila(Long idHabitacion, String tipo, BitSet ocupacion) {
+    }
+
+    public static final byte VERSION_BINARIA = 1;
+
+    // Longitudes de tramos alternos libre/ocupado, empezando siempre por libres (el primero puede ser 0)
+    public static int[] tramos(BitSet ocupacion, int dias) {
+        List<Integer> tramos = new ArrayList<>();
+        int dia = 0;
+        boolean ocupado = false;
+        while (dia < dias) {
+            int fin = ocupado ? ocupacion.nextClearBit(dia) : ocupacion.nextSetBit(dia);
+            fin = fin < 0 || fin > dias ? dias : fin;
+            tramos.add(fin - dia);
+            dia = fin;
+            ocupado = !ocupado;
+        }
+        return tramos.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public RejillaDisponibilidadDTO aDTO() {
+        List<FilaRejillaDTO> resultado = new ArrayList<>(filas.size());
+        for (Fila fila : filas) {
+            resultado.add(new FilaRejillaDTO(fila.idHabitacion(), fila.tipo(), tramos(fila.ocupacion(), dias)));
+        }
+        return new RejillaDisponibilidadDTO(desde, dias, resultado);
+    }
+
+    // Formato binario, big-endian:
+    //   versión (1 byte) | desde en días desde 1970-01-01 (int) | días (short)
+    //   nº de tipos (short) y cada tipo en UTF-8 modificado (writeUTF) | nº de filas (int)
+    //   por fila: id menos el id de la fila anterior (varint), índice del tipo + 1 (varint, 0 = sin tipo) y
+    //   (días + 7) / 8 bytes de ocupación, el día i en el bit i % 8 (menos significativo primero) del byte i / 8
+    public byte[] codificar() {
+        Map<String, Integer> indiceTipos = new HashMap<>();
+        List<String> tipos = new ArrayList<>();
+        for (Fila fila : filas) {
+            if (fila.tipo() != null && !indiceTipos.containsKey(fila.tipo())) {
+                indiceTipos.put(fila.tipo(), tipos.size());
+                tipos.add(fila.tipo());
+            }
+        }
+        int bytesPorFila = (dias + 7) >>> 3;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 + filas.size() * (bytesPorFila + 3));
+        try (DataOutputStream salida = new DataOutputStream(buffer)) {
+            salida.writeByte(VERSION_BINARIA);
+            salida.writeInt((int) desde.toEpochDay());
+            salida.writeShort(dias);
+            salida.writeShort(tipos.size());
+            for (String tipo : tipos) {
+                salida.writeUTF(tipo);
+            }
+            salida.writeInt(filas.size());
+            long anterior = 0;
+            for (Fila fila : filas) {
+                escribirVarint(salida, fila.idHabitacion() - anterior);
+                anterior = fila.idHabitacion();
+                escribirVarint(salida, fila.tipo() == null ? 0 : indiceTipos.get(fila.tipo()) + 1);
+                salida.write(Arrays.copyOf(fila.ocupacion().toByteArray(), bytesPorFila));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // 7 bits por byte, el bit alto indica que sigue otro byte
+    private static void escribirVarint(DataOutputStream salida, long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            salida.writeByte((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        salida.writeByte((int) valor);
+    }
+}
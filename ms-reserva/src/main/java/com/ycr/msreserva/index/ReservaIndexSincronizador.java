@@ -0,0 +1,221 @@
+package com.ycr.msreserva.index;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.events.ReservaEvento;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Mantiene ReservaIntervalIndex y OcupacionBitmap alineados con la tabla reservas:
+// los carga al arrancar, los actualiza después de cada commit y verifica periódicamente el índice contra la base de datos.
+// InventarioPorTipo se deriva de los mismos rangos y se refresca en los mismos puntos; su catálogo de tipos se vuelve
+// a pedir a ms-habitacion periódicamente. Nada de lo que corre después del commit llama a otros servicios.
+@Component
+public class ReservaIndexSincronizador {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservaIndexSincronizador.class);
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private ReservaIntervalIndex indice;
+    @Autowired
+    private OcupacionBitmap ocupacion;
+    @Autowired
+    private InventarioPorTipo inventario;
+    @Autowired
+    private HabitacionFeign habitacionFeign;
+    @Autowired
+    private HabitacionCache habitacionCache;
+
+    private final Set<Long> habitacionesPendientes = ConcurrentHashMap.newKeySet();
+
+    @Value("${reservas.ocupacion.horizonte-dias:730}")
+    private int horizonteDias;
+
+    // Cambios confirmados mientras se carga el índice; null fuera de la carga. Protegido por cargaLock.
+    private final Object cargaLock = new Object();
+    private List<ReservaEvento> cambiosDuranteCarga;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargarIndice() {
+        iniciarCarga();
+        List<Reserva> activas = reservaRepository.findReservasActivas();
+        completarCarga(activas);
+        log.info("Índice de disponibilidad cargado con {} reservas activas", activas.size());
+    }
+
+    // Desde aquí los cambios confirmados se guardan en vez de aplicarse: la lectura de reservas activas
+    // puede haber empezado antes de su commit y reconstruir los borraría del índice
+    void iniciarCarga() {
+        synchronized (cargaLock) {
+            cambiosDuranteCarga = new ArrayList<>();
+        }
+    }
+
+    // Reconstruye el índice y vuelve a aplicar, en orden y antes de marcarlo listo, los cambios guardados.
+    // Aplicarlos es idempotente: registrar deja la reserva con su último estado aunque la lectura ya lo tuviera.
+    void completarCarga(List<Reserva> activas) {
+        synchronized (cargaLock) {
+            List<ReservaEvento> pendientes = cambiosDuranteCarga == null ? List.of() : cambiosDuranteCarga;
+            indice.reconstruir(activas, () -> pendientes.forEach(this::aplicarAlIndice));
+            cambiosDuranteCarga = null;
+        }
+        reconstruirOcupacion();
+    }
+
+    // La ventana de la matriz de ocupación empieza ayer, así que se desplaza cada medianoche
+    @Scheduled(cron = "0 0 0 * * *")
+    public void reconstruirOcupacion() {
+        if (!indice.estaListo()) {
+            return;
+        }
+        ocupacion.reiniciar(LocalDate.now().minusDays(1), horizonteDias, indice.habitacionesIndexadas(), indice::rangos);
+        reconstruirInventario();
+    }
+
+    // Totales por tipo desde el catálogo de ms-habitacion y ocupación desde el índice. Si ms-habitacion no responde
+    // se conserva el inventario anterior y se reintenta en la siguiente ejecución.
+    @Scheduled(fixedDelayString = "${reservas.inventario.catalogo-ms:600000}",
+            initialDelayString = "${reservas.inventario.catalogo-ms:600000}")
+    public void reconstruirInventario() {
+        if (!indice.estaListo()) {
+            return;
+        }
+        Map<Long, String> catalogo;
+        try {
+            catalogo = catalogoDeTipos();
+        } catch (RuntimeException e) {
+            log.warn("Inventario por tipo sin actualizar: {}", e.getMessage());
+            return;
+        }
+        inventario.reconstruir(LocalDate.now().minusDays(1), horizonteDias, catalogo,
+                indice.habitacionesIndexadas(), indice::rangos);
+        log.info("Inventario por tipo cargado con {} habitaciones", catalogo.size());
+    }
+
+    // Habitaciones que cuentan para el inventario: todas menos las dadas de baja (INACTIVA)
+    private Map<Long, String> catalogoDeTipos() {
+        ResponseEntity<List<HabitacionDTO>> response = habitacionFeign.obtenerTodasLasHabitaciones();
+        if (response == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new RuntimeException("ms-habitacion no disponible para cargar el catálogo");
+        }
+        Map<Long, String> tipos = new HashMap<>();
+        for (HabitacionDTO habitacion : response.getBody()) {
+            if (habitacion.getTipo() != null && !"INACTIVA".equalsIgnoreCase(habitacion.getEstado())) {
+                tipos.put(habitacion.getIdHabitacion(), habitacion.getTipo());
+            }
+        }
+        return tipos;
+    }
+
+    @TransactionalEventListener
+    public void alConfirmarCambio(ReservaEvento evento) {
+        synchronized (cargaLock) {
+            if (cambiosDuranteCarga != null) {
+                // La matriz de ocupación y el inventario se rehacen enteros al terminar la carga
+                cambiosDuranteCarga.add(evento);
+                return;
+            }
+        }
+        aplicarAlIndice(evento);
+        if (evento.getAnterior() != null && evento.getAnterior().getIdHabitacion() != null) {
+            refrescarOcupacion(evento.getAnterior().getIdHabitacion());
+        }
+        if (evento.getActual() != null && evento.getActual().getIdHabitacion() != null) {
+            refrescarOcupacion(evento.getActual().getIdHabitacion());
+        }
+    }
+
+    private void aplicarAlIndice(ReservaEvento evento) {
+        if (evento.getActual() == null) {
+            indice.eliminar(evento.getIdReserva());
+        } else {
+            indice.registrar(evento.getActual());
+        }
+    }
+
+    private void refrescarOcupacion(Long idHabitacion) {
+        List<RangoFechas> rangos = indice.rangos(idHabitacion);
+        ocupacion.actualizarFila(idHabitacion, rangos);
+        if (inventario.estaListo()) {
+            if (!inventario.conoceHabitacion(idHabitacion)) {
+                // Se llega aquí después del commit pero aún con el lock de la habitación tomado: el tipo se pide
+                // a ms-habitacion fuera de la reserva, en resolverHabitacionesPendientes
+                habitacionesPendientes.add(idHabitacion);
+            }
+            inventario.actualizarHabitacion(idHabitacion, rangos);
+        }
+    }
+
+    // Habitaciones creadas después de cargar el catálogo: su tipo sale de la caché de habitaciones y se suman al
+    // inventario con sus rangos actuales. Solo se reintenta, en la siguiente ejecución, si ms-habitacion no responde
+    // (excepción, 5xx o la respuesta de fallback con id 0); un 404 u otra respuesta definitiva la descarta.
+    @Scheduled(fixedDelayString = "${reservas.inventario.pendientes-ms:2000}")
+    public void resolverHabitacionesPendientes() {
+        for (Long idHabitacion : List.copyOf(habitacionesPendientes)) {
+            if (!inventario.estaListo() || inventario.conoceHabitacion(idHabitacion)) {
+                habitacionesPendientes.remove(idHabitacion);
+                continue;
+            }
+            try {
+                ResponseEntity<HabitacionDTO> response = habitacionCache.obtenerHabitacionPorId(idHabitacion);
+                if (response == null || response.getStatusCode().is5xxServerError()) {
+                    continue;
+                }
+                HabitacionDTO habitacion = response.getBody();
+                if (response.getStatusCode().is2xxSuccessful() && habitacion != null) {
+                    if (habitacion.getIdHabitacion() == null || habitacion.getIdHabitacion() == 0L) {
+                        continue;
+                    }
+                    if (!"INACTIVA".equalsIgnoreCase(habitacion.getEstado())) {
+                        inventario.registrarHabitacion(idHabitacion, habitacion.getTipo(), indice::rangos);
+                    }
+                } else {
+                    log.warn("Habitación {} descartada del inventario: ms-habitacion respondió {}",
+                            idHabitacion, response.getStatusCode());
+                }
+                habitacionesPendientes.remove(idHabitacion);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo obtener el tipo de la habitación {} para el inventario: {}", idHabitacion, e.getMessage());
+            }
+        }
+    }
+
+    // Verificación de consistencia: la consulta JPA solo se usa aquí, no en cada reserva
+    @Scheduled(fixedDelayString = "${reservas.indice.verificacion-ms:300000}",
+            initialDelayString = "${reservas.indice.verificacion-ms:300000}")
+    @Transactional(readOnly = true)
+    public void verificarConsistencia() {
+        if (!indice.estaListo()) {
+            return;
+        }
+        Map<Long, Long> versiones = indice.versiones();
+        List<Long> corregidas = indice.reconciliar(reservaRepository.findReservasActivas(), versiones);
+        corregidas.forEach(this::refrescarOcupacion);
+        if (!corregidas.isEmpty()) {
+            log.warn("Índice de disponibilidad corregido para las habitaciones {}", corregidas);
+        }
+    }
+}
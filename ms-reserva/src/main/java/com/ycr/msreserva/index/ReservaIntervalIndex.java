@@ -0,0 +1,255 @@
+package com.ycr.msreserva.index;
+
+import com.ycr.msreserva.Entity.Reserva;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Índice en memoria de los rangos de fechas ocupados por cada habitación.
+// Solo guarda reservas activas (todo estado distinto de CANCELADA y COMPLETADA), con la misma
+// regla de solapamiento que ReservaRepository.findReservasConflictivas (extremos inclusivos).
+@Component
+public class ReservaIntervalIndex {
+
+    private final Map<Long, IntervalosHabitacion> habitaciones = new ConcurrentHashMap<>();
+    private final Map<Long, Long> habitacionPorReserva = new ConcurrentHashMap<>();
+    private volatile boolean listo = false;
+
+    public static boolean esActiva(Reserva reserva) {
+        return reserva.getEstado() != null
+                && !"CANCELADA".equalsIgnoreCase(reserva.getEstado())
+                && !"COMPLETADA".equalsIgnoreCase(reserva.getEstado());
+    }
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    // Verificar si algún rango activo de la habitación se cruza con [fechaInicio, fechaFin]
+    public boolean haySolapamiento(Long idHabitacion, LocalDate fechaInicio, LocalDate fechaFin) {
+        return haySolapamiento(idHabitacion, fechaInicio, fechaFin, null);
+    }
+
+    // Igual que el anterior, pero ignorando una reserva (útil al actualizar sus propias fechas)
+    public boolean haySolapamiento(Long idHabitacion, LocalDate fechaInicio, LocalDate fechaFin, Long excluirIdReserva) {
+        IntervalosHabitacion intervalos = habitaciones.get(idHabitacion);
+        if (intervalos == null) {
+            return false;
+        }
+        synchronized (intervalos) {
+            return intervalos.haySolapamiento(fechaInicio, fechaFin, excluirIdReserva);
+        }
+    }
+
+    // Rangos activos de una habitación, ordenados por fecha de inicio
+    public List<RangoFechas> rangos(Long idHabitacion) {
+        IntervalosHabitacion intervalos = habitaciones.get(idHabitacion);
+        if (intervalos == null) {
+            return List.of();
+        }
+        synchronized (intervalos) {
+            List<RangoFechas> rangos = new ArrayList<>(intervalos.porReserva.size());
+            for (List<Intervalo> lista : intervalos.porInicio.values()) {
+                for (Intervalo intervalo : lista) {
+                    rangos.add(new RangoFechas(intervalo.inicio(), intervalo.fin()));
+                }
+            }
+            return rangos;
+        }
+    }
+
+    public Set<Long> habitacionesIndexadas() {
+        return Set.copyOf(habitaciones.keySet());
+    }
+
+    // Registrar el estado actual de una reserva: la quita de donde estuviera y la vuelve a
+    // agregar solo si sigue activa
+    public void registrar(Reserva reserva) {
+        if (reserva.getIdReserva() == null) {
+            return;
+        }
+        eliminar(reserva.getIdReserva());
+        if (!esActiva(reserva) || reserva.getIdHabitacion() == null
+                || reserva.getFechaInicio() == null || reserva.getFechaFin() == null) {
+            return;
+        }
+        IntervalosHabitacion intervalos = habitaciones.computeIfAbsent(reserva.getIdHabitacion(), k -> new IntervalosHabitacion());
+        synchronized (intervalos) {
+            intervalos.agregar(new Intervalo(reserva.getIdReserva(), reserva.getFechaInicio(), reserva.getFechaFin()));
+        }
+        habitacionPorReserva.put(reserva.getIdReserva(), reserva.getIdHabitacion());
+    }
+
+    public void eliminar(Long idReserva) {
+        Long idHabitacion = habitacionPorReserva.remove(idReserva);
+        if (idHabitacion == null) {
+            return;
+        }
+        IntervalosHabitacion intervalos = habitaciones.get(idHabitacion);
+        if (intervalos != null) {
+            synchronized (intervalos) {
+                intervalos.quitar(idReserva);
+            }
+        }
+    }
+
+    // Cargar el índice completo a partir de las reservas activas de la base de datos
+    public void reconstruir(Collection<Reserva> reservasActivas) {
+        reconstruir(reservasActivas, () -> { });
+    }
+
+    // Igual que el anterior, pero aplicando antes de marcar el índice como listo los cambios confirmados
+    // mientras se leían las reservas, que la lectura puede no incluir
+    public void reconstruir(Collection<Reserva> reservasActivas, Runnable cambiosPosteriores) {
+        Map<Long, List<Reserva>> porHabitacion = agrupar(reservasActivas);
+        for (Long idHabitacion : habitaciones.keySet()) {
+            porHabitacion.putIfAbsent(idHabitacion, List.of());
+        }
+        porHabitacion.forEach(this::reemplazarHabitacion);
+        cambiosPosteriores.run();
+        listo = true;
+    }
+
+    // Versión de cada habitación: cambia con cada modificación y permite detectar escrituras
+    // concurrentes mientras se hace la verificación de consistencia
+    public Map<Long, Long> versiones() {
+        Map<Long, Long> versiones = new HashMap<>();
+        habitaciones.forEach((id, intervalos) -> {
+            synchronized (intervalos) {
+                versiones.put(id, intervalos.version);
+            }
+        });
+        return versiones;
+    }
+
+    // Comparar con lo que hay en base de datos y corregir las habitaciones que no coinciden.
+    // Solo toca las habitaciones cuya versión no cambió desde que se tomó la foto de versiones.
+    // Devuelve los ids de habitación que fueron corregidos.
+    public List<Long> reconciliar(Collection<Reserva> reservasActivas, Map<Long, Long> versionesPrevias) {
+        Map<Long, List<Reserva>> porHabitacion = agrupar(reservasActivas);
+        for (Long idHabitacion : habitaciones.keySet()) {
+            porHabitacion.putIfAbsent(idHabitacion, List.of());
+        }
+        List<Long> corregidas = new ArrayList<>();
+        porHabitacion.forEach((idHabitacion, reservas) -> {
+            IntervalosHabitacion intervalos = habitaciones.computeIfAbsent(idHabitacion, k -> new IntervalosHabitacion());
+            synchronized (intervalos) {
+                long versionPrevia = versionesPrevias.getOrDefault(idHabitacion, 0L);
+                if (intervalos.version != versionPrevia || intervalos.coincide(reservas)) {
+                    return;
+                }
+                reemplazarHabitacion(idHabitacion, reservas);
+            }
+            corregidas.add(idHabitacion);
+        });
+        return corregidas;
+    }
+
+    private void reemplazarHabitacion(Long idHabitacion, List<Reserva> reservas) {
+        IntervalosHabitacion intervalos = habitaciones.computeIfAbsent(idHabitacion, k -> new IntervalosHabitacion());
+        synchronized (intervalos) {
+            for (Long idReserva : intervalos.porReserva.keySet()) {
+                habitacionPorReserva.remove(idReserva, idHabitacion);
+            }
+            intervalos.limpiar();
+            for (Reserva reserva : reservas) {
+                intervalos.agregar(new Intervalo(reserva.getIdReserva(), reserva.getFechaInicio(), reserva.getFechaFin()));
+                habitacionPorReserva.put(reserva.getIdReserva(), idHabitacion);
+            }
+        }
+    }
+
+    private static Map<Long, List<Reserva>> agrupar(Collection<Reserva> reservas) {
+        Map<Long, List<Reserva>> porHabitacion = new HashMap<>();
+        for (Reserva reserva : reservas) {
+            if (!esActiva(reserva) || reserva.getIdHabitacion() == null
+                    || reserva.getFechaInicio() == null || reserva.getFechaFin() == null) {
+                continue;
+            }
+            porHabitacion.computeIfAbsent(reserva.getIdHabitacion(), k -> new ArrayList<>()).add(reserva);
+        }
+        return porHabitacion;
+    }
+
+    private record Intervalo(Long idReserva, LocalDate inicio, LocalDate fin) {
+    }
+
+    // Intervalos de una habitación ordenados por fecha de inicio. Como se conoce la duración
+    // máxima registrada, una consulta solo recorre los que empiezan en
+    // [fechaInicio - duracionMaxima, fechaFin].
+    private static final class IntervalosHabitacion {
+        private final Map<Long, Intervalo> porReserva = new HashMap<>();
+        private final TreeMap<LocalDate, List<Intervalo>> porInicio = new TreeMap<>();
+        private long duracionMaximaDias = 0;
+        private long version = 0;
+
+        boolean haySolapamiento(LocalDate fechaInicio, LocalDate fechaFin, Long excluirIdReserva) {
+            if (porInicio.isEmpty() || fechaInicio.isAfter(fechaFin)) {
+                return false;
+            }
+            LocalDate desde = fechaInicio.minusDays(duracionMaximaDias);
+            for (List<Intervalo> lista : porInicio.subMap(desde, true, fechaFin, true).values()) {
+                for (Intervalo intervalo : lista) {
+                    if (!intervalo.fin().isBefore(fechaInicio) && !intervalo.idReserva().equals(excluirIdReserva)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void agregar(Intervalo intervalo) {
+            quitar(intervalo.idReserva());
+            porReserva.put(intervalo.idReserva(), intervalo);
+            porInicio.computeIfAbsent(intervalo.inicio(), k -> new ArrayList<>(1)).add(intervalo);
+            duracionMaximaDias = Math.max(duracionMaximaDias,
+                    ChronoUnit.DAYS.between(intervalo.inicio(), intervalo.fin()));
+            version++;
+        }
+
+        void quitar(Long idReserva) {
+            Intervalo intervalo = porReserva.remove(idReserva);
+            if (intervalo == null) {
+                return;
+            }
+            List<Intervalo> lista = porInicio.get(intervalo.inicio());
+            lista.remove(intervalo);
+            if (lista.isEmpty()) {
+                porInicio.remove(intervalo.inicio());
+            }
+            version++;
+        }
+
+        void limpiar() {
+            porReserva.clear();
+            porInicio.clear();
+            duracionMaximaDias = 0;
+            version++;
+        }
+
+        boolean coincide(List<Reserva> reservas) {
+            if (reservas.size() != porReserva.size()) {
+                return false;
+            }
+            for (Reserva reserva : reservas) {
+                Intervalo intervalo = porReserva.get(reserva.getIdReserva());
+                if (intervalo == null
+                        || !Objects.equals(intervalo.inicio(), reserva.getFechaInicio())
+                        || !Objects.equals(intervalo.fin(), reserva.getFechaFin())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ycr.msreserva.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Locks por habitación repartidos en un número fijo de franjas (striped locking).
+// Las reservas de una misma habitación se ejecutan una tras otra; las de habitaciones en franjas
+// distintas corren en paralelo. Los locks son locales a la instancia.
+@Component
+public class HabitacionLocks {
+
+    private final ReentrantLock[] franjas;
+
+    public HabitacionLocks(@Value("${reservas.locks.franjas:256}") int numeroFranjas) {
+        franjas = new ReentrantLock[numeroFranjas];
+        for (int i = 0; i < numeroFranjas; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T ejecutar(Long idHabitacion, Supplier<T> accion) {
+        ReentrantLock lock = franjas[franja(idHabitacion)];
+        lock.lock();
+        try {
+            return accion.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Toma las franjas de varias habitaciones siempre en el mismo orden para evitar interbloqueos
+    public <T> T ejecutar(Collection<Long> idsHabitacion, Supplier<T> accion) {
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (Long idHabitacion : idsHabitacion) {
+            indices.add(franja(idHabitacion));
+        }
+        for (Integer indice : indices) {
+            franjas[indice].lock();
+        }
+        try {
+            return accion.get();
+        } finally {
+            for (Integer indice : indices.descendingSet()) {
+                franjas[indice].unlock();
+            }
+        }
+    }
+
+    private int franja(Long idHabitacion) {
+        return Math.floorMod(Long.hashCode(idHabitacion) * 0x9E3779B9, franjas.length);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ycr.msreserva.manifiesto;
+
+import com.ycr.msreserva.Entity.Reserva;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Lista inmutable de llegadas o salidas de un día, con el ETag calculado sobre su contenido
+public record Manifiesto(LocalDate fecha, List<Reserva> reservas, String etag) {
+}
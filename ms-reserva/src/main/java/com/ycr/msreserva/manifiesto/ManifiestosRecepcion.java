@@ -0,0 +1,147 @@
+package com.ycr.msreserva.manifiesto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.events.ReservaEvento;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Manifiestos de check-in y check-out de hoy y mañana para recepción.
+// Se cargan al arrancar y a medianoche, se corrigen en memoria con cada ReservaEvento confirmado
+// y se recargan periódicamente para recoger los cambios hechos en otras instancias.
+// Las lecturas no consultan la base de datos: devuelven la instantánea vigente con su ETag.
+@Component
+public class ManifiestosRecepcion {
+
+    private static final Logger log = LoggerFactory.getLogger(ManifiestosRecepcion.class);
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Instantáneas inmutables; las escrituras van serializadas con un ReentrantLock y no con synchronized,
+    // porque recargar consulta la base de datos y con hilos virtuales un monitor retendría el hilo portador
+    private final ReentrantLock escritura = new ReentrantLock();
+    private volatile Map<LocalDate, Manifiesto> llegadas = Map.of();
+    private volatile Map<LocalDate, Manifiesto> salidas = Map.of();
+
+    public Manifiesto checkIn(LocalDate fecha) {
+        return obtener(fecha, true);
+    }
+
+    public Manifiesto checkOut(LocalDate fecha) {
+        return obtener(fecha, false);
+    }
+
+    private Manifiesto obtener(LocalDate fecha, boolean esLlegada) {
+        Manifiesto manifiesto = (esLlegada ? llegadas : salidas).get(fecha);
+        if (manifiesto == null) {
+            // Ventana desplazada (medianoche aún no procesada) o fecha fuera de hoy/mañana
+            if (!fecha.equals(LocalDate.now()) && !fecha.equals(LocalDate.now().plusDays(1))) {
+                return construir(fecha, esLlegada
+                        ? reservaRepository.findReservasPorCheckIn(fecha)
+                        : reservaRepository.findReservasPorCheckOut(fecha));
+            }
+            recargar();
+            manifiesto = (esLlegada ? llegadas : salidas).get(fecha);
+        }
+        return manifiesto;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 0 * * *")
+    public void recargarALaMedianoche() {
+        recargar();
+    }
+
+    @Scheduled(fixedDelayString = "${reservas.manifiestos.refresco-ms:60000}",
+            initialDelayString = "${reservas.manifiestos.refresco-ms:60000}")
+    public void recargar() {
+        escritura.lock();
+        try {
+            LocalDate hoy = LocalDate.now();
+            LocalDate manana = hoy.plusDays(1);
+            llegadas = Map.of(
+                    hoy, construir(hoy, reservaRepository.findReservasPorCheckIn(hoy)),
+                    manana, construir(manana, reservaRepository.findReservasPorCheckIn(manana)));
+            salidas = Map.of(
+                    hoy, construir(hoy, reservaRepository.findReservasPorCheckOut(hoy)),
+                    manana, construir(manana, reservaRepository.findReservasPorCheckOut(manana)));
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void alConfirmarCambio(ReservaEvento evento) {
+        escritura.lock();
+        try {
+            llegadas = aplicar(llegadas, evento, Reserva::getFechaInicio);
+            salidas = aplicar(salidas, evento, Reserva::getFechaFin);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    // Quita la versión anterior de la reserva y añade la actual si sigue cumpliendo el criterio
+    // de findReservasPorCheckIn/CheckOut (fecha del día y estado CONFIRMADA)
+    private Map<LocalDate, Manifiesto> aplicar(Map<LocalDate, Manifiesto> actuales, ReservaEvento evento,
+                                               Function<Reserva, LocalDate> fechaDe) {
+        Map<LocalDate, Manifiesto> nuevos = new HashMap<>(actuales);
+        boolean cambio = false;
+        for (Manifiesto manifiesto : actuales.values()) {
+            boolean estaba = manifiesto.reservas().stream().anyMatch(r -> r.getIdReserva().equals(evento.getIdReserva()));
+            boolean entra = evento.getActual() != null && cumple(evento.getActual(), manifiesto.fecha(), fechaDe);
+            if (!estaba && !entra) {
+                continue;
+            }
+            List<Reserva> reservas = new ArrayList<>(manifiesto.reservas());
+            reservas.removeIf(r -> r.getIdReserva().equals(evento.getIdReserva()));
+            if (entra) {
+                reservas.add(evento.getActual());
+                reservas.sort(Comparator.comparing(Reserva::getIdReserva));
+            }
+            nuevos.put(manifiesto.fecha(), construir(manifiesto.fecha(), reservas));
+            cambio = true;
+        }
+        return cambio ? Map.copyOf(nuevos) : actuales;
+    }
+
+    private static boolean cumple(Reserva reserva, LocalDate fecha, Function<Reserva, LocalDate> fechaDe) {
+        return fecha.equals(fechaDe.apply(reserva)) && "CONFIRMADA".equalsIgnoreCase(reserva.getEstado());
+    }
+
+    // El ETag se calcula sobre el JSON que se devuelve, así coincide entre instancias con el mismo contenido
+    private Manifiesto construir(LocalDate fecha, List<Reserva> reservas) {
+        List<Reserva> copia = reservas.stream()
+                .map(ReservaEvento::copiar)
+                .sorted(Comparator.comparing(Reserva::getIdReserva))
+                .toList();
+        try {
+            String etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(copia)) + "\"";
+            return new Manifiesto(fecha, copia, etag);
+        } catch (JsonProcessingException e) {
+            log.warn("No se pudo calcular el ETag del manifiesto del {}: {}", fecha, e.getMessage());
+            return new Manifiesto(fecha, copia, null);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ycr.msreserva.outbox;
+
+import com.ycr.msreserva.Entity.DisponibilidadOutbox;
+import com.ycr.msreserva.Repository.DisponibilidadOutboxRepository;
+import com.ycr.msreserva.dtos.CambioDisponibilidadDTO;
+import com.ycr.msreserva.dtos.ResultadoLoteDisponibilidadDTO;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Vacía el outbox de disponibilidad: reclama los pendientes en lotes, se queda con el último cambio de cada
+// habitación y los envía a ms-habitacion en una sola llamada. Si la llamada falla, los reintenta con backoff.
+// Con varias instancias, cada una reclama habitaciones distintas (FOR UPDATE SKIP LOCKED) y las aparta durante el
+// envío, así que ningún cambio se envía dos veces ni uno antiguo llega después de uno más nuevo.
+@Component
+public class DisponibilidadOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(DisponibilidadOutboxDispatcher.class);
+
+    @Autowired
+    private DisponibilidadOutboxRepository outboxRepository;
+    @Autowired
+    private HabitacionFeign habitacionFeign;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reservas.outbox.lote:200}")
+    private int tamanoLote;
+    @Value("${reservas.outbox.backoff-base:2s}")
+    private Duration backoffBase;
+    @Value("${reservas.outbox.backoff-maximo:5m}")
+    private Duration backoffMaximo;
+    // Tiempo que un lote reclamado queda apartado; debe cubrir de sobra la llamada a ms-habitacion
+    @Value("${reservas.outbox.apartado:1m}")
+    private Duration apartado;
+
+    @Scheduled(fixedDelayString = "${reservas.outbox.intervalo-ms:1000}",
+            initialDelayString = "${reservas.outbox.intervalo-ms:1000}")
+    public void despachar() {
+        int reclamadas;
+        do {
+            List<DisponibilidadOutbox> pendientes = new ArrayList<>();
+            reclamadas = reclamar(pendientes);
+            if (!pendientes.isEmpty() && !enviar(pendientes)) {
+                return;
+            }
+        } while (reclamadas == tamanoLote);
+    }
+
+    // Reclama hasta tamanoLote habitaciones con cambios listos y deja en "pendientes" todos sus cambios, apartados
+    // hasta que termine el envío. El bloqueo solo dura esta transacción, no la llamada remota.
+    private int reclamar(List<DisponibilidadOutbox> pendientes) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Long> habitaciones = outboxRepository.reclamarPendientes(ahora, PageRequest.of(0, tamanoLote)).stream()
+                    .map(DisponibilidadOutbox::getIdHabitacion)
+                    .toList();
+            if (habitaciones.isEmpty()) {
+                return 0;
+            }
+            pendientes.addAll(outboxRepository.findPorHabitaciones(habitaciones));
+            outboxRepository.apartar(pendientes.stream().map(DisponibilidadOutbox::getIdOutbox).toList(),
+                    ahora.plus(apartado));
+            return habitaciones.size();
+        });
+    }
+
+    // Envía un lote; devuelve false si ms-habitacion no respondió y hay que esperar al siguiente ciclo
+    private boolean enviar(List<DisponibilidadOutbox> pendientes) {
+        // Vienen ordenados por id, así que el último de cada habitación es el cambio vigente
+        Map<Long, DisponibilidadOutbox> ultimos = new LinkedHashMap<>();
+        for (DisponibilidadOutbox cambio : pendientes) {
+            ultimos.put(cambio.getIdHabitacion(), cambio);
+        }
+        List<CambioDisponibilidadDTO> cambios = ultimos.values().stream()
+                .map(c -> new CambioDisponibilidadDTO(c.getIdHabitacion(), c.getDisponible()))
+                .toList();
+
+        ResultadoLoteDisponibilidadDTO resultado = null;
+        try {
+            ResponseEntity<ResultadoLoteDisponibilidadDTO> response = habitacionFeign.cambiarDisponibilidadLote(cambios);
+            if (response != null && response.getStatusCode().is2xxSuccessful()) {
+                resultado = response.getBody();
+            }
+        } catch (Exception e) {
+            log.warn("Error al enviar {} cambios de disponibilidad: {}", cambios.size(), e.getMessage());
+        }
+
+        if (resultado == null) {
+            reprogramar(pendientes);
+            return false;
+        }
+
+        Set<Long> procesadas = new HashSet<>();
+        if (resultado.getActualizadas() != null) {
+            procesadas.addAll(resultado.getActualizadas());
+        }
+        if (resultado.getNoEncontradas() != null && !resultado.getNoEncontradas().isEmpty()) {
+            log.warn("Habitaciones inexistentes en ms-habitacion, se descartan sus cambios: {}", resultado.getNoEncontradas());
+            procesadas.addAll(resultado.getNoEncontradas());
+        }
+
+        List<DisponibilidadOutbox> sinConfirmar = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (DisponibilidadOutbox ultimo : ultimos.values()) {
+                if (procesadas.contains(ultimo.getIdHabitacion())) {
+                    // Solo hasta el último enviado: lo que haya entrado después sigue pendiente
+                    outboxRepository.deleteEnviados(ultimo.getIdHabitacion(), ultimo.getIdOutbox());
+                }
+            }
+        });
+        for (DisponibilidadOutbox cambio : pendientes) {
+            if (!procesadas.contains(cambio.getIdHabitacion())) {
+                sinConfirmar.add(cambio);
+            }
+        }
+        if (!sinConfirmar.isEmpty()) {
+            reprogramar(sinConfirmar);
+        }
+        return true;
+    }
+
+    // Backoff exponencial por intento: base, 2·base, 4·base... hasta backoffMaximo
+    private void reprogramar(List<DisponibilidadOutbox> cambios) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Integer, List<Long>> porIntentos = cambios.stream()
+                .collect(Collectors.groupingBy(DisponibilidadOutbox::getIntentos,
+                        Collectors.mapping(DisponibilidadOutbox::getIdOutbox, Collectors.toList())));
+        transactionTemplate.executeWithoutResult(status -> porIntentos.forEach((intentos, ids) ->
+                outboxRepository.reprogramar(ids, ahora.plus(espera(intentos)))));
+        log.warn("{} cambios de disponibilidad pendientes, se reintentará más tarde", cambios.size());
+    }
+
+    Duration espera(int intentos) {
+        if (intentos >= 30) {
+            return backoffMaximo;
+        }
+        Duration espera = backoffBase.multipliedBy(1L << intentos);
+        return espera.compareTo(backoffMaximo) > 0 ? backoffMaximo : espera;
+    }
+}
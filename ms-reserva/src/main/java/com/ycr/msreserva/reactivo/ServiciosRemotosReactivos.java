@@ -0,0 +1,84 @@
+package com.ycr.msreserva.reactivo;
+
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Contraparte no bloqueante de ClienteFeign.obtenerClientePorId y HabitacionFeign.obtenerHabitacionPorId:
+// WebClient con balanceo por nombre de servicio y los mismos circuit breakers (clientePorIdCB, habitacionPorIdCB)
+// aplicados con el operador de Resilience4j, así las llamadas de ambos caminos cuentan en la misma ventana.
+// Un 404 se devuelve como respuesta y no cuenta como fallo; un 5xx, un error de red o el timeout sí,
+// y con el circuito abierto el fallback responde 503 sin salir a la red.
+@Component
+public class ServiciosRemotosReactivos {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiciosRemotosReactivos.class);
+
+    private final WebClient clientes;
+    private final WebClient habitaciones;
+    private final CircuitBreaker clientePorId;
+    private final CircuitBreaker habitacionPorId;
+    private final Duration timeout;
+
+    @Autowired
+    public ServiciosRemotosReactivos(WebClient.Builder builder,
+                                     LoadBalancedExchangeFilterFunction balanceador,
+                                     CircuitBreakerRegistry circuitBreakerRegistry,
+                                     @Value("${reservas.reactivo.timeout:5s}") Duration timeout) {
+        this(builder.clone().filter(balanceador).baseUrl("http://ms-cliente/clientes").build(),
+                builder.clone().filter(balanceador).baseUrl("http://ms-habitacion/habitaciones").build(),
+                circuitBreakerRegistry, timeout);
+    }
+
+    ServiciosRemotosReactivos(WebClient clientes, WebClient habitaciones,
+                              CircuitBreakerRegistry circuitBreakerRegistry, Duration timeout) {
+        this.clientes = clientes;
+        this.habitaciones = habitaciones;
+        this.clientePorId = circuitBreakerRegistry.circuitBreaker("clientePorIdCB");
+        this.habitacionPorId = circuitBreakerRegistry.circuitBreaker("habitacionPorIdCB");
+        this.timeout = timeout;
+    }
+
+    public Mono<ResponseEntity<ClienteDTO>> obtenerClientePorId(Long id) {
+        return clientes.get().uri("/{id}", id)
+                .exchangeToMono(respuesta -> aEntidad(respuesta, ClienteDTO.class))
+                .timeout(timeout)
+                .transformDeferred(CircuitBreakerOperator.of(clientePorId))
+                .onErrorResume(e -> fallback("ms-cliente no disponible (ID: " + id + ")", e));
+    }
+
+    public Mono<ResponseEntity<HabitacionDTO>> obtenerHabitacionPorId(Long id) {
+        return habitaciones.get().uri("/{id}", id)
+                .exchangeToMono(respuesta -> aEntidad(respuesta, HabitacionDTO.class))
+                .timeout(timeout)
+                .transformDeferred(CircuitBreakerOperator.of(habitacionPorId))
+                .onErrorResume(e -> fallback("ms-habitaciones no disponible (ID: " + id + ")", e));
+    }
+
+    private static <T> Mono<ResponseEntity<T>> aEntidad(ClientResponse respuesta, Class<T> tipo) {
+        if (respuesta.statusCode().is5xxServerError()) {
+            return respuesta.createError();
+        }
+        return respuesta.toEntity(tipo);
+    }
+
+    private static <T> Mono<ResponseEntity<T>> fallback(String detalle, Throwable e) {
+        log.warn("CircuitBreaker: {} ({})", detalle, e.toString());
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
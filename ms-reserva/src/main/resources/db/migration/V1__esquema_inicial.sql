@@ -0,0 +1,32 @@
+-- Esquema tal como lo generaba Hibernate (ddl-auto: update) antes de las migraciones versionadas.
+-- Las bases existentes se marcan con baseline en la versión 1 y no ejecutan este script.
+
+CREATE TABLE IF NOT EXISTS reservas (
+    id_reserva     BIGINT NOT NULL,
+    id_cliente     BIGINT,
+    id_habitacion  BIGINT,
+    fecha_inicio   DATE,
+    fecha_fin      DATE,
+    monto_total    FLOAT(53),
+    estado         VARCHAR(255),
+    fecha_creacion DATETIME(6),
+    PRIMARY KEY (id_reserva)
+);
+
+-- MySQL no tiene secuencias: Hibernate emula reservas_seq con una tabla de una fila
+CREATE TABLE IF NOT EXISTS reservas_seq (
+    next_val BIGINT
+);
+
+INSERT INTO reservas_seq (next_val)
+SELECT 1 FROM (SELECT 1 AS uno) t WHERE NOT EXISTS (SELECT 1 FROM reservas_seq);
+
+CREATE TABLE IF NOT EXISTS outbox_disponibilidad (
+    id_outbox       BIGINT NOT NULL AUTO_INCREMENT,
+    id_habitacion   BIGINT,
+    disponible      BIT,
+    fecha_creacion  DATETIME(6),
+    intentos        INTEGER,
+    proximo_intento DATETIME(6),
+    PRIMARY KEY (id_outbox)
+);
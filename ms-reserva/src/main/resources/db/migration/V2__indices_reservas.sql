@@ -0,0 +1,14 @@
+-- Conflictos por habitación (findReservasConflictivas, findReservasActivasPorHabitacion, findByIdHabitacion)
+CREATE INDEX idx_reservas_habitacion_estado_fechas ON reservas (id_habitacion, estado, fecha_inicio, fecha_fin);
+-- findByIdCliente y su paginación por id
+CREATE INDEX idx_reservas_cliente ON reservas (id_cliente);
+-- findByEstado y su paginación por id
+CREATE INDEX idx_reservas_estado ON reservas (estado);
+-- Check-in del día y rango de fechas
+CREATE INDEX idx_reservas_inicio_estado ON reservas (fecha_inicio, estado);
+-- Check-out del día
+CREATE INDEX idx_reservas_fin_estado ON reservas (fecha_fin, estado);
+
+-- Outbox: pendientes por próximo intento y borrado por habitación
+CREATE INDEX idx_outbox_proximo_intento ON outbox_disponibilidad (proximo_intento, id_outbox);
+CREATE INDEX idx_outbox_habitacion ON outbox_disponibilidad (id_habitacion, id_outbox);
@@ -0,0 +1,13 @@
+-- Agregados diarios por tipo de habitación (ResumenDiarioAcumulador)
+CREATE TABLE IF NOT EXISTS resumen_diario (
+    id_resumen            BIGINT NOT NULL AUTO_INCREMENT,
+    fecha                 DATE,
+    tipo_habitacion       VARCHAR(255),
+    habitaciones_ocupadas BIGINT,
+    noches_vendidas       BIGINT,
+    ingresos              FLOAT(53),
+    cancelaciones         BIGINT,
+    PRIMARY KEY (id_resumen)
+);
+
+ALTER TABLE resumen_diario ADD CONSTRAINT uk_resumen_fecha_tipo UNIQUE (fecha, tipo_habitacion);
@@ -0,0 +1,35 @@
+package com.ycr.msreserva.Repository;
+
+import com.ycr.msreserva.Entity.Reserva;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Arranque como en config-data/ms-reserva.yml: Flyway crea el esquema y Hibernate solo lo valida. Si una entidad
+// cambia sin su migración, el contexto no levanta. Con el dialecto de MySQL, como en producción, reservas_seq se
+// valida como la tabla que crea V1 y no como una secuencia de H2.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ms_reserva_validacion;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EsquemaMigracionesTests {
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Test
+    void lasEntidadesCoincidenConLasMigraciones() {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        Reserva guardada = reservaRepository.saveAndFlush(Reserva.builder().idCliente(1L).idHabitacion(1L)
+                .fechaInicio(manana).fechaFin(manana.plusDays(1)).estado("PENDIENTE").montoTotal(100.0).build());
+
+        assertNotNull(guardada.getIdReserva());
+    }
+}
@@ -0,0 +1,176 @@
+package com.ycr.msreserva.Repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Ejecuta cada consulta de los repositorios sobre un volumen grande de datos en H2 y revisa el plan
+// con EXPLAIN: si alguna deja de usar un índice y recorre la tabla completa, la prueba falla.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.ycr.msreserva.Repository.ReservaRepositoryPlanTests$CapturaSql")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservaRepositoryPlanTests {
+
+    private static final int RESERVAS = 50_000;
+    private static final int OUTBOX = 5_000;
+    private static final LocalDate HOY = LocalDate.now();
+    private static final String[] ESTADOS = {"PENDIENTE", "CONFIRMADA", "CANCELADA", "COMPLETADA", "PENDIENTE_CONFIRMACION"};
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private DisponibilidadOutboxRepository outboxRepository;
+    @Autowired
+    private ResumenDiarioRepository resumenRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Guarda la última sentencia SQL que genera Hibernate para poder pedir su plan
+    public static class CapturaSql implements StatementInspector {
+        static volatile String ultima;
+
+        @Override
+        public String inspect(String sql) {
+            ultima = sql;
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void cargarDatos() {
+        Integer existentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservas", Integer.class);
+        if (existentes != null && existentes == RESERVAS) {
+            return;
+        }
+        List<Object[]> filas = new ArrayList<>(RESERVAS);
+        for (int i = 1; i <= RESERVAS; i++) {
+            LocalDate inicio = HOY.minusDays(365).plusDays(i % 730);
+            filas.add(new Object[]{(long) i, (long) (i % 5_000), (long) (i % 400), Date.valueOf(inicio),
+                    Date.valueOf(inicio.plusDays(1 + i % 7)), 100.0, ESTADOS[i % ESTADOS.length],
+                    Timestamp.valueOf(LocalDateTime.now())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservas (id_reserva, id_cliente, id_habitacion, fecha_inicio, fecha_fin, "
+                + "monto_total, estado, fecha_creacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", filas);
+
+        List<Object[]> outbox = new ArrayList<>(OUTBOX);
+        for (int i = 1; i <= OUTBOX; i++) {
+            Timestamp momento = Timestamp.valueOf(LocalDateTime.now().plusMinutes(i));
+            outbox.add(new Object[]{(long) (i % 400), i % 2 == 0, momento, 0, momento});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_disponibilidad (id_habitacion, disponible, fecha_creacion, intentos, "
+                + "proximo_intento) VALUES (?, ?, ?, ?, ?)", outbox);
+
+        List<Object[]> resumen = new ArrayList<>();
+        for (int dia = 0; dia < 730; dia++) {
+            for (String tipo : new String[]{"SIMPLE", "DOBLE", "SUITE", "FAMILIAR"}) {
+                resumen.add(new Object[]{Date.valueOf(HOY.minusDays(365).plusDays(dia)), tipo, 10L, 10L, 1000.0, 1L});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO resumen_diario (fecha, tipo_habitacion, habitaciones_ocupadas, noches_vendidas, "
+                + "ingresos, cancelaciones) VALUES (?, ?, ?, ?, ?, ?)", resumen);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Plan de la última consulta capturada; los parámetros quedan sin valor, como en la sentencia preparada
+    private String planDe(Runnable consulta) {
+        CapturaSql.ultima = null;
+        consulta.run();
+        String sql = CapturaSql.ultima;
+        assertNotNull(sql, "No se capturó ninguna sentencia");
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    private void assertUsaIndice(Runnable consulta) {
+        String plan = planDe(consulta);
+        assertFalse(plan.contains("tableScan"), "Recorrido completo de la tabla:\n" + plan);
+    }
+
+    @Test
+    void consultasDeReservasUsanIndices() {
+        LocalDate desde = HOY.plusDays(10);
+        LocalDate hasta = HOY.plusDays(20);
+        assertUsaIndice(() -> reservaRepository.findReservasConflictivas(7L, desde, hasta));
+        assertUsaIndice(() -> reservaRepository.findReservasActivasEnRango(desde, hasta));
+        assertUsaIndice(() -> reservaRepository.findReservasConflictivasEnHabitaciones(List.of(7L, 8L, 9L), desde, hasta));
+        assertUsaIndice(() -> transactionTemplate.executeWithoutResult(status ->
+                reservaRepository.bloquearReservasConflictivas(7L, desde, hasta)));
+        assertUsaIndice(() -> transactionTemplate.executeWithoutResult(status ->
+                reservaRepository.bloquearReservasConflictivasEnHabitaciones(List.of(7L, 8L, 9L), desde, hasta)));
+        assertUsaIndice(() -> reservaRepository.findReservasActivasPorHabitacion(7L, HOY));
+        assertUsaIndice(() -> reservaRepository.findByIdCliente(42L));
+        assertUsaIndice(() -> reservaRepository.findByIdHabitacion(7L));
+        assertUsaIndice(() -> reservaRepository.findByEstado("CONFIRMADA"));
+        assertUsaIndice(() -> reservaRepository.findByFechaInicioBetween(desde, hasta));
+        assertUsaIndice(() -> reservaRepository.findReservasPorCheckIn(HOY));
+        assertUsaIndice(() -> reservaRepository.findReservasPorCheckOut(HOY));
+        assertUsaIndice(() -> reservaRepository.findIdsHabitacion());
+    }
+
+    @Test
+    void paginasPorCursorUsanIndices() {
+        PageRequest pagina = PageRequest.of(0, 101);
+        assertUsaIndice(() -> reservaRepository.findPagina(25_000L, pagina));
+        assertUsaIndice(() -> reservaRepository.findPaginaPorCliente(42L, 0L, pagina));
+        assertUsaIndice(() -> reservaRepository.findPaginaPorHabitacion(7L, 0L, pagina));
+        assertUsaIndice(() -> reservaRepository.findPaginaPorEstado("CONFIRMADA", 0L, pagina));
+        assertUsaIndice(() -> reservaRepository.findPaginaPorFechaInicio(HOY, HOY.plusDays(30), HOY, 0L, pagina));
+    }
+
+    @Test
+    void consultasDelOutboxUsanIndices() {
+        // El reclamo bloquea filas y necesita transacción, como en el dispatcher
+        assertUsaIndice(() -> transactionTemplate.executeWithoutResult(status ->
+                outboxRepository.reclamarPendientes(LocalDateTime.now(), PageRequest.of(0, 200))));
+        assertUsaIndice(() -> outboxRepository.findPorHabitaciones(List.of(7L, 8L, 9L)));
+    }
+
+    @Test
+    void consultasDelResumenDiarioUsanIndices() {
+        assertUsaIndice(() -> resumenRepository.findPorTipo(HOY, HOY.plusDays(365), "SUITE"));
+        assertUsaIndice(() -> resumenRepository.findTotalesPorDia(HOY, HOY.plusDays(365)));
+    }
+
+    // El esquema de las migraciones debe declarar los mismos índices que las entidades
+    @Test
+    void migracionesCreanLosMismosIndicesQueLasEntidades() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:ms_reserva_migraciones;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        assertEquals(indicesDe(jdbcTemplate), indicesDe(new JdbcTemplate(dataSource)));
+    }
+
+    private static Set<String> indicesDe(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES "
+                        + "WHERE LOWER(TABLE_NAME) IN ('reservas', 'outbox_disponibilidad', 'resumen_diario') AND INDEX_TYPE_NAME <> 'PRIMARY KEY'",
+                        String.class).stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
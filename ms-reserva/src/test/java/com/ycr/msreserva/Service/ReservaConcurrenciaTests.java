@@ -0,0 +1,163 @@
+package com.ycr.msreserva.Service;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.cache.ClienteCache;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.index.ReservaIndexSincronizador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Prueba de estrés: miles de reservas solapadas en paralelo sobre pocas habitaciones.
+// Ninguna habitación puede terminar con dos reservas activas que se crucen.
+@SpringBootTest
+class ReservaConcurrenciaTests {
+
+    private static final int HABITACIONES = 20;
+    private static final int RESERVAS = 4000;
+    private static final int HILOS = 64;
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private ReservaIndexSincronizador sincronizador;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    private ClienteCache clienteCache;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    @BeforeEach
+    void configurarServicios() {
+        reservaRepository.deleteAll();
+        sincronizador.cargarIndice();
+        habitacionCache.invalidarTodo();
+        clienteCache.invalidarTodo();
+        when(clienteFeign.obtenerClientePorId(anyLong())).thenAnswer(inv -> {
+            ClienteDTO dto = new ClienteDTO();
+            dto.setIdCliente(inv.getArgument(0));
+            return ResponseEntity.ok(dto);
+        });
+        when(habitacionFeign.obtenerHabitacionPorId(anyLong())).thenAnswer(inv -> {
+            HabitacionDTO dto = new HabitacionDTO();
+            dto.setIdHabitacion(inv.getArgument(0));
+            dto.setPrecioPorNoche(100.0);
+            return ResponseEntity.ok(dto);
+        });
+    }
+
+    // Otra instancia guarda una reserva que el índice de esta instancia todavía no conoce: la comprobación contra la
+    // base de datos al guardar tiene que rechazar tanto la reserva nueva como el cambio de fechas
+    @Test
+    void laReservaDeOtraInstanciaSeRespetaAunqueElIndiceNoLaConozca() {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        reservaRepository.save(Reserva.builder().idCliente(1L).idHabitacion(1L).fechaInicio(manana.plusDays(2))
+                .fechaFin(manana.plusDays(4)).estado("PENDIENTE").montoTotal(200.0).build());
+
+        assertThrows(RuntimeException.class, () -> reservaService.crearReserva(Reserva.builder().idCliente(2L)
+                .idHabitacion(1L).fechaInicio(manana.plusDays(3)).fechaFin(manana.plusDays(5)).build()));
+
+        Reserva propia = reservaService.crearReserva(Reserva.builder().idCliente(2L).idHabitacion(1L)
+                .fechaInicio(manana.plusDays(6)).fechaFin(manana.plusDays(7)).build());
+        Reserva cambio = Reserva.builder().idCliente(2L).idHabitacion(1L).fechaInicio(manana.plusDays(4))
+                .fechaFin(manana.plusDays(7)).build();
+        assertThrows(RuntimeException.class, () -> reservaService.actualizarReserva(propia.getIdReserva(), cambio));
+
+        // Sus propias fechas no cuentan como conflicto
+        Reserva acortada = Reserva.builder().idCliente(2L).idHabitacion(1L).fechaInicio(manana.plusDays(6))
+                .fechaFin(manana.plusDays(6)).build();
+        assertEquals(manana.plusDays(6),
+                reservaService.actualizarReserva(propia.getIdReserva(), acortada).getFechaFin());
+        assertEquals(2, reservaRepository.count());
+    }
+
+    @Test
+    void reservasConcurrentesNoProducenDobleReserva() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        LocalDate manana = LocalDate.now().plusDays(1);
+
+        for (int i = 0; i < RESERVAS; i++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDate fechaInicio = manana.plusDays(random.nextInt(90));
+                Reserva reserva = Reserva.builder()
+                        .idCliente(1L + random.nextInt(500))
+                        .idHabitacion(1L + random.nextInt(HABITACIONES))
+                        .fechaInicio(fechaInicio)
+                        .fechaFin(fechaInicio.plusDays(1 + random.nextInt(7)))
+                        .build();
+                try {
+                    inicio.await();
+                    reservaService.crearReserva(reserva);
+                    exitosas.incrementAndGet();
+                } catch (RuntimeException e) {
+                    rechazadas.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        long t0 = System.nanoTime();
+        inicio.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        double segundos = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("Reservas: %d exitosas, %d rechazadas en %.2f s (%.0f solicitudes/s)%n",
+                exitosas.get(), rechazadas.get(), segundos, RESERVAS / segundos);
+
+        List<Reserva> guardadas = reservaRepository.findAll();
+        assertEquals(exitosas.get(), guardadas.size());
+        assertEquals(RESERVAS, exitosas.get() + rechazadas.get());
+
+        Map<Long, List<Reserva>> porHabitacion = guardadas.stream()
+                .collect(Collectors.groupingBy(Reserva::getIdHabitacion));
+        List<String> dobles = new ArrayList<>();
+        porHabitacion.forEach((idHabitacion, reservas) -> {
+            reservas.sort(Comparator.comparing(Reserva::getFechaInicio));
+            for (int i = 1; i < reservas.size(); i++) {
+                if (!reservas.get(i).getFechaInicio().isAfter(reservas.get(i - 1).getFechaFin())) {
+                    dobles.add("habitación " + idHabitacion + ": reservas " + reservas.get(i - 1).getIdReserva()
+                            + " y " + reservas.get(i).getIdReserva());
+                }
+            }
+        });
+        assertTrue(dobles.isEmpty(), "Doble reserva detectada: " + dobles);
+    }
+}
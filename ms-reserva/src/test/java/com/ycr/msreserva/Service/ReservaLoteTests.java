@@ -0,0 +1,123 @@
+package com.ycr.msreserva.Service;
+
+import com.ycr.msreserva.Entity.DisponibilidadOutbox;
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.DisponibilidadOutboxRepository;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.cache.ClienteCache;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.dtos.ReservaLoteResultado;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.index.ReservaIndexSincronizador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ReservaLoteTests {
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private DisponibilidadOutboxRepository outboxRepository;
+    @Autowired
+    private ReservaIndexSincronizador sincronizador;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    private ClienteCache clienteCache;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    @BeforeEach
+    void configurarServicios() {
+        reservaRepository.deleteAll();
+        outboxRepository.deleteAll();
+        sincronizador.cargarIndice();
+        habitacionCache.invalidarTodo();
+        clienteCache.invalidarTodo();
+        ClienteDTO cliente = new ClienteDTO();
+        cliente.setIdCliente(1L);
+        HabitacionDTO habitacion = new HabitacionDTO();
+        habitacion.setIdHabitacion(10L);
+        habitacion.setPrecioPorNoche(80.0);
+        when(clienteFeign.obtenerClientesPorIds(anyList())).thenReturn(ResponseEntity.ok(List.of(cliente)));
+        when(habitacionFeign.obtenerHabitacionesPorIds(anyList())).thenReturn(ResponseEntity.ok(List.of(habitacion)));
+    }
+
+    private static Reserva reserva(long idCliente, long idHabitacion, LocalDate inicio, LocalDate fin) {
+        return Reserva.builder().idCliente(idCliente).idHabitacion(idHabitacion).fechaInicio(inicio).fechaFin(fin).build();
+    }
+
+    @Test
+    void devuelveUnResultadoPorElementoYGuardaSoloLosValidos() {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        List<ReservaLoteResultado> resultados = reservaService.crearReservasLote(List.of(
+                reserva(1, 10, manana, manana.plusDays(2)),
+                reserva(1, 10, manana.plusDays(2), manana.plusDays(4)),
+                reserva(2, 10, manana.plusDays(5), manana.plusDays(6)),
+                reserva(1, 99, manana, manana.plusDays(1)),
+                reserva(1, 10, manana.minusDays(3), manana.minusDays(2)),
+                reserva(1, 10, manana.plusDays(3), manana.plusDays(5))));
+
+        assertEquals(6, resultados.size());
+        assertTrue(resultados.get(0).isExitosa());
+        assertEquals(160.0, resultados.get(0).getReserva().getMontoTotal());
+        assertFalse(resultados.get(1).isExitosa());
+        assertFalse(resultados.get(2).isExitosa());
+        assertFalse(resultados.get(3).isExitosa());
+        assertFalse(resultados.get(4).isExitosa());
+        assertTrue(resultados.get(5).isExitosa());
+        assertEquals(2, reservaRepository.count());
+
+        verify(clienteFeign, times(1)).obtenerClientesPorIds(any());
+        verify(habitacionFeign, times(1)).obtenerHabitacionesPorIds(any());
+        verify(habitacionFeign, never()).cambiarDisponibilidad(anyLong(), anyBoolean());
+        List<DisponibilidadOutbox> outbox = outboxRepository.findAll();
+        assertEquals(1, outbox.size());
+        assertEquals(10L, outbox.get(0).getIdHabitacion());
+        assertFalse(outbox.get(0).getDisponible());
+    }
+
+    // Una reserva guardada por otra instancia no llega al índice hasta la verificación de consistencia
+    @Test
+    void rechazaLoQueSeCruzaConReservasQueElIndiceNoConoce() {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        Reserva otraInstancia = reserva(1, 10, manana.plusDays(1), manana.plusDays(2));
+        otraInstancia.setEstado("CONFIRMADA");
+        reservaRepository.save(otraInstancia);
+
+        List<ReservaLoteResultado> resultados = reservaService.crearReservasLote(List.of(
+                reserva(1, 10, manana, manana.plusDays(1)),
+                reserva(1, 10, manana.plusDays(3), manana.plusDays(4))));
+
+        assertFalse(resultados.get(0).isExitosa());
+        assertTrue(resultados.get(1).isExitosa());
+        assertEquals(2, reservaRepository.count());
+    }
+}
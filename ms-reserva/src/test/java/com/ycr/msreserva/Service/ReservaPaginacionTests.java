@@ -0,0 +1,127 @@
+package com.ycr.msreserva.Service;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.dtos.PaginaReservas;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.index.ReservaIndexSincronizador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ReservaPaginacionTests {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 3, 1);
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private ReservaIndexSincronizador sincronizador;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    @BeforeEach
+    void cargarReservas() {
+        reservaRepository.deleteAll();
+        List<Reserva> reservas = new ArrayList<>();
+        // Fechas de inicio desordenadas respecto al id, con varias reservas el mismo día
+        for (int i = 0; i < 25; i++) {
+            LocalDate inicio = BASE.plusDays((i * 7) % 10);
+            reservas.add(Reserva.builder()
+                    .idCliente(1L + i % 3)
+                    .idHabitacion(100L + i)
+                    .fechaInicio(inicio)
+                    .fechaFin(inicio.plusDays(1))
+                    .estado(i % 2 == 0 ? "PENDIENTE" : "CONFIRMADA")
+                    .montoTotal(100.0)
+                    .fechaCreacion(LocalDateTime.now())
+                    .build());
+        }
+        reservaRepository.saveAll(reservas);
+        sincronizador.cargarIndice();
+    }
+
+    @Test
+    void recorreTodasLasReservasPorCursorSinRepetirNiSaltar() {
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaReservas pagina = reservaService.obtenerTodasLasReservas(cursor, 10);
+            pagina.getReservas().forEach(r -> vistos.add(r.getIdReserva()));
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(3, paginas);
+        assertEquals(25, vistos.size());
+        assertEquals(reservaRepository.findAll().stream().map(Reserva::getIdReserva).sorted().toList(), vistos);
+    }
+
+    @Test
+    void filtrosPorEstadoYClienteTambienSePaginan() {
+        PaginaReservas primera = reservaService.obtenerReservasPorEstado("PENDIENTE", null, 10);
+        PaginaReservas segunda = reservaService.obtenerReservasPorEstado("PENDIENTE", primera.getSiguienteCursor(), 10);
+        assertEquals(10, primera.getReservas().size());
+        assertEquals(3, segunda.getReservas().size());
+        assertNull(segunda.getSiguienteCursor());
+
+        PaginaReservas cliente = reservaService.obtenerReservasPorCliente(1L, null, 100);
+        assertEquals(9, cliente.getReservas().size());
+        assertTrue(cliente.getReservas().stream().allMatch(r -> r.getIdCliente() == 1L));
+    }
+
+    @Test
+    void rangoDeFechasSePaginaEnOrdenDeFechaInicio() {
+        List<Reserva> vistas = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaReservas pagina = reservaService.obtenerReservasPorRangoFechas(BASE.plusDays(2), BASE.plusDays(8), cursor, 4);
+            vistas.addAll(pagina.getReservas());
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        List<Reserva> esperadas = reservaRepository.findByFechaInicioBetween(BASE.plusDays(2), BASE.plusDays(8));
+        assertEquals(esperadas.size(), vistas.size());
+        for (int i = 1; i < vistas.size(); i++) {
+            Reserva anterior = vistas.get(i - 1);
+            Reserva actual = vistas.get(i);
+            assertTrue(anterior.getFechaInicio().isBefore(actual.getFechaInicio())
+                    || (anterior.getFechaInicio().equals(actual.getFechaInicio()) && anterior.getIdReserva() < actual.getIdReserva()));
+        }
+    }
+
+    @Test
+    void cursorInvalidoSeRechaza() {
+        assertThrows(RuntimeException.class, () -> reservaService.obtenerTodasLasReservas("no-es-un-cursor!", 10));
+        assertThrows(RuntimeException.class, () -> reservaService.obtenerTodasLasReservas(null, 0));
+    }
+
+    @Test
+    void exportarRecorreTodasLasReservas() {
+        List<Long> exportadas = new ArrayList<>();
+        long total = reservaService.exportarReservas(null, r -> exportadas.add(r.getIdReserva()));
+        assertEquals(25, total);
+        assertEquals(25, exportadas.size());
+
+        assertEquals(12, reservaService.exportarReservas("CONFIRMADA", r -> { }));
+    }
+}
@@ -0,0 +1,178 @@
+package com.ycr.msreserva.Service;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.Repository.ResumenDiarioRepository;
+import com.ycr.msreserva.cache.ClienteCache;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.dtos.ResumenDiarioDTO;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.index.ReservaIndexSincronizador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ResumenDiarioTests {
+
+    private static final LocalDate LLEGADA = LocalDate.now().plusDays(30);
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private AnaliticaService analiticaService;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private ResumenDiarioRepository resumenRepository;
+    @Autowired
+    private ReservaIndexSincronizador sincronizador;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private ThreadPoolTaskExecutor resumenExecutor;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    @BeforeEach
+    void configurarServicios() throws InterruptedException {
+        reservaRepository.deleteAll();
+        esperarResumen();
+        resumenRepository.deleteAll();
+        sincronizador.cargarIndice();
+        habitacionCache.invalidarTodo();
+        clienteCache.invalidarTodo();
+        when(clienteFeign.obtenerClientePorId(anyLong())).thenAnswer(inv -> {
+            ClienteDTO dto = new ClienteDTO();
+            dto.setIdCliente(inv.getArgument(0));
+            return ResponseEntity.ok(dto);
+        });
+        when(habitacionFeign.obtenerHabitacionPorId(anyLong())).thenAnswer(inv -> ResponseEntity.ok(habitacion(inv.getArgument(0))));
+        when(habitacionFeign.obtenerHabitacionesPorIds(ArgumentMatchers.<Long>anyList())).thenAnswer(inv -> {
+            List<Long> ids = inv.getArgument(0);
+            return ResponseEntity.ok(ids.stream().map(ResumenDiarioTests::habitacion).toList());
+        });
+    }
+
+    // Habitaciones pares son SUITE a 200 por noche, impares DOBLE a 100
+    private static HabitacionDTO habitacion(Long id) {
+        HabitacionDTO dto = new HabitacionDTO();
+        dto.setIdHabitacion(id);
+        dto.setTipo(id % 2 == 0 ? "SUITE" : "DOBLE");
+        dto.setPrecioPorNoche(id % 2 == 0 ? 200.0 : 100.0);
+        return dto;
+    }
+
+    // Los deltas se aplican en segundo plano: esperar a que la cola del resumen quede vacía
+    private void esperarResumen() throws InterruptedException {
+        long limite = System.currentTimeMillis() + 60_000;
+        while (resumenExecutor.getQueueSize() > 0 || resumenExecutor.getActiveCount() > 0) {
+            if (System.currentTimeMillis() > limite) {
+                throw new IllegalStateException("El resumen diario no terminó de procesar los cambios");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private Reserva reservar(long idHabitacion, LocalDate inicio, int noches) {
+        return reservaService.crearReserva(Reserva.builder()
+                .idCliente(1L).idHabitacion(idHabitacion).fechaInicio(inicio).fechaFin(inicio.plusDays(noches)).build());
+    }
+
+    @Test
+    void seActualizaAlCrearCambiarYCancelar() throws InterruptedException {
+        reservar(2L, LLEGADA, 3);
+        Reserva doble = reservar(1L, LLEGADA, 2);
+        Reserva cancelada = reservar(3L, LLEGADA.plusDays(1), 1);
+        reservaService.cambiarEstado(cancelada.getIdReserva(), "CANCELADA");
+        reservaService.cambiarEstado(doble.getIdReserva(), "CONFIRMADA");
+        esperarResumen();
+
+        List<ResumenDiarioDTO> totales = analiticaService.obtenerResumenDiario(LLEGADA, LLEGADA.plusDays(5), null);
+        assertEquals(3, totales.size());
+        ResumenDiarioDTO dia0 = totales.get(0);
+        assertEquals(2L, dia0.getHabitacionesOcupadas());
+        assertEquals(5L, dia0.getNochesVendidas());
+        assertEquals(800.0, dia0.getIngresos());
+        ResumenDiarioDTO dia1 = totales.get(1);
+        assertEquals(2L, dia1.getHabitacionesOcupadas());
+        assertEquals(1L, dia1.getCancelaciones());
+        assertEquals(0L, dia1.getNochesVendidas());
+        assertEquals(1L, totales.get(2).getHabitacionesOcupadas());
+
+        List<ResumenDiarioDTO> suites = analiticaService.obtenerResumenDiario(LLEGADA, LLEGADA.plusDays(5), "SUITE");
+        assertEquals(3, suites.size());
+        assertEquals(600.0, suites.get(0).getIngresos());
+    }
+
+    @Test
+    void reconstruirCoincideConLoAcumulado() throws InterruptedException {
+        Reserva primera = reservar(2L, LLEGADA, 3);
+        reservar(1L, LLEGADA.plusDays(2), 4);
+        Reserva movida = reservar(4L, LLEGADA, 2);
+        movida.setFechaInicio(LLEGADA.plusDays(5));
+        movida.setFechaFin(LLEGADA.plusDays(7));
+        reservaService.actualizarReserva(movida.getIdReserva(), movida);
+        reservaService.cambiarEstado(primera.getIdReserva(), "CANCELADA");
+        esperarResumen();
+
+        List<ResumenDiarioDTO> acumulado = analiticaService.obtenerResumenDiario(LLEGADA, LLEGADA.plusDays(10), null);
+        analiticaService.reconstruirResumen();
+        List<ResumenDiarioDTO> reconstruido = analiticaService.obtenerResumenDiario(LLEGADA, LLEGADA.plusDays(10), null);
+
+        assertEquals(reconstruido, acumulado.stream()
+                .filter(r -> r.getHabitacionesOcupadas() != 0 || r.getNochesVendidas() != 0
+                        || r.getIngresos() != 0 || r.getCancelaciones() != 0)
+                .toList());
+    }
+
+    // La reconstrucción se encola detrás de los deltas pendientes: el de una reserva ya incluida en la
+    // reconstrucción no se suma dos veces
+    @Test
+    void reconstruirNoSeSolapaConLosDeltasPendientes() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        resumenExecutor.execute(() -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        reservar(2L, LLEGADA, 3);
+        CompletableFuture<Integer> reconstruccion = CompletableFuture.supplyAsync(analiticaService::reconstruirResumen);
+        long limite = System.currentTimeMillis() + 10_000;
+        while (resumenExecutor.getQueueSize() < 2 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        liberar.countDown();
+        reconstruccion.get(30, TimeUnit.SECONDS);
+        esperarResumen();
+
+        List<ResumenDiarioDTO> totales = analiticaService.obtenerResumenDiario(LLEGADA, LLEGADA.plusDays(5), null);
+        assertEquals(3, totales.size());
+        assertEquals(1L, totales.get(0).getHabitacionesOcupadas());
+        assertEquals(3L, totales.get(0).getNochesVendidas());
+    }
+}
@@ -0,0 +1,123 @@
+package com.ycr.msreserva.Service;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.cache.ClienteCache;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.index.ReservaIndexSincronizador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Compara la latencia de crearReserva con las validaciones remotas en serie y en paralelo,
+// usando stubs de ms-cliente y ms-habitacion con una latencia fija. Cada iteración usa un cliente y una habitación
+// nuevos para que ClienteCache y HabitacionCache no se salten ninguna de las dos llamadas.
+@SpringBootTest
+class ValidacionesParalelasBenchmarkTests {
+
+    private static final long LATENCIA_REMOTA_MS = 25;
+    private static final int ITERACIONES = 60;
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private ReservaIndexSincronizador sincronizador;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    private ClienteCache clienteCache;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    private long siguienteHabitacion = 10_000;
+    private long siguienteCliente = 10_000;
+
+    @BeforeEach
+    void configurarServicios() {
+        reservaRepository.deleteAll();
+        sincronizador.cargarIndice();
+        habitacionCache.invalidarTodo();
+        clienteCache.invalidarTodo();
+        when(clienteFeign.obtenerClientePorId(anyLong())).thenAnswer(inv -> {
+            Thread.sleep(LATENCIA_REMOTA_MS);
+            ClienteDTO dto = new ClienteDTO();
+            dto.setIdCliente(inv.getArgument(0));
+            return ResponseEntity.ok(dto);
+        });
+        when(habitacionFeign.obtenerHabitacionPorId(anyLong())).thenAnswer(inv -> {
+            Thread.sleep(LATENCIA_REMOTA_MS);
+            HabitacionDTO dto = new HabitacionDTO();
+            dto.setIdHabitacion(inv.getArgument(0));
+            dto.setPrecioPorNoche(100.0);
+            return ResponseEntity.ok(dto);
+        });
+    }
+
+    @AfterEach
+    void restaurarModo() {
+        ReflectionTestUtils.setField(reservaService, "validacionesParalelas", true);
+    }
+
+    @Test
+    void validacionesEnParaleloReducenLaLatencia() {
+        medir(false, 10);
+        long[] serie = medir(false, ITERACIONES);
+        medir(true, 10);
+        long[] paralelo = medir(true, ITERACIONES);
+
+        System.out.printf("crearReserva en serie:    p50=%.1f ms p99=%.1f ms%n", percentil(serie, 50), percentil(serie, 99));
+        System.out.printf("crearReserva en paralelo: p50=%.1f ms p99=%.1f ms%n", percentil(paralelo, 50), percentil(paralelo, 99));
+
+        int llamadas = 20 + 2 * ITERACIONES;
+        verify(clienteFeign, times(llamadas)).obtenerClientePorId(anyLong());
+        verify(habitacionFeign, times(llamadas)).obtenerHabitacionPorId(anyLong());
+        assertTrue(percentil(paralelo, 50) < percentil(serie, 50));
+    }
+
+    private long[] medir(boolean paralelas, int iteraciones) {
+        ReflectionTestUtils.setField(reservaService, "validacionesParalelas", paralelas);
+        long[] latencias = new long[iteraciones];
+        LocalDate manana = LocalDate.now().plusDays(1);
+        for (int i = 0; i < iteraciones; i++) {
+            Reserva reserva = Reserva.builder()
+                    .idCliente(siguienteCliente++)
+                    .idHabitacion(siguienteHabitacion++)
+                    .fechaInicio(manana)
+                    .fechaFin(manana.plusDays(2))
+                    .build();
+            long t0 = System.nanoTime();
+            reservaService.crearReserva(reserva);
+            latencias[i] = System.nanoTime() - t0;
+        }
+        return latencias;
+    }
+
+    private static double percentil(long[] latencias, int percentil) {
+        long[] ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ycr.msreserva.cache;
+
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.feign.ClienteFeign;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClienteCacheTests {
+
+    private static ClienteDTO cliente(long id) {
+        ClienteDTO dto = new ClienteDTO();
+        dto.setIdCliente(id);
+        return dto;
+    }
+
+    private static ClienteCache cache(ClienteFeign feign) {
+        return new ClienteCache(feign, new SimpleMeterRegistry(), Duration.ofMinutes(10), Duration.ofSeconds(30), 100);
+    }
+
+    @Test
+    void guardaClientesEncontradosYNoEncontrados() {
+        ClienteFeign feign = mock(ClienteFeign.class);
+        when(feign.obtenerClientePorId(1L)).thenReturn(ResponseEntity.ok(cliente(1)));
+        when(feign.obtenerClientePorId(2L)).thenReturn(ResponseEntity.notFound().build());
+        ClienteCache cache = cache(feign);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.OK, cache.obtenerClientePorId(1L).getStatusCode());
+            assertEquals(HttpStatus.NOT_FOUND, cache.obtenerClientePorId(2L).getStatusCode());
+        }
+        verify(feign, times(1)).obtenerClientePorId(1L);
+        verify(feign, times(1)).obtenerClientePorId(2L);
+    }
+
+    @Test
+    void noGuardaLaRespuestaDeFallback() {
+        ClienteFeign feign = mock(ClienteFeign.class);
+        when(feign.obtenerClientePorId(3L)).thenReturn(ResponseEntity.ok(cliente(0)));
+        ClienteCache cache = cache(feign);
+
+        cache.obtenerClientePorId(3L);
+        cache.obtenerClientePorId(3L);
+        verify(feign, times(2)).obtenerClientePorId(3L);
+    }
+
+    @Test
+    void enLoteGuardaComoNoEncontradosLosQueNoVienenEnLaRespuesta() {
+        ClienteFeign feign = mock(ClienteFeign.class);
+        when(feign.obtenerClientesPorIds(List.of(1L, 2L))).thenReturn(ResponseEntity.ok(List.of(cliente(1))));
+        ClienteCache cache = cache(feign);
+
+        assertEquals(1, cache.obtenerClientesPorIds(List.of(1L, 2L)).getBody().size());
+        assertEquals(HttpStatus.NOT_FOUND, cache.obtenerClientePorId(2L).getStatusCode());
+        assertEquals(HttpStatus.OK, cache.obtenerClientePorId(1L).getStatusCode());
+        verify(feign, times(0)).obtenerClientePorId(1L);
+        verify(feign, times(0)).obtenerClientePorId(2L);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ycr.msreserva.cache;
+
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HabitacionCacheTests {
+
+    private static HabitacionDTO habitacion(long id, double precio) {
+        HabitacionDTO dto = new HabitacionDTO();
+        dto.setIdHabitacion(id);
+        dto.setPrecioPorNoche(precio);
+        return dto;
+    }
+
+    @Test
+    void guardaLaRespuestaHastaQueSeInvalida() {
+        HabitacionFeign feign = mock(HabitacionFeign.class);
+        when(feign.obtenerHabitacionPorId(1L))
+                .thenReturn(ResponseEntity.ok(habitacion(1, 100)))
+                .thenReturn(ResponseEntity.ok(habitacion(1, 120)));
+        HabitacionCache cache = new HabitacionCache(feign, new SimpleMeterRegistry(), Duration.ofMinutes(10), 100);
+
+        assertEquals(100.0, cache.obtenerHabitacionPorId(1L).getBody().getPrecioPorNoche());
+        assertEquals(100.0, cache.obtenerHabitacionPorId(1L).getBody().getPrecioPorNoche());
+        cache.invalidar(1L);
+        assertEquals(120.0, cache.obtenerHabitacionPorId(1L).getBody().getPrecioPorNoche());
+        verify(feign, times(2)).obtenerHabitacionPorId(1L);
+    }
+
+    @Test
+    void noGuardaLaRespuestaDeFallback() {
+        HabitacionFeign feign = mock(HabitacionFeign.class);
+        when(feign.obtenerHabitacionPorId(2L)).thenReturn(ResponseEntity.ok(habitacion(0, 0)));
+        HabitacionCache cache = new HabitacionCache(feign, new SimpleMeterRegistry(), Duration.ofMinutes(10), 100);
+
+        cache.obtenerHabitacionPorId(2L);
+        cache.obtenerHabitacionPorId(2L);
+        verify(feign, times(2)).obtenerHabitacionPorId(2L);
+    }
+
+    @Test
+    void enLotePideSoloLasQueNoEstanEnCache() {
+        HabitacionFeign feign = mock(HabitacionFeign.class);
+        when(feign.obtenerHabitacionPorId(1L)).thenReturn(ResponseEntity.ok(habitacion(1, 100)));
+        when(feign.obtenerHabitacionesPorIds(List.of(2L))).thenReturn(ResponseEntity.ok(List.of(habitacion(2, 50))));
+        HabitacionCache cache = new HabitacionCache(feign, new SimpleMeterRegistry(), Duration.ofMinutes(10), 100);
+
+        cache.obtenerHabitacionPorId(1L);
+        assertEquals(2, cache.obtenerHabitacionesPorIds(List.of(1L, 2L)).getBody().size());
+        verify(feign, times(1)).obtenerHabitacionesPorIds(List.of(2L));
+    }
+}
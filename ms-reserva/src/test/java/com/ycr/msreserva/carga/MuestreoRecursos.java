@@ -0,0 +1,56 @@
+package com.ycr.msreserva.carga;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Muestrea el heap y los hilos de plataforma de la JVM durante la prueba de carga, para comparar el coste
+// de memoria del modo de hilos de plataforma con el de hilos virtuales (que no aparecen en ThreadMXBean).
+class MuestreoRecursos implements AutoCloseable {
+
+    private static final long MB = 1024 * 1024;
+
+    private final MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService muestreo = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "muestreo-recursos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private volatile long heapMaximo;
+    private volatile long heapSuma;
+    private volatile long muestras;
+
+    MuestreoRecursos() {
+        System.gc();
+        hilos.resetPeakThreadCount();
+        muestreo.scheduleAtFixedRate(this::muestrear, 0, 100, TimeUnit.MILLISECONDS);
+    }
+
+    private void muestrear() {
+        long usado = memoria.getHeapMemoryUsage().getUsed();
+        heapMaximo = Math.max(heapMaximo, usado);
+        heapSuma += usado;
+        muestras++;
+    }
+
+    Map<String, Object> resumen() {
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("heapMaximoMb", heapMaximo / MB);
+        resumen.put("heapMedioMb", muestras == 0 ? 0 : heapSuma / muestras / MB);
+        resumen.put("heapComprometidoMb", memoria.getHeapMemoryUsage().getCommitted() / MB);
+        resumen.put("noHeapMb", memoria.getNonHeapMemoryUsage().getUsed() / MB);
+        resumen.put("hilosPlataformaPico", hilos.getPeakThreadCount());
+        return resumen;
+    }
+
+    @Override
+    public void close() {
+        muestreo.shutdownNow();
+    }
+}
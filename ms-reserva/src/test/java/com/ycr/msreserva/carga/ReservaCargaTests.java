@@ -0,0 +1,389 @@
+package com.ycr.msreserva.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ycr.msreserva.Repository.DisponibilidadOutboxRepository;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prueba de carga de extremo a extremo: levanta ms-reserva en un puerto real con H2 y sustituye ms-cliente y
+// ms-habitacion por ServiciosSimulados, de modo que las llamadas recorren Feign, el balanceador y los circuit breakers.
+// Se excluye de "mvn test"; se lanza con el perfil carga:
+//   ./mvnw -P carga test -Dcarga.rps=300 -Dcarga.duracion-s=60 -Dcarga.latencia-ms=20 -Dcarga.tasa-fallos=0.05
+// Con -Dcarga.hilos-virtuales=true activa el perfil virtual de config-data (Java 21+). El informe se imprime por consola
+// y se guarda en target/carga-resultado-<modo>.json; si ya existe el del otro modo, se imprime la comparación de
+// throughput, latencia y memoria entre hilos de plataforma y virtuales.
+@Tag("carga")
+@ActiveProfiles(resolver = ReservaCargaTests.ModoHilos.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.import=optional:file:../config-data/ms-reserva.yml",
+        "spring.datasource.url=jdbc:h2:mem:ms_reserva_carga;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "eureka.client.enabled=false",
+        "reservas.outbox.intervalo-ms=1000"
+})
+class ReservaCargaTests {
+
+    private static final int RPS = Integer.getInteger("carga.rps", 200);
+    private static final int DURACION_S = Integer.getInteger("carga.duracion-s", 30);
+    private static final int CALENTAMIENTO_S = Integer.getInteger("carga.calentamiento-s", 5);
+    private static final int HABITACIONES = Integer.getInteger("carga.habitaciones", 200);
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 1000);
+    private static final long LATENCIA_MS = Long.getLong("carga.latencia-ms", 20);
+    private static final double TASA_FALLOS = Double.parseDouble(System.getProperty("carga.tasa-fallos", "0.0"));
+
+    private static final ServiciosSimulados SERVICIOS;
+
+    static {
+        try {
+            SERVICIOS = new ServiciosSimulados(LATENCIA_MS, TASA_FALLOS, HABITACIONES);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo iniciar ServiciosSimulados", e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void serviciosRemotos(DynamicPropertyRegistry registro) {
+        registro.add("spring.cloud.discovery.client.simple.instances.ms-cliente[0].uri", SERVICIOS::url);
+        registro.add("spring.cloud.discovery.client.simple.instances.ms-habitacion[0].uri", SERVICIOS::url);
+    }
+
+    @AfterAll
+    static void detenerServicios() {
+        SERVICIOS.close();
+    }
+
+    @LocalServerPort
+    private int puerto;
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private DisponibilidadOutboxRepository outboxRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void cargaSostenidaSobreLosEndpointsDeReservas() throws Exception {
+        // El calentamiento deja el JIT, los pools y las cachés en régimen; sus mediciones se descartan
+        if (CALENTAMIENTO_S > 0) {
+            generar((long) RPS * CALENTAMIENTO_S, nuevasMediciones());
+        }
+        Map<String, AtomicLong> aperturas = contarAperturas();
+        Map<String, Medicion> mediciones = nuevasMediciones();
+        long total = (long) RPS * DURACION_S;
+        double segundos;
+        Map<String, Object> recursos;
+        try (MuestreoRecursos muestreo = new MuestreoRecursos()) {
+            segundos = generar(total, mediciones);
+            recursos = muestreo.resumen();
+        }
+
+        String modo = Threading.VIRTUAL.isActive(environment) ? "virtual" : "plataforma";
+        Map<String, Object> informe = informe(modo, mediciones, aperturas, total, segundos, recursos);
+        System.out.println(objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(informe));
+        Files.createDirectories(Path.of("target"));
+        objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", "carga-resultado-" + modo + ".json").toFile(), informe);
+        compararConElOtroModo(modo);
+
+        long respondidas = mediciones.values().stream().mapToLong(Medicion::respondidas).sum();
+        assertEquals(total, respondidas + mediciones.values().stream().mapToLong(Medicion::erroresRed).sum());
+        if (TASA_FALLOS == 0) {
+            long errores = mediciones.values().stream().mapToLong(m -> m.erroresServidor() + m.erroresRed()).sum();
+            assertEquals(0, errores, "Sin fallos inyectados no debería haber respuestas 5xx ni errores de red");
+        }
+        assertTrue(reservaRepository.count() > 0);
+    }
+
+    private static Map<String, Medicion> nuevasMediciones() {
+        Map<String, Medicion> mediciones = new LinkedHashMap<>();
+        for (Operacion operacion : Operacion.values()) {
+            mediciones.put(operacion.nombre, new Medicion());
+        }
+        return mediciones;
+    }
+
+    // Modelo abierto: cada solicitud tiene su instante programado y la latencia se mide desde él,
+    // así un servidor lento no frena al generador y las colas aparecen en los percentiles
+    private double generar(long total, Map<String, Medicion> mediciones) throws Exception {
+        long intervaloNs = TimeUnit.SECONDS.toNanos(1) / RPS;
+        List<CompletableFuture<Void>> enVuelo = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long programado = inicio + i * intervaloNs;
+            long espera = programado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Operacion operacion = Operacion.elegir(ThreadLocalRandom.current().nextInt(100));
+            Medicion medicion = mediciones.get(operacion.nombre);
+            enVuelo.add(cliente.sendAsync(operacion.solicitud(this), HttpResponse.BodyHandlers.discarding())
+                    .handle((respuesta, error) -> {
+                        medicion.registrar(System.nanoTime() - programado,
+                                error == null ? respuesta.statusCode() : -1);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(enVuelo.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        return (System.nanoTime() - inicio) / 1e9;
+    }
+
+    // Cuenta las transiciones a OPEN de cada circuit breaker, incluidos los que se crean durante la prueba
+    private Map<String, AtomicLong> contarAperturas() {
+        Map<String, AtomicLong> aperturas = new ConcurrentHashMap<>();
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(cb -> escucharAperturas(cb, aperturas));
+        circuitBreakerRegistry.getEventPublisher()
+                .onEntryAdded(evento -> escucharAperturas(evento.getAddedEntry(), aperturas));
+        return aperturas;
+    }
+
+    private static void escucharAperturas(CircuitBreaker circuitBreaker, Map<String, AtomicLong> aperturas) {
+        AtomicLong contador = aperturas.computeIfAbsent(circuitBreaker.getName(), nombre -> new AtomicLong());
+        circuitBreaker.getEventPublisher().onStateTransition(evento -> {
+            if (evento.getStateTransition().getToState() == CircuitBreaker.State.OPEN) {
+                contador.incrementAndGet();
+            }
+        });
+    }
+
+    private Map<String, Object> informe(String modo, Map<String, Medicion> mediciones, Map<String, AtomicLong> aperturas,
+                                        long total, double segundos, Map<String, Object> recursos) {
+        Map<String, Object> informe = new LinkedHashMap<>();
+        Map<String, Object> configuracion = new LinkedHashMap<>();
+        configuracion.put("modoHilos", modo);
+        configuracion.put("java", Runtime.version().toString());
+        configuracion.put("rps", RPS);
+        configuracion.put("duracionSegundos", DURACION_S);
+        configuracion.put("calentamientoSegundos", CALENTAMIENTO_S);
+        configuracion.put("habitaciones", HABITACIONES);
+        configuracion.put("clientes", CLIENTES);
+        configuracion.put("latenciaRemotaMs", LATENCIA_MS);
+        configuracion.put("tasaFallosRemotos", TASA_FALLOS);
+        informe.put("configuracion", configuracion);
+        informe.put("solicitudes", total);
+        informe.put("segundos", Math.round(segundos * 100) / 100.0);
+        informe.put("throughput", Math.round(total / segundos * 10) / 10.0);
+
+        Map<String, Object> porEndpoint = new LinkedHashMap<>();
+        mediciones.forEach((nombre, medicion) -> porEndpoint.put(nombre, medicion.resumen(segundos)));
+        informe.put("endpoints", porEndpoint);
+        informe.put("recursos", recursos);
+
+        Map<String, Long> abiertos = new LinkedHashMap<>();
+        aperturas.forEach((nombre, contador) -> {
+            if (contador.get() > 0) {
+                abiertos.put(nombre, contador.get());
+            }
+        });
+        informe.put("aperturasCircuitBreaker", abiertos);
+        informe.put("llamadasRemotas", SERVICIOS.llamadas());
+        informe.put("fallosRemotosInyectados", SERVICIOS.fallosInyectados());
+        informe.put("reservasGuardadas", reservaRepository.count());
+        informe.put("outboxPendiente", outboxRepository.count());
+        return informe;
+    }
+
+    // Imprime, si existe, la comparación con el informe guardado del otro modo de hilos
+    private void compararConElOtroModo(String modo) throws IOException {
+        String otro = modo.equals("virtual") ? "plataforma" : "virtual";
+        Path anterior = Path.of("target", "carga-resultado-" + otro + ".json");
+        if (!Files.exists(anterior)) {
+            return;
+        }
+        JsonNode actual = objectMapper.readTree(Path.of("target", "carga-resultado-" + modo + ".json").toFile());
+        JsonNode previo = objectMapper.readTree(anterior.toFile());
+        JsonNode plataforma = modo.equals("plataforma") ? actual : previo;
+        JsonNode virtual = modo.equals("virtual") ? actual : previo;
+        System.out.printf("%-40s %14s %14s%n", "", "plataforma", "virtual");
+        comparar("rps configurado", plataforma.at("/configuracion/rps"), virtual.at("/configuracion/rps"));
+        comparar("throughput (sol/s)", plataforma.at("/throughput"), virtual.at("/throughput"));
+        for (Operacion operacion : Operacion.values()) {
+            String base = "/endpoints/" + operacion.nombre.replace("/", "~1");
+            comparar(operacion.nombre + " p50 ms", plataforma.at(base + "/p50Ms"), virtual.at(base + "/p50Ms"));
+            comparar(operacion.nombre + " p99 ms", plataforma.at(base + "/p99Ms"), virtual.at(base + "/p99Ms"));
+        }
+        comparar("heap máximo (MB)", plataforma.at("/recursos/heapMaximoMb"), virtual.at("/recursos/heapMaximoMb"));
+        comparar("heap medio (MB)", plataforma.at("/recursos/heapMedioMb"), virtual.at("/recursos/heapMedioMb"));
+        comparar("hilos de plataforma (pico)", plataforma.at("/recursos/hilosPlataformaPico"),
+                virtual.at("/recursos/hilosPlataformaPico"));
+    }
+
+    private static void comparar(String metrica, JsonNode plataforma, JsonNode virtual) {
+        System.out.printf("%-40s %14s %14s%n", metrica, plataforma.asText("-"), virtual.asText("-"));
+    }
+
+    private HttpRequest crearReserva() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate fechaInicio = LocalDate.now().plusDays(1 + random.nextInt(180));
+        String cuerpo = String.format("{\"idCliente\":%d,\"idHabitacion\":%d,\"fechaInicio\":\"%s\",\"fechaFin\":\"%s\"}",
+                1 + random.nextInt(CLIENTES), 1 + random.nextInt(HABITACIONES),
+                fechaInicio, fechaInicio.plusDays(1 + random.nextInt(5)));
+        return HttpRequest.newBuilder(uri("/reservas"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+    }
+
+    private HttpRequest verificarDisponibilidad() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate fechaInicio = LocalDate.now().plusDays(1 + random.nextInt(180));
+        return HttpRequest.newBuilder(uri("/reservas/disponibilidad?idHabitacion=" + (1 + random.nextInt(HABITACIONES))
+                + "&fechaInicio=" + fechaInicio + "&fechaFin=" + fechaInicio.plusDays(1 + random.nextInt(5)))).GET().build();
+    }
+
+    private HttpRequest listarReservas() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String ruta = switch (random.nextInt(3)) {
+            case 0 -> "/reservas?limite=50";
+            case 1 -> "/reservas/habitacion/" + (1 + random.nextInt(HABITACIONES));
+            default -> "/reservas/cliente/" + (1 + random.nextInt(CLIENTES));
+        };
+        return HttpRequest.newBuilder(uri(ruta)).GET().build();
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://127.0.0.1:" + puerto + ruta);
+    }
+
+    private enum Operacion {
+        CREAR("POST /reservas", 50),
+        DISPONIBILIDAD("GET /reservas/disponibilidad", 30),
+        LISTAR("GET /reservas (listados)", 20);
+
+        private final String nombre;
+        private final int peso;
+
+        Operacion(String nombre, int peso) {
+            this.nombre = nombre;
+            this.peso = peso;
+        }
+
+        static Operacion elegir(int tirada) {
+            for (Operacion operacion : values()) {
+                if (tirada < operacion.peso) {
+                    return operacion;
+                }
+                tirada -= operacion.peso;
+            }
+            return LISTAR;
+        }
+
+        HttpRequest solicitud(ReservaCargaTests prueba) {
+            return switch (this) {
+                case CREAR -> prueba.crearReserva();
+                case DISPONIBILIDAD -> prueba.verificarDisponibilidad();
+                case LISTAR -> prueba.listarReservas();
+            };
+        }
+    }
+
+    // Activa el perfil virtual de config-data cuando se pide -Dcarga.hilos-virtuales=true
+    static class ModoHilos implements ActiveProfilesResolver {
+
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return Boolean.getBoolean("carga.hilos-virtuales") ? new String[]{"virtual"} : new String[0];
+        }
+    }
+
+    // Latencias y códigos de estado de una operación; -1 marca un error de red
+    private static class Medicion {
+        private final ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+        private final Map<Integer, AtomicLong> estados = new ConcurrentHashMap<>();
+
+        void registrar(long latenciaNs, int estado) {
+            latencias.add(latenciaNs);
+            estados.computeIfAbsent(estado, e -> new AtomicLong()).incrementAndGet();
+        }
+
+        long respondidas() {
+            return estados.entrySet().stream().filter(e -> e.getKey() > 0).mapToLong(e -> e.getValue().get()).sum();
+        }
+
+        long erroresServidor() {
+            return estados.entrySet().stream().filter(e -> e.getKey() >= 500).mapToLong(e -> e.getValue().get()).sum();
+        }
+
+        long erroresRed() {
+            AtomicLong errores = estados.get(-1);
+            return errores == null ? 0 : errores.get();
+        }
+
+        Map<String, Object> resumen(double segundos) {
+            long[] ordenadas = latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> resumen = new LinkedHashMap<>();
+            resumen.put("solicitudes", ordenadas.length);
+            resumen.put("throughput", Math.round(ordenadas.length / segundos * 10) / 10.0);
+            resumen.put("p50Ms", percentil(ordenadas, 50));
+            resumen.put("p95Ms", percentil(ordenadas, 95));
+            resumen.put("p99Ms", percentil(ordenadas, 99));
+            resumen.put("maxMs", ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1] / 1e6);
+            Map<String, Long> codigos = new LinkedHashMap<>();
+            estados.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(e -> codigos.put(e.getKey() < 0 ? "error" : String.valueOf(e.getKey()), e.getValue().get()));
+            resumen.put("estados", codigos);
+            return resumen;
+        }
+
+        private static double percentil(long[] ordenadas, int percentil) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+            return Math.round(ordenadas[Math.max(indice, 0)] / 1e4) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.ycr.msreserva.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sustituto HTTP de ms-cliente y ms-habitacion para las pruebas de carga.
+// Responde a las rutas que usan ClienteFeign y HabitacionFeign con una latencia y una tasa de fallos configurables,
+// así las llamadas pasan por Feign, el balanceador y los circuit breakers igual que en producción.
+class ServiciosSimulados implements AutoCloseable {
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latenciaMs;
+    private final double tasaFallos;
+    private final int habitaciones;
+    private final AtomicLong llamadas = new AtomicLong();
+    private final AtomicLong fallosInyectados = new AtomicLong();
+
+    ServiciosSimulados(long latenciaMs, double tasaFallos, int habitaciones) throws IOException {
+        this.latenciaMs = latenciaMs;
+        this.tasaFallos = tasaFallos;
+        this.habitaciones = habitaciones;
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/clientes", this::clientes);
+        servidor.createContext("/habitaciones", this::habitaciones);
+        servidor.setExecutor(hilos);
+        servidor.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    long llamadas() {
+        return llamadas.get();
+    }
+
+    long fallosInyectados() {
+        return fallosInyectados.get();
+    }
+
+    private void clientes(HttpExchange intercambio) throws IOException {
+        if (simular(intercambio)) {
+            return;
+        }
+        String ruta = intercambio.getRequestURI().getPath();
+        if (ruta.equals("/clientes/por-ids")) {
+            List<Map<String, Object>> clientes = new ArrayList<>();
+            for (Number id : leerIds(intercambio)) {
+                clientes.add(cliente(id.longValue()));
+            }
+            responder(intercambio, 200, clientes);
+        } else {
+            responder(intercambio, 200, cliente(ultimoSegmento(ruta)));
+        }
+    }
+
+    private void habitaciones(HttpExchange intercambio) throws IOException {
+        if (simular(intercambio)) {
+            return;
+        }
+        String ruta = intercambio.getRequestURI().getPath();
+        if (ruta.equals("/habitaciones") || ruta.equals("/habitaciones/")) {
+            List<Map<String, Object>> todas = new ArrayList<>();
+            for (long id = 1; id <= habitaciones; id++) {
+                todas.add(habitacion(id));
+            }
+            responder(intercambio, 200, todas);
+        } else if (ruta.equals("/habitaciones/por-ids")) {
+            List<Map<String, Object>> encontradas = new ArrayList<>();
+            for (Number id : leerIds(intercambio)) {
+                if (id.longValue() <= habitaciones) {
+                    encontradas.add(habitacion(id.longValue()));
+                }
+            }
+            responder(intercambio, 200, encontradas);
+        } else if (ruta.equals("/habitaciones/disponibilidad/lote")) {
+            List<Long> actualizadas = new ArrayList<>();
+            for (Object cambio : objectMapper.readValue(intercambio.getRequestBody(), List.class)) {
+                actualizadas.add(((Number) ((Map<?, ?>) cambio).get("idHabitacion")).longValue());
+            }
+            responder(intercambio, 200, Map.of("actualizadas", actualizadas, "noEncontradas", List.of()));
+        } else if (ruta.endsWith("/disponibilidad")) {
+            responder(intercambio, 200, habitacion(Long.parseLong(ruta.split("/")[2])));
+        } else {
+            long id = ultimoSegmento(ruta);
+            if (id > habitaciones) {
+                responder(intercambio, 404, null);
+            } else {
+                responder(intercambio, 200, habitacion(id));
+            }
+        }
+    }
+
+    // Aplica la latencia y, con probabilidad tasaFallos, responde 503; devuelve true si ya respondió
+    private boolean simular(HttpExchange intercambio) throws IOException {
+        llamadas.incrementAndGet();
+        if (latenciaMs > 0) {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (tasaFallos > 0 && ThreadLocalRandom.current().nextDouble() < tasaFallos) {
+            fallosInyectados.incrementAndGet();
+            responder(intercambio, 503, null);
+            return true;
+        }
+        return false;
+    }
+
+    private List<Number> leerIds(HttpExchange intercambio) throws IOException {
+        return objectMapper.readValue(intercambio.getRequestBody(), List.class);
+    }
+
+    private static long ultimoSegmento(String ruta) {
+        return Long.parseLong(ruta.substring(ruta.lastIndexOf('/') + 1));
+    }
+
+    private static Map<String, Object> cliente(long id) {
+        Map<String, Object> cliente = new LinkedHashMap<>();
+        cliente.put("idCliente", id);
+        cliente.put("nombre", "Cliente " + id);
+        cliente.put("dni", String.format("%08d", id));
+        return cliente;
+    }
+
+    private static Map<String, Object> habitacion(long id) {
+        Map<String, Object> habitacion = new LinkedHashMap<>();
+        habitacion.put("idHabitacion", id);
+        habitacion.put("numero", String.valueOf(100 + id));
+        habitacion.put("tipo", id % 3 == 0 ? "SUITE" : "DOBLE");
+        habitacion.put("precioPorNoche", id % 3 == 0 ? 250.0 : 120.0);
+        habitacion.put("disponible", true);
+        habitacion.put("capacidad", id % 3 == 0 ? 4 : 2);
+        habitacion.put("estado", "ACTIVA");
+        return habitacion;
+    }
+
+    private void responder(HttpExchange intercambio, int estado, Object cuerpo) throws IOException {
+        byte[] bytes = cuerpo == null ? new byte[0] : objectMapper.writeValueAsBytes(cuerpo);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(estado, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(bytes);
+            }
+        }
+        intercambio.close();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+}
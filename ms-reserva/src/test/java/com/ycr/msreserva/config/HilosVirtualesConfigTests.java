@@ -0,0 +1,79 @@
+package com.ycr.msreserva.config;
+
+import com.ycr.msreserva.Service.ReservaService;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Arranque con el perfil "virtual": @ConditionalOnThreading elige el executor de validaciones y el diagnóstico de
+// pinning según la JVM. En Java 21 o superior pasan a hilos virtuales; en Java 17 la propiedad no tiene efecto.
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class HilosVirtualesConfigTests {
+
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    @Qualifier("validacionesExecutor")
+    private Executor validacionesExecutor;
+    @Autowired
+    private ReservaService reservaService;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    @Test
+    void hayUnSoloExecutorDeValidacionesYEsElQueUsaReservaService() {
+        assertSame(validacionesExecutor, context.getBean("validacionesExecutor"));
+        Object servicio = AopTestUtils.getTargetObject(reservaService);
+        assertSame(validacionesExecutor, ReflectionTestUtils.getField(servicio, "validacionesExecutor"));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void conJava21LasValidacionesCorrenEnHilosVirtuales() throws Exception {
+        SimpleAsyncTaskExecutor executor = assertInstanceOf(SimpleAsyncTaskExecutor.class, validacionesExecutor);
+        assertTrue(executor.isThrottleActive());
+        assertEquals(1, context.getBeansOfType(PinningHilosVirtuales.class).size());
+
+        // Thread.isVirtual no existe en la API de Java 17 con la que se compila
+        Boolean virtual = CompletableFuture.supplyAsync(() -> {
+            try {
+                return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }, validacionesExecutor).get(5, TimeUnit.SECONDS);
+        assertTrue(virtual);
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void antesDeJava21SeQuedaElPoolDePlataforma() {
+        ThreadPoolTaskExecutor pool = assertInstanceOf(ThreadPoolTaskExecutor.class, validacionesExecutor);
+        assertInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class,
+                pool.getThreadPoolExecutor().getRejectedExecutionHandler());
+        assertTrue(context.getBeansOfType(PinningHilosVirtuales.class).isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package com.ycr.msreserva.config;
+
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.Service.ReservaService;
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.FeignMetricasAspect;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class MetricasTests {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    @Test
+    void publicaOperacionesDelServicioConsultasYEstadoDeLaInfraestructura() {
+        reservaService.verificarDisponibilidad(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+        reservaRepository.findIdsHabitacion();
+        circuitBreakerRegistry.circuitBreaker("clientePorIdCB");
+
+        Timer servicio = meterRegistry.find("reservas.servicio")
+                .tags("class", ReservaService.class.getName(), "method", "verificarDisponibilidad").timer();
+        assertNotNull(servicio);
+        assertEquals(1, servicio.count());
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations")
+                .tags("repository", "ReservaRepository", "method", "findIdsHabitacion").timer());
+        assertNotNull(meterRegistry.find("resilience4j.circuitbreaker.state").tag("name", "clientePorIdCB").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").gauge());
+    }
+
+    @Test
+    void etiquetaLasLlamadasRemotasPorResultadoYFallback() {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        ClienteFeign remoto = proxy(new ClienteFeignSimulado(), registro);
+
+        remoto.obtenerClientePorId(1L);
+        remoto.obtenerClientePorId(-1L);
+        remoto.obtenerClientesPorIds(List.of(1L));
+        assertThrows(IllegalStateException.class, () -> remoto.obtenerClientePorDni("x"));
+
+        assertEquals(1, contar(registro, "obtenerClientePorId", "SUCCESS", "false"));
+        assertEquals(1, contar(registro, "obtenerClientePorId", "SUCCESS", "true"));
+        assertEquals(1, contar(registro, "obtenerClientesPorIds", "SERVER_ERROR", "false"));
+        assertEquals(1, contar(registro, "obtenerClientePorDni", "ERROR", "false"));
+    }
+
+    private static long contar(MeterRegistry registro, String metodo, String outcome, String fallback) {
+        Timer timer = registro.find("reservas.remoto")
+                .tags("cliente", "ClienteFeign", "metodo", metodo, "outcome", outcome, "fallback", fallback).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static ClienteFeign proxy(ClienteFeign destino, MeterRegistry registro) {
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(destino);
+        fabrica.addInterface(ClienteFeign.class);
+        fabrica.addAspect(new FeignMetricasAspect(registro));
+        return fabrica.getProxy();
+    }
+
+    // Sustituto que responde como lo haría el circuit breaker: los ids negativos pasan por el fallback
+    private static class ClienteFeignSimulado implements ClienteFeign {
+
+        @Override
+        public ResponseEntity<ClienteDTO> obtenerClientePorId(Long id) {
+            if (id < 0) {
+                return fallbackClientePorId(id, new RuntimeException("ms-cliente caído"));
+            }
+            return ResponseEntity.ok(new ClienteDTO());
+        }
+
+        @Override
+        public ResponseEntity<List<ClienteDTO>> obtenerClientesPorIds(List<Long> ids) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        @Override
+        public ResponseEntity<ClienteDTO> obtenerClientePorDni(String dni) {
+            throw new IllegalStateException("sin conexión");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ycr.msreserva.feign;
+
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HabitacionFeignAgrupadoTests {
+
+    private final HabitacionFeign feign = mock(HabitacionFeign.class);
+    private HabitacionFeignAgrupado agrupado;
+
+    @AfterEach
+    void detener() {
+        agrupado.detener();
+    }
+
+    // ms-habitacion simulado: existen las habitaciones con id <= ultima
+    private void habitacionesHasta(long ultima) {
+        when(feign.obtenerHabitacionesPorIds(anyList())).thenAnswer(inv -> {
+            List<Long> ids = inv.getArgument(0);
+            List<HabitacionDTO> encontradas = new ArrayList<>();
+            for (Long id : ids) {
+                if (id <= ultima) {
+                    HabitacionDTO dto = new HabitacionDTO();
+                    dto.setIdHabitacion(id);
+                    dto.setPrecioPorNoche(10.0 * id);
+                    encontradas.add(dto);
+                }
+            }
+            return ResponseEntity.ok(encontradas);
+        });
+    }
+
+    @Test
+    void lasConsultasDeLaVentanaSalenEnUnaSolaLlamada() {
+        habitacionesHasta(20);
+        agrupado = new HabitacionFeignAgrupado(feign, Duration.ofMillis(200), 100, 2);
+
+        List<CompletableFuture<ResponseEntity<HabitacionDTO>>> futuros = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            futuros.add(agrupado.cargar(id));
+            futuros.add(agrupado.cargar(id));
+        }
+
+        for (int i = 0; i < futuros.size(); i++) {
+            long id = i / 2 + 1;
+            ResponseEntity<HabitacionDTO> response = futuros.get(i).join();
+            if (id <= 20) {
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(10.0 * id, response.getBody().getPrecioPorNoche());
+            } else {
+                assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            }
+        }
+        verify(feign, times(1)).obtenerHabitacionesPorIds(anyList());
+        verify(feign, never()).obtenerHabitacionPorId(anyLong());
+    }
+
+    @Test
+    void unLoteLlenoSeDespachaSinEsperarLaVentana() {
+        habitacionesHasta(20);
+        agrupado = new HabitacionFeignAgrupado(feign, Duration.ofMinutes(10), 5, 2);
+
+        List<CompletableFuture<ResponseEntity<HabitacionDTO>>> futuros = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            futuros.add(agrupado.cargar(id));
+        }
+
+        futuros.forEach(futuro -> assertEquals(HttpStatus.OK, futuro.join().getStatusCode()));
+        verify(feign, times(2)).obtenerHabitacionesPorIds(anyList());
+    }
+
+    @Test
+    void propagaElErrorDeLaLlamadaEnBloque() {
+        when(feign.obtenerHabitacionesPorIds(anyList()))
+                .thenReturn(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build())
+                .thenThrow(new IllegalStateException("sin conexión"));
+        agrupado = new HabitacionFeignAgrupado(feign, Duration.ofMillis(1), 100, 1);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, agrupado.obtenerHabitacionPorId(1L).getStatusCode());
+        assertThrows(IllegalStateException.class, () -> agrupado.obtenerHabitacionPorId(2L));
+    }
+}
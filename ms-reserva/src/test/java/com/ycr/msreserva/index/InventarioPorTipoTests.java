@@ -0,0 +1,63 @@
+package com.ycr.msreserva.index;
+
+import com.ycr.msreserva.dtos.InventarioDiaDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InventarioPorTipoTests {
+
+    private static final LocalDate ORIGEN = LocalDate.of(2030, 1, 1);
+
+    private InventarioPorTipo inventario;
+
+    @BeforeEach
+    void cargar() {
+        inventario = new InventarioPorTipo();
+        Map<Long, List<RangoFechas>> rangos = Map.of(
+                1L, List.of(new RangoFechas(ORIGEN.plusDays(2), ORIGEN.plusDays(4))),
+                2L, List.of(new RangoFechas(ORIGEN.plusDays(3), ORIGEN.plusDays(3))),
+                10L, List.of(new RangoFechas(ORIGEN.plusDays(3), ORIGEN.plusDays(5))));
+        inventario.reconstruir(ORIGEN, 30, Map.of(1L, "doble", 2L, "Doble", 3L, "doble", 10L, "suite"),
+                rangos.keySet(), id -> rangos.getOrDefault(id, List.of()));
+    }
+
+    private static List<Integer> libres(List<InventarioDiaDTO> filas) {
+        return filas.stream().map(InventarioDiaDTO::getLibres).toList();
+    }
+
+    @Test
+    void cuentaLasHabitacionesLibresPorTipoYNoche() {
+        List<InventarioDiaDTO> dobles = inventario.consultar(ORIGEN.plusDays(1), ORIGEN.plusDays(5), "DOBLE");
+
+        assertEquals(List.of(3, 2, 1, 2, 3), libres(dobles));
+        assertEquals(3, dobles.get(0).getTotal());
+        assertEquals(List.of(1, 0, 0, 0, 1), libres(inventario.consultar(ORIGEN.plusDays(2), ORIGEN.plusDays(6), "suite")));
+        assertEquals(2, inventario.consultar(ORIGEN, ORIGEN, null).size());
+    }
+
+    @Test
+    void alCambiarLasFechasSoloMueveLaDiferencia() {
+        inventario.actualizarHabitacion(1L, List.of(new RangoFechas(ORIGEN.plusDays(4), ORIGEN.plusDays(6))));
+        inventario.actualizarHabitacion(2L, List.of());
+        inventario.registrarHabitacion(4L, "doble");
+        inventario.actualizarHabitacion(4L, List.of(new RangoFechas(ORIGEN.plusDays(1), ORIGEN.plusDays(1))));
+
+        assertEquals(List.of(3, 4, 4, 3, 3, 3, 4),
+                libres(inventario.consultar(ORIGEN.plusDays(1), ORIGEN.plusDays(7), "doble")));
+    }
+
+    @Test
+    void rechazaRangosFueraDeLaVentana() {
+        assertThrows(RuntimeException.class, () -> inventario.consultar(ORIGEN.minusDays(1), ORIGEN, null));
+        assertThrows(RuntimeException.class, () -> inventario.consultar(ORIGEN, ORIGEN.plusDays(30), null));
+        assertThrows(IllegalStateException.class,
+                () -> new InventarioPorTipo().consultar(ORIGEN, ORIGEN, null));
+    }
+}
@@ -0,0 +1,118 @@
+package com.ycr.msreserva.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OcupacionBitmapTests {
+
+    private static final LocalDate ORIGEN = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void filtraHabitacionesLibresIncluyendoRangosQueCruzanPalabras() {
+        OcupacionBitmap ocupacion = new OcupacionBitmap();
+        ocupacion.reiniciar(ORIGEN, 365);
+        ocupacion.actualizarFila(1L, List.of(new RangoFechas(ORIGEN.plusDays(60), ORIGEN.plusDays(70))));
+        ocupacion.actualizarFila(2L, List.of(new RangoFechas(ORIGEN.plusDays(5), ORIGEN.plusDays(6))));
+        ocupacion.actualizarFila(3L, List.of(new RangoFechas(ORIGEN.plusDays(100), ORIGEN.plusDays(300))));
+
+        List<Long> ids = List.of(1L, 2L, 3L, 4L);
+        assertEquals(List.of(2L, 3L, 4L), ocupacion.filtrarLibres(ids, ORIGEN.plusDays(50), ORIGEN.plusDays(60)).orElseThrow());
+        assertEquals(List.of(1L, 2L, 4L), ocupacion.filtrarLibres(ids, ORIGEN.plusDays(200), ORIGEN.plusDays(200)).orElseThrow());
+        assertEquals(List.of(1L, 3L, 4L), ocupacion.filtrarLibres(ids, ORIGEN, ORIGEN.plusDays(30)).orElseThrow());
+        assertEquals(List.of(2L, 4L), ocupacion.filtrarLibres(ids, ORIGEN.plusDays(63), ORIGEN.plusDays(140)).orElseThrow());
+    }
+
+    @Test
+    void actualizarFilaReemplazaLosRangosAnteriores() {
+        OcupacionBitmap ocupacion = new OcupacionBitmap();
+        ocupacion.reiniciar(ORIGEN, 90);
+        ocupacion.actualizarFila(1L, List.of(new RangoFechas(ORIGEN.plusDays(10), ORIGEN.plusDays(12))));
+        ocupacion.actualizarFila(1L, List.of());
+
+        assertEquals(List.of(1L), ocupacion.filtrarLibres(List.of(1L), ORIGEN, ORIGEN.plusDays(89)).orElseThrow());
+    }
+
+    @Test
+    void extraeLasFilasDesplazadasAlInicioDelPeriodo() {
+        OcupacionBitmap ocupacion = new OcupacionBitmap();
+        ocupacion.reiniciar(ORIGEN, 365);
+        ocupacion.actualizarFila(1L, List.of(new RangoFechas(ORIGEN.plusDays(60), ORIGEN.plusDays(70))));
+        ocupacion.actualizarFila(2L, List.of(new RangoFechas(ORIGEN.plusDays(5), ORIGEN.plusDays(6))));
+        ocupacion.actualizarFila(3L, List.of(new RangoFechas(ORIGEN.plusDays(100), ORIGEN.plusDays(300))));
+
+        Map<Long, BitSet> filas = ocupacion.extraerFilas(ORIGEN.plusDays(50), 60).orElseThrow();
+
+        BitSet habitacion1 = new BitSet();
+        habitacion1.set(10, 21);
+        BitSet habitacion3 = new BitSet();
+        habitacion3.set(50, 60);
+        assertEquals(Map.of(1L, habitacion1, 3L, habitacion3), filas);
+        BitSet completa = new BitSet();
+        completa.set(0, 130);
+        assertEquals(completa, ocupacion.extraerFilas(ORIGEN.plusDays(120), 130).orElseThrow().get(3L));
+        assertTrue(ocupacion.extraerFilas(ORIGEN.plusDays(320), 60).isEmpty());
+    }
+
+    @Test
+    void rangosFueraDeLaVentanaNoSeResuelven() {
+        OcupacionBitmap ocupacion = new OcupacionBitmap();
+        ocupacion.reiniciar(ORIGEN, 90);
+
+        assertTrue(ocupacion.filtrarLibres(List.of(1L), ORIGEN.minusDays(1), ORIGEN.plusDays(2)).isEmpty());
+        assertTrue(ocupacion.filtrarLibres(List.of(1L), ORIGEN.plusDays(80), ORIGEN.plusDays(90)).isEmpty());
+    }
+
+    // Las consultas que coinciden con una reconstrucción ven la matriz anterior o la nueva, nunca filas sin pintar
+    @Test
+    void consultasDuranteLaReconstruccionNoVenHabitacionesOcupadasComoLibres() throws Exception {
+        OcupacionBitmap ocupacion = new OcupacionBitmap();
+        List<Long> habitaciones = LongStream.rangeClosed(1, 200).boxed().toList();
+        List<RangoFechas> ocupada = List.of(new RangoFechas(ORIGEN.plusDays(10), ORIGEN.plusDays(20)));
+        ocupacion.reiniciar(ORIGEN, 365, habitaciones, id -> ocupada);
+
+        AtomicBoolean reconstruyendo = new AtomicBoolean(true);
+        AtomicBoolean vistaIncompleta = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 3; i++) {
+                executor.submit(() -> {
+                    while (reconstruyendo.get()) {
+                        List<Long> libres = ocupacion.filtrarLibres(habitaciones, ORIGEN.plusDays(15), ORIGEN.plusDays(15))
+                                .orElseThrow();
+                        Map<Long, BitSet> filas = ocupacion.extraerFilas(ORIGEN, 60).orElseThrow();
+                        if (!libres.isEmpty() || filas.size() != habitaciones.size()) {
+                            vistaIncompleta.set(true);
+                        }
+                    }
+                });
+            }
+            Future<?> reconstrucciones = executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    ocupacion.reiniciar(ORIGEN, 365, habitaciones, id -> {
+                        Thread.yield();
+                        return ocupada;
+                    });
+                }
+            });
+            reconstrucciones.get();
+        } finally {
+            reconstruyendo.set(false);
+            executor.shutdown();
+        }
+
+        assertFalse(vistaIncompleta.get());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ycr.msreserva.index;
+
+import com.ycr.msreserva.dtos.RejillaDisponibilidadDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RejillaDisponibilidadTests {
+
+    private static final LocalDate DESDE = LocalDate.of(2030, 1, 1);
+
+    private static BitSet dias(int desde, int hasta) {
+        BitSet bits = new BitSet();
+        bits.set(desde, hasta + 1);
+        return bits;
+    }
+
+    private final RejillaDisponibilidad rejilla = new RejillaDisponibilidad(DESDE, 60, List.of(
+            new RejillaDisponibilidad.Fila(3L, "doble", dias(2, 4)),
+            new RejillaDisponibilidad.Fila(7L, "suite", new BitSet()),
+            new RejillaDisponibilidad.Fila(300L, "doble", dias(0, 59)),
+            new RejillaDisponibilidad.Fila(301L, null, dias(58, 59))));
+
+    @Test
+    void codificaCadaFilaEnTramosAlternosEmpezandoPorLibres() {
+        RejillaDisponibilidadDTO dto = rejilla.aDTO();
+
+        assertEquals(DESDE, dto.getDesde());
+        assertArrayEquals(new int[]{2, 3, 55}, dto.getFilas().get(0).getTramos());
+        assertArrayEquals(new int[]{60}, dto.getFilas().get(1).getTramos());
+        assertArrayEquals(new int[]{0, 60}, dto.getFilas().get(2).getTramos());
+        assertArrayEquals(new int[]{58, 2}, dto.getFilas().get(3).getTramos());
+    }
+
+    @Test
+    void formatoBinarioUsaUnBitPorDiaEIdsIncrementales() throws IOException {
+        byte[] binario = rejilla.codificar();
+        DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(binario));
+
+        assertEquals(RejillaDisponibilidad.VERSION_BINARIA, entrada.readByte());
+        assertEquals(DESDE.toEpochDay(), entrada.readInt());
+        assertEquals(60, entrada.readShort());
+        assertEquals(2, entrada.readShort());
+        assertEquals("doble", entrada.readUTF());
+        assertEquals("suite", entrada.readUTF());
+        assertEquals(4, entrada.readInt());
+
+        long[] ids = {3, 7, 300, 301};
+        int[] tipos = {1, 2, 1, 0};
+        BitSet[] esperadas = {dias(2, 4), new BitSet(), dias(0, 59), dias(58, 59)};
+        long id = 0;
+        for (int fila = 0; fila < 4; fila++) {
+            id += leerVarint(entrada);
+            assertEquals(ids[fila], id);
+            assertEquals(tipos[fila], leerVarint(entrada));
+            byte[] ocupacion = entrada.readNBytes(8);
+            assertEquals(esperadas[fila], BitSet.valueOf(ocupacion));
+        }
+        assertEquals(0, entrada.available());
+        assertEquals(1 + 4 + 2 + 2 + 7 + 7 + 4 + 4 * 8 + 9, binario.length);
+    }
+
+    private static long leerVarint(DataInputStream entrada) throws IOException {
+        long valor = 0;
+        int desplazamiento = 0;
+        int b;
+        do {
+            b = entrada.readUnsignedByte();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+}
@@ -0,0 +1,156 @@
+package com.ycr.msreserva.index;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.dtos.InventarioDiaDTO;
+import com.ycr.msreserva.events.ReservaEvento;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ReservaIndexSincronizadorTests {
+
+    private static final long HABITACION_NUEVA = 9_001L;
+
+    @Autowired
+    private ReservaIndexSincronizador sincronizador;
+    @Autowired
+    private InventarioPorTipo inventario;
+    @Autowired
+    private ReservaIntervalIndex indice;
+    @Autowired
+    private OcupacionBitmap ocupacion;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    // ms-habitacion no responde hasta que se libera
+    private final CountDownLatch remotoLibre = new CountDownLatch(1);
+
+    private static HabitacionDTO habitacion(long id) {
+        HabitacionDTO dto = new HabitacionDTO();
+        dto.setIdHabitacion(id);
+        dto.setTipo("suite");
+        dto.setEstado("ACTIVA");
+        return dto;
+    }
+
+    @BeforeEach
+    void configurarServicios() {
+        reservaRepository.deleteAll();
+        habitacionCache.invalidarTodo();
+        when(habitacionFeign.obtenerTodasLasHabitaciones()).thenReturn(ResponseEntity.ok(List.of(habitacion(1L))));
+        when(habitacionFeign.obtenerHabitacionPorId(anyLong())).thenAnswer(inv -> {
+            remotoLibre.await(10, TimeUnit.SECONDS);
+            return ResponseEntity.ok(habitacion(inv.getArgument(0)));
+        });
+        when(habitacionFeign.obtenerHabitacionesPorIds(ArgumentMatchers.<Long>anyList())).thenAnswer(inv -> {
+            remotoLibre.await(10, TimeUnit.SECONDS);
+            List<Long> ids = inv.getArgument(0);
+            return ResponseEntity.ok(ids.stream().map(ReservaIndexSincronizadorTests::habitacion).toList());
+        });
+        sincronizador.cargarIndice();
+    }
+
+    // El listener corre con el lock de la habitación tomado: una habitación desconocida se deja pendiente
+    // y su tipo se resuelve después, fuera de la reserva
+    @Test
+    void habitacionDesconocidaSeResuelveFueraDelListener() {
+        LocalDate llegada = LocalDate.now().plusDays(3);
+        Reserva reserva = Reserva.builder().idReserva(1L).idCliente(1L).idHabitacion(HABITACION_NUEVA)
+                .fechaInicio(llegada).fechaFin(llegada.plusDays(1)).estado("PENDIENTE").build();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> sincronizador.alConfirmarCambio(new ReservaEvento(null, reserva)));
+
+        remotoLibre.countDown();
+        sincronizador.resolverHabitacionesPendientes();
+
+        assertTrue(inventario.conoceHabitacion(HABITACION_NUEVA));
+        List<InventarioDiaDTO> suites = inventario.consultar(llegada, llegada.plusDays(1), "suite");
+        assertEquals(List.of(1, 1), suites.stream().map(InventarioDiaDTO::getOcupadas).toList());
+    }
+
+    // Una habitación que ms-habitacion no conoce se descarta; si el servicio no responde se vuelve a intentar
+    @Test
+    void soloSeReintentaSiMsHabitacionNoResponde() {
+        long inexistente = HABITACION_NUEVA + 1;
+        long sinServicio = HABITACION_NUEVA + 2;
+        long caida = HABITACION_NUEVA + 3;
+        HabitacionDTO fallback = habitacion(0L);
+        doReturn(ResponseEntity.notFound().build()).when(habitacionFeign).obtenerHabitacionPorId(inexistente);
+        doReturn(ResponseEntity.ok(fallback)).when(habitacionFeign).obtenerHabitacionPorId(sinServicio);
+        doReturn(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build())
+                .when(habitacionFeign).obtenerHabitacionPorId(caida);
+        LocalDate llegada = LocalDate.now().plusDays(3);
+        long idReserva = 10;
+        for (long idHabitacion : List.of(inexistente, sinServicio, caida)) {
+            sincronizador.alConfirmarCambio(new ReservaEvento(null, Reserva.builder().idReserva(idReserva++)
+                    .idCliente(1L).idHabitacion(idHabitacion).fechaInicio(llegada).fechaFin(llegada.plusDays(1))
+                    .estado("PENDIENTE").build()));
+        }
+
+        sincronizador.resolverHabitacionesPendientes();
+        sincronizador.resolverHabitacionesPendientes();
+
+        verify(habitacionFeign, times(1)).obtenerHabitacionPorId(inexistente);
+        verify(habitacionFeign, atLeast(2)).obtenerHabitacionPorId(sinServicio);
+        verify(habitacionFeign, atLeast(2)).obtenerHabitacionPorId(caida);
+        assertFalse(inventario.conoceHabitacion(inexistente));
+    }
+
+    // Los cambios confirmados mientras se leían las reservas activas se aplican después de reconstruir, aunque la
+    // lectura no los incluya
+    @Test
+    void losCambiosDuranteLaCargaNoSePierden() {
+        LocalDate llegada = LocalDate.now().plusDays(3);
+        Reserva nueva = Reserva.builder().idReserva(1L).idCliente(1L).idHabitacion(1L)
+                .fechaInicio(llegada).fechaFin(llegada.plusDays(1)).estado("PENDIENTE").build();
+        Reserva cancelada = Reserva.builder().idReserva(2L).idCliente(1L).idHabitacion(2L)
+                .fechaInicio(llegada).fechaFin(llegada.plusDays(1)).estado("CONFIRMADA").build();
+
+        sincronizador.iniciarCarga();
+        List<Reserva> leidas = List.of(cancelada);
+        sincronizador.alConfirmarCambio(new ReservaEvento(null, nueva));
+        sincronizador.alConfirmarCambio(new ReservaEvento(cancelada, null));
+        sincronizador.completarCarga(leidas);
+
+        assertTrue(indice.estaListo());
+        assertTrue(indice.haySolapamiento(1L, llegada, llegada));
+        assertFalse(indice.haySolapamiento(2L, llegada, llegada));
+        assertEquals(Optional.of(List.of(2L)), ocupacion.filtrarLibres(List.of(1L, 2L), llegada, llegada.plusDays(1)));
+    }
+}
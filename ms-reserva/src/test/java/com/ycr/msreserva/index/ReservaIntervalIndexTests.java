@@ -0,0 +1,83 @@
+package com.ycr.msreserva.index;
+
+import com.ycr.msreserva.Entity.Reserva;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservaIntervalIndexTests {
+
+    private static final LocalDate HOY = LocalDate.of(2030, 1, 10);
+
+    private static Reserva reserva(long id, long idHabitacion, LocalDate inicio, LocalDate fin, String estado) {
+        return Reserva.builder()
+                .idReserva(id)
+                .idHabitacion(idHabitacion)
+                .fechaInicio(inicio)
+                .fechaFin(fin)
+                .estado(estado)
+                .build();
+    }
+
+    @Test
+    void detectaSolapamientoConExtremosInclusivos() {
+        ReservaIntervalIndex indice = new ReservaIntervalIndex();
+        indice.reconstruir(List.of(reserva(1, 100, HOY, HOY.plusDays(3), "CONFIRMADA")));
+
+        assertTrue(indice.haySolapamiento(100L, HOY.plusDays(3), HOY.plusDays(5)));
+        assertTrue(indice.haySolapamiento(100L, HOY.minusDays(2), HOY));
+        assertTrue(indice.haySolapamiento(100L, HOY.minusDays(20), HOY.plusDays(20)));
+        assertFalse(indice.haySolapamiento(100L, HOY.plusDays(4), HOY.plusDays(6)));
+        assertFalse(indice.haySolapamiento(100L, HOY.minusDays(5), HOY.minusDays(1)));
+        assertFalse(indice.haySolapamiento(200L, HOY, HOY.plusDays(3)));
+    }
+
+    @Test
+    void ignoraEstadosFinalizadosYLaReservaExcluida() {
+        ReservaIntervalIndex indice = new ReservaIntervalIndex();
+        indice.reconstruir(List.of(
+                reserva(1, 100, HOY, HOY.plusDays(3), "CANCELADA"),
+                reserva(2, 100, HOY, HOY.plusDays(3), "COMPLETADA"),
+                reserva(3, 101, HOY, HOY.plusDays(3), "PENDIENTE")));
+
+        assertFalse(indice.haySolapamiento(100L, HOY, HOY.plusDays(3)));
+        assertTrue(indice.haySolapamiento(101L, HOY, HOY.plusDays(3)));
+        assertFalse(indice.haySolapamiento(101L, HOY, HOY.plusDays(3), 3L));
+    }
+
+    @Test
+    void registrarMueveLaReservaYCambioDeEstadoLaLibera() {
+        ReservaIntervalIndex indice = new ReservaIntervalIndex();
+        indice.registrar(reserva(1, 100, HOY, HOY.plusDays(2), "PENDIENTE"));
+        indice.registrar(reserva(1, 101, HOY, HOY.plusDays(2), "PENDIENTE"));
+
+        assertFalse(indice.haySolapamiento(100L, HOY, HOY.plusDays(2)));
+        assertTrue(indice.haySolapamiento(101L, HOY, HOY.plusDays(2)));
+
+        indice.registrar(reserva(1, 101, HOY, HOY.plusDays(2), "CANCELADA"));
+        assertFalse(indice.haySolapamiento(101L, HOY, HOY.plusDays(2)));
+    }
+
+    @Test
+    void reconciliarCorrigeSoloHabitacionesSinEscriturasConcurrentes() {
+        ReservaIntervalIndex indice = new ReservaIntervalIndex();
+        indice.reconstruir(List.of(reserva(1, 100, HOY, HOY.plusDays(2), "PENDIENTE")));
+        Map<Long, Long> versiones = indice.versiones();
+
+        List<Long> corregidas = indice.reconciliar(List.of(reserva(2, 200, HOY, HOY.plusDays(1), "CONFIRMADA")), versiones);
+
+        assertEquals(2, corregidas.size());
+        assertFalse(indice.haySolapamiento(100L, HOY, HOY.plusDays(2)));
+        assertTrue(indice.haySolapamiento(200L, HOY, HOY));
+
+        versiones = indice.versiones();
+        indice.registrar(reserva(3, 200, HOY.plusDays(5), HOY.plusDays(6), "PENDIENTE"));
+        assertTrue(indice.reconciliar(List.of(reserva(2, 200, HOY, HOY.plusDays(1), "CONFIRMADA")), versiones).isEmpty());
+    }
+}
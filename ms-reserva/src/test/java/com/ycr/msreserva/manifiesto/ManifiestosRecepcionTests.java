@@ -0,0 +1,133 @@
+package com.ycr.msreserva.manifiesto;
+
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.Service.ReservaService;
+import com.ycr.msreserva.cache.ClienteCache;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.dtos.ClienteDTO;
+import com.ycr.msreserva.dtos.HabitacionDTO;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.index.ReservaIndexSincronizador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class ManifiestosRecepcionTests {
+
+    private static final LocalDate HOY = LocalDate.now();
+
+    @Autowired
+    private ManifiestosRecepcion manifiestos;
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private ReservaIndexSincronizador sincronizador;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private WebApplicationContext context;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    @BeforeEach
+    void configurarServicios() {
+        reservaRepository.deleteAll();
+        sincronizador.cargarIndice();
+        manifiestos.recargar();
+        habitacionCache.invalidarTodo();
+        clienteCache.invalidarTodo();
+        when(clienteFeign.obtenerClientePorId(anyLong())).thenAnswer(inv -> {
+            ClienteDTO dto = new ClienteDTO();
+            dto.setIdCliente(inv.getArgument(0));
+            return ResponseEntity.ok(dto);
+        });
+        when(habitacionFeign.obtenerHabitacionPorId(anyLong())).thenAnswer(inv -> {
+            HabitacionDTO dto = new HabitacionDTO();
+            dto.setIdHabitacion(inv.getArgument(0));
+            dto.setPrecioPorNoche(100.0);
+            return ResponseEntity.ok(dto);
+        });
+    }
+
+    private Reserva reservar(long idHabitacion, LocalDate inicio, LocalDate fin, String estado) {
+        return reservaService.crearReserva(Reserva.builder()
+                .idCliente(1L).idHabitacion(idHabitacion).fechaInicio(inicio).fechaFin(fin).estado(estado).build());
+    }
+
+    @Test
+    void seActualizaEnMemoriaConCadaCambio() {
+        Reserva llegaHoy = reservar(1L, HOY, HOY.plusDays(1), "CONFIRMADA");
+        reservar(2L, HOY, HOY.plusDays(2), "PENDIENTE");
+        Reserva pendiente = reservar(3L, HOY.plusDays(1), HOY.plusDays(3), "PENDIENTE");
+
+        assertEquals(List.of(llegaHoy.getIdReserva()), ids(manifiestos.checkIn(HOY)));
+        assertEquals(List.of(llegaHoy.getIdReserva()), ids(manifiestos.checkOut(HOY.plusDays(1))));
+        assertTrue(manifiestos.checkIn(HOY.plusDays(1)).reservas().isEmpty());
+
+        String etagManana = manifiestos.checkIn(HOY.plusDays(1)).etag();
+        reservaService.cambiarEstado(pendiente.getIdReserva(), "CONFIRMADA");
+        assertEquals(List.of(pendiente.getIdReserva()), ids(manifiestos.checkIn(HOY.plusDays(1))));
+        assertNotEquals(etagManana, manifiestos.checkIn(HOY.plusDays(1)).etag());
+
+        reservaService.cambiarEstado(llegaHoy.getIdReserva(), "CANCELADA");
+        assertTrue(manifiestos.checkIn(HOY).reservas().isEmpty());
+
+        reservaService.eliminarReserva(pendiente.getIdReserva());
+        assertTrue(manifiestos.checkIn(HOY.plusDays(1)).reservas().isEmpty());
+
+        // Lo aplicado en memoria coincide con lo que devuelve la base de datos
+        Manifiesto enMemoria = manifiestos.checkIn(HOY);
+        manifiestos.recargar();
+        assertEquals(enMemoria, manifiestos.checkIn(HOY));
+    }
+
+    @Test
+    void respondeNotModifiedSiElEtagNoCambio() throws Exception {
+        reservar(1L, HOY, HOY.plusDays(1), "CONFIRMADA");
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        String etag = mockMvc.perform(get("/reservas/checkin/hoy"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/reservas/checkin/hoy").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        reservar(2L, HOY, HOY.plusDays(2), "CONFIRMADA");
+        mockMvc.perform(get("/reservas/checkin/hoy").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private static List<Long> ids(Manifiesto manifiesto) {
+        return manifiesto.reservas().stream().map(Reserva::getIdReserva).toList();
+    }
+}
@@ -0,0 +1,181 @@
+package com.ycr.msreserva.outbox;
+
+import com.ycr.msreserva.Entity.DisponibilidadOutbox;
+import com.ycr.msreserva.Repository.DisponibilidadOutboxRepository;
+import com.ycr.msreserva.dtos.CambioDisponibilidadDTO;
+import com.ycr.msreserva.dtos.ResultadoLoteDisponibilidadDTO;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class DisponibilidadOutboxDispatcherTests {
+
+    @Autowired
+    private DisponibilidadOutboxDispatcher dispatcher;
+    @Autowired
+    private DisponibilidadOutboxRepository outboxRepository;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    @BeforeEach
+    void limpiarOutbox() {
+        outboxRepository.deleteAll();
+    }
+
+    private void encolar(long idHabitacion, boolean disponible) {
+        LocalDateTime ahora = LocalDateTime.now().minusSeconds(1);
+        outboxRepository.save(DisponibilidadOutbox.builder()
+                .idHabitacion(idHabitacion).disponible(disponible)
+                .fechaCreacion(ahora).intentos(0).proximoIntento(ahora).build());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void agrupaPorHabitacionYEnviaSoloElUltimoCambio() {
+        encolar(1, false);
+        encolar(2, false);
+        encolar(1, true);
+        encolar(1, false);
+        encolar(3, true);
+        ResultadoLoteDisponibilidadDTO resultado = new ResultadoLoteDisponibilidadDTO();
+        resultado.setActualizadas(List.of(1L, 2L));
+        resultado.setNoEncontradas(List.of(3L));
+        when(habitacionFeign.cambiarDisponibilidadLote(anyList())).thenReturn(ResponseEntity.ok(resultado));
+
+        dispatcher.despachar();
+
+        ArgumentCaptor<List<CambioDisponibilidadDTO>> enviados = ArgumentCaptor.forClass(List.class);
+        verify(habitacionFeign, times(1)).cambiarDisponibilidadLote(enviados.capture());
+        List<CambioDisponibilidadDTO> cambios = enviados.getValue().stream()
+                .sorted(Comparator.comparing(CambioDisponibilidadDTO::getIdHabitacion)).toList();
+        assertEquals(List.of(new CambioDisponibilidadDTO(1L, false), new CambioDisponibilidadDTO(2L, false),
+                new CambioDisponibilidadDTO(3L, true)), cambios);
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void siMsHabitacionNoRespondeReprogramaConBackoff() {
+        encolar(1, false);
+        encolar(2, true);
+        when(habitacionFeign.cambiarDisponibilidadLote(anyList()))
+                .thenReturn(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        dispatcher.despachar();
+        dispatcher.despachar();
+
+        // El segundo ciclo no reintenta: los cambios esperan a su próximo intento
+        verify(habitacionFeign, times(1)).cambiarDisponibilidadLote(anyList());
+        List<DisponibilidadOutbox> pendientes = outboxRepository.findAll();
+        assertEquals(2, pendientes.size());
+        for (DisponibilidadOutbox pendiente : pendientes) {
+            assertEquals(1, pendiente.getIntentos());
+            assertTrue(pendiente.getProximoIntento().isAfter(LocalDateTime.now()));
+        }
+    }
+
+    // ms-habitacion confirma todo lo recibido; cada llamada queda registrada
+    private ResponseEntity<ResultadoLoteDisponibilidadDTO> confirmar(List<CambioDisponibilidadDTO> cambios,
+                                                                     List<List<CambioDisponibilidadDTO>> llamadas) {
+        llamadas.add(List.copyOf(cambios));
+        ResultadoLoteDisponibilidadDTO resultado = new ResultadoLoteDisponibilidadDTO();
+        resultado.setActualizadas(cambios.stream().map(CambioDisponibilidadDTO::getIdHabitacion).toList());
+        return ResponseEntity.ok(resultado);
+    }
+
+    // Dos instancias despachando a la vez: cada habitación la envía solo una de ellas, y con su último cambio
+    @Test
+    void dosDispatchersConcurrentesNoEnvianLosMismosCambios() throws Exception {
+        for (long idHabitacion = 1; idHabitacion <= 4; idHabitacion++) {
+            encolar(idHabitacion, false);
+            encolar(idHabitacion, idHabitacion % 2 == 0);
+        }
+        List<List<CambioDisponibilidadDTO>> llamadas = Collections.synchronizedList(new ArrayList<>());
+        // Cada llamada espera un poco a la otra para que ambas tengan su lote en vuelo a la vez
+        CountDownLatch enVuelo = new CountDownLatch(2);
+        when(habitacionFeign.cambiarDisponibilidadLote(ArgumentMatchers.<CambioDisponibilidadDTO>anyList()))
+                .thenAnswer(inv -> {
+                    enVuelo.countDown();
+                    enVuelo.await(1, TimeUnit.SECONDS);
+                    return confirmar(inv.getArgument(0), llamadas);
+                });
+
+        CompletableFuture<Void> primero = CompletableFuture.runAsync(dispatcher::despachar);
+        CompletableFuture<Void> segundo = CompletableFuture.runAsync(dispatcher::despachar);
+        CompletableFuture.allOf(primero, segundo).get(10, TimeUnit.SECONDS);
+
+        List<CambioDisponibilidadDTO> enviados = llamadas.stream().flatMap(List::stream)
+                .sorted(Comparator.comparing(CambioDisponibilidadDTO::getIdHabitacion)).toList();
+        assertEquals(List.of(new CambioDisponibilidadDTO(1L, false), new CambioDisponibilidadDTO(2L, true),
+                new CambioDisponibilidadDTO(3L, false), new CambioDisponibilidadDTO(4L, true)), enviados);
+        assertEquals(0, outboxRepository.count());
+    }
+
+    // Un cambio que llega mientras el anterior de la misma habitación está en vuelo no se envía antes que él
+    @Test
+    void unCambioNuevoEsperaAlQueEstaEnVuelo() throws Exception {
+        encolar(1, false);
+        List<List<CambioDisponibilidadDTO>> llamadas = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch enVuelo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(habitacionFeign.cambiarDisponibilidadLote(ArgumentMatchers.<CambioDisponibilidadDTO>anyList()))
+                .thenAnswer(inv -> {
+                    if (enVuelo.getCount() > 0) {
+                        enVuelo.countDown();
+                        liberar.await(10, TimeUnit.SECONDS);
+                    }
+                    return confirmar(inv.getArgument(0), llamadas);
+                });
+
+        CompletableFuture<Void> primero = CompletableFuture.runAsync(dispatcher::despachar);
+        assertTrue(enVuelo.await(10, TimeUnit.SECONDS));
+        encolar(1, true);
+        dispatcher.despachar();
+        assertTrue(llamadas.isEmpty());
+
+        liberar.countDown();
+        primero.get(10, TimeUnit.SECONDS);
+        assertFalse(outboxRepository.findAll().isEmpty());
+        dispatcher.despachar();
+
+        assertEquals(List.of(List.of(new CambioDisponibilidadDTO(1L, false)), List.of(new CambioDisponibilidadDTO(1L, true))),
+                llamadas);
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void elBackoffCreceHastaElMaximo() {
+        assertEquals(Duration.ofSeconds(2), dispatcher.espera(0));
+        assertEquals(Duration.ofSeconds(16), dispatcher.espera(3));
+        assertEquals(Duration.ofMinutes(5), dispatcher.espera(12));
+        assertEquals(Duration.ofMinutes(5), dispatcher.espera(40));
+    }
+}
@@ -0,0 +1,197 @@
+package com.ycr.msreserva.reactivo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.ycr.msreserva.Entity.Reserva;
+import com.ycr.msreserva.Repository.DisponibilidadOutboxRepository;
+import com.ycr.msreserva.Repository.ReservaRepository;
+import com.ycr.msreserva.Service.ReservaReactivaService;
+import com.ycr.msreserva.cache.ClienteCache;
+import com.ycr.msreserva.cache.HabitacionCache;
+import com.ycr.msreserva.feign.ClienteFeign;
+import com.ycr.msreserva.feign.HabitacionFeign;
+import com.ycr.msreserva.index.ReservaIndexSincronizador;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// POST /reservas/reactiva contra un ms-cliente/ms-habitacion simulado por HTTP, con latencia configurable
+@SpringBootTest
+class ReservaReactivaTests {
+
+    @Autowired
+    private ReservaReactivaService reservaReactivaService;
+    @Autowired
+    private ServiciosRemotosReactivos remotosOriginales;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private DisponibilidadOutboxRepository outboxRepository;
+    @Autowired
+    private ReservaIndexSincronizador sincronizador;
+    @Autowired
+    private HabitacionCache habitacionCache;
+    @Autowired
+    private ClienteCache clienteCache;
+    @Autowired
+    private WebApplicationContext context;
+    @MockitoBean
+    private ClienteFeign clienteFeign;
+    @MockitoBean
+    private HabitacionFeign habitacionFeign;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer servidor;
+    private volatile long latenciaMs;
+    private volatile int estadoHabitaciones;
+    private final AtomicInteger llamadas = new AtomicInteger();
+
+    @BeforeEach
+    void configurarServicios() throws IOException {
+        reservaRepository.deleteAll();
+        outboxRepository.deleteAll();
+        sincronizador.cargarIndice();
+        habitacionCache.invalidarTodo();
+        clienteCache.invalidarTodo();
+        latenciaMs = 0;
+        estadoHabitaciones = 200;
+        llamadas.set(0);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/clientes", intercambio -> responder(intercambio, 200,
+                id -> id > 1000 ? null : Map.of("idCliente", id, "nombre", "Cliente " + id)));
+        servidor.createContext("/habitaciones", intercambio -> responder(intercambio, estadoHabitaciones,
+                id -> Map.of("idHabitacion", id, "numero", String.valueOf(100 + id), "precioPorNoche", 90.0)));
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.start();
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+        ReflectionTestUtils.setField(reservaReactivaService, "remotos", new ServiciosRemotosReactivos(
+                WebClient.create(url + "/clientes"), WebClient.create(url + "/habitaciones"),
+                CircuitBreakerRegistry.ofDefaults(), Duration.ofSeconds(5)));
+    }
+
+    @AfterEach
+    void restaurarServicios() {
+        ReflectionTestUtils.setField(reservaReactivaService, "remotos", remotosOriginales);
+        servidor.stop(0);
+    }
+
+    private void responder(HttpExchange intercambio, int estado, LongFunction<Object> cuerpo) throws IOException {
+        llamadas.incrementAndGet();
+        try {
+            Thread.sleep(latenciaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String ruta = intercambio.getRequestURI().getPath();
+        Object dto = cuerpo.apply(Long.parseLong(ruta.substring(ruta.lastIndexOf('/') + 1)));
+        byte[] bytes = estado == 200 && dto != null ? objectMapper.writeValueAsBytes(dto) : new byte[0];
+        intercambio.getResponseHeaders().set("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(dto == null ? 404 : estado, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(bytes);
+            }
+        }
+        intercambio.close();
+    }
+
+    private static Reserva reserva(long idCliente, long idHabitacion, LocalDate inicio, int noches) {
+        return Reserva.builder().idCliente(idCliente).idHabitacion(idHabitacion)
+                .fechaInicio(inicio).fechaFin(inicio.plusDays(noches)).build();
+    }
+
+    @Test
+    void creaLaReservaValidandoPorWebClientYDejaLaDisponibilidadEnElOutbox() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        String cuerpo = objectMapper.writeValueAsString(Map.of("idCliente", 1, "idHabitacion", 7,
+                "fechaInicio", LocalDate.now().plusDays(1).toString(), "fechaFin", LocalDate.now().plusDays(3).toString()));
+
+        MvcResult resultado = mockMvc.perform(post("/reservas/reactiva").contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.montoTotal").value(180.0))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+
+        assertEquals(1, reservaRepository.count());
+        assertEquals(1, outboxRepository.count());
+        verify(clienteFeign, never()).obtenerClientePorId(anyLong());
+        verify(habitacionFeign, never()).obtenerHabitacionPorId(anyLong());
+    }
+
+    @Test
+    void rechazaClientesInexistentesYHabitacionesNoDisponibles() {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        RuntimeException sinCliente = assertThrows(RuntimeException.class,
+                () -> reservaReactivaService.crearReserva(reserva(5000, 1, manana, 2)).block());
+        assertTrue(sinCliente.getMessage().startsWith("Cliente no encontrado"));
+
+        estadoHabitaciones = 503;
+        RuntimeException sinHabitacion = assertThrows(RuntimeException.class,
+                () -> reservaReactivaService.crearReserva(reserva(1, 2, manana, 2)).block());
+        assertTrue(sinHabitacion.getMessage().startsWith("Habitación no encontrada o servicio no disponible"));
+
+        RuntimeException fechas = assertThrows(RuntimeException.class,
+                () -> reservaReactivaService.crearReserva(reserva(1, 3, manana.minusDays(5), 1)).block());
+        assertEquals("La fecha de inicio no puede ser anterior a hoy", fechas.getMessage());
+        assertEquals(0, reservaRepository.count());
+    }
+
+    @Test
+    void sostieneMuchasReservasEnCursoConServiciosLentos() {
+        latenciaMs = 200;
+        int reservas = 200;
+        LocalDate manana = LocalDate.now().plusDays(1);
+
+        long t0 = System.nanoTime();
+        List<Reserva> creadas = Flux.range(1, reservas)
+                .flatMap(i -> reservaReactivaService.crearReserva(reserva(i, i, manana, 2)), reservas)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+        double segundos = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("%d reservas reactivas con %d ms de latencia remota en %.2f s%n", reservas, latenciaMs, segundos);
+
+        assertEquals(reservas, creadas.size());
+        assertEquals(reservas, reservaRepository.count());
+        assertEquals(2 * reservas, llamadas.get());
+        // En serie serían 200 × 200 ms = 40 s; con todas en curso a la vez basta con pocas latencias remotas
+        assertTrue(segundos < 10, "Las reservas no se procesaron en paralelo: " + segundos + " s");
+    }
+}